@@ -0,0 +1,114 @@
+package graph;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * Workloads reproducing the frontier operations of Dijkstra's algorithm on pixel graphs (see
+ * `QueueTrace`), run against a `MinQueue` implementation chosen by a subclass.  Each subclass
+ * declares the `FrontierType`s and graph sizes it covers as JMH parameters, since not every
+ * implementation can handle the largest graphs in reasonable time.
+ * <p>
+ * Scores are times per workload, not per operation, since workloads of different sizes and
+ * operation mixes are not comparable anyway; `QueueTrace.toString()` (printed during setup) gives
+ * their operation counts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+@State(Scope.Thread)
+public abstract class AbstractMinQueueBenchmark {
+
+    /**
+     * The trace our workloads are taken from, and its decrease-heavy variant (created only for
+     * `decreaseKey()`).
+     */
+    private QueueTrace trace;
+    private QueueTrace heavyTrace;
+
+    /**
+     * The queue being benchmarked.  Empty between invocations, except before those of `remove()`.
+     */
+    private IntMinQueue queue;
+
+    /**
+     * Return the type of queue to benchmark.
+     */
+    protected abstract FrontierType frontierType();
+
+    /**
+     * Return the approximate number of pixels in the graph whose search our workloads reproduce.
+     */
+    protected abstract int pixels();
+
+    @Setup(Level.Trial)
+    public void loadTrace(BenchmarkParams params) throws IOException {
+        trace = QueueTrace.of(pixels());
+        System.out.println("Trace of " + trace);
+        if (params.getBenchmark().endsWith(".decreaseKey")) {
+            heavyTrace = trace.decreaseHeavy();
+            System.out.println("Decrease-heavy trace of " + heavyTrace);
+        }
+        // Traces only use weights within `PixelGridGraph`'s bound, as bucket queues require.
+        queue = frontierType().create(trace.capacity(), new PixelGridGraph(1, 1, 0).weights());
+    }
+
+    /**
+     * Fill our queue before each invocation of `remove()`.  JMH's per-invocation fixtures add a
+     * little overhead to each invocation's timing, which only matters for the smallest graphs.
+     */
+    @Setup(Level.Invocation)
+    public void fillForRemove(BenchmarkParams params) {
+        if (params.getBenchmark().endsWith(".remove")) {
+            trace.fillFrontier(queue);
+        }
+    }
+
+    /**
+     * Replay the whole search: every addition, decrease-key, and removal, in order.
+     */
+    @Benchmark
+    public int dijkstra() {
+        return trace.replay(queue);
+    }
+
+    /**
+     * Add the keys of the search's largest frontier, in the order and with the priorities the
+     * search added them with (then clear the queue).
+     */
+    @Benchmark
+    public void addOrUpdate() {
+        trace.addFrontier(queue);
+    }
+
+    /**
+     * Remove every key of the search's largest frontier.
+     */
+    @Benchmark
+    public int remove() {
+        return QueueTrace.drain(queue);
+    }
+
+    /**
+     * Replay the whole search with each decrease-key split into several (see
+     * `QueueTrace.decreaseHeavy()`).
+     */
+    @Benchmark
+    public int decreaseKey() {
+        return heavyTrace.replay(queue);
+    }
+}
@@ -0,0 +1,26 @@
+package graph;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks the queues that `ShortestPaths` can use on large graphs, on graphs of 1e3 to 1e8
+ * pixels.
+ */
+public class MinQueueBenchmark extends AbstractMinQueueBenchmark {
+
+    @Param({"INT_HEAP", "BUCKET", "RADIX", "HEAP"})
+    public FrontierType type;
+
+    @Param({"1000", "100000", "10000000", "100000000"})
+    public int pixels;
+
+    @Override
+    protected FrontierType frontierType() {
+        return type;
+    }
+
+    @Override
+    protected int pixels() {
+        return pixels;
+    }
+}
@@ -0,0 +1,24 @@
+package graph;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every `MinQueue` benchmark with allocation profiling (equivalent to JMH's `-prof gc`), so
+ * that boxing queues' garbage shows up next to their times.  Accepts JMH's usual command-line
+ * options (e.g. `-p pixels=1000` to run only the smallest graphs).
+ */
+public class MinQueueBenchmarks {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include("graph\\.(Ref)?MinQueueBenchmark\\.")
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
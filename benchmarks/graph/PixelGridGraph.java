@@ -0,0 +1,194 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A graph over the pixels of a synthetic grayscale image, with each pixel connected to its 8
+ * neighbors, like the graphs searched by intelligent scissors.  Edges along strong intensity
+ * changes are light, so searches over it follow "features" just as they do over real images.
+ * <p>
+ * Intensities are computed from pixel coordinates rather than stored, so that graphs of 1e8 pixels
+ * need no storage of their own.  The image is smooth noise (random blobs a few dozen pixels
+ * across) plus a pattern of hard-edged stripes and per-pixel grain, determined by `seed`.  The
+ * grain makes edge weights vary from pixel to pixel as they do in photographs, which is what gives
+ * searches their many decrease-key operations.
+ */
+final class PixelGridGraph implements IntEdgeGraph<PixelGridGraph.Pixel> {
+
+    /**
+     * The largest edge weight.
+     */
+    static final int MAX_WEIGHT = 255;
+
+    /**
+     * The horizontal and vertical offsets to the neighbor in each direction, counterclockwise from
+     * the right.
+     */
+    private static final int[] DX = {1, 1, 0, -1, -1, -1, 0, 1};
+    private static final int[] DY = {0, -1, -1, -1, 0, 1, 1, 1};
+
+    /**
+     * The width of the blobs of our noise, in pixels.
+     */
+    private static final int CELL = 32;
+
+    private final int width;
+    private final int height;
+    private final long seed;
+
+    /**
+     * Create a graph over a synthetic image of `width` by `height` pixels determined by `seed`.
+     * Requires the dimensions are positive and the image has at most `Integer.MAX_VALUE` pixels.
+     */
+    PixelGridGraph(int width, int height, long seed) {
+        assert width > 0 && height > 0 && (long) width * height <= Integer.MAX_VALUE;
+        this.width = width;
+        this.height = height;
+        this.seed = seed;
+    }
+
+    /**
+     * Return a graph over a roughly square synthetic image of about `pixels` pixels (never fewer),
+     * determined by `seed`.  Requires `pixels` is positive.
+     */
+    static PixelGridGraph ofSize(int pixels, long seed) {
+        int width = (int) Math.ceil(Math.sqrt(pixels));
+        int height = (int) (((long) pixels + width - 1) / width);
+        return new PixelGridGraph(width, height, seed);
+    }
+
+    @Override
+    public int vertexCount() {
+        return width * height;
+    }
+
+    @Override
+    public Pixel getVertex(int id) {
+        return new Pixel(id);
+    }
+
+    @Override
+    public void forEachNeighbor(int id, IntEdgeConsumer consumer) {
+        int y = id / width;
+        int x = id - y * width;
+        for (int dir = 0; dir < 8; ++dir) {
+            int nx = x + DX[dir];
+            int ny = y + DY[dir];
+            if (nx >= 0 && nx < width && ny >= 0 && ny < height) {
+                consumer.accept(ny * width + nx, dir);
+            }
+        }
+    }
+
+    /**
+     * Return a weigher for this graph's edges: the largest possible intensity difference minus the
+     * actual difference between an edge's endpoints, so that edges across strong changes are light.
+     */
+    Weights weights() {
+        return new Weights();
+    }
+
+    /**
+     * Return the intensity (in `[0..255]`) of the pixel at (`x`, `y`).
+     */
+    private int intensity(int x, int y) {
+        // Bilinear interpolation of random values at the corners of our cell
+        int cx = x / CELL;
+        int cy = y / CELL;
+        int fx = x - cx * CELL;
+        int fy = y - cy * CELL;
+        int top = lerp(corner(cx, cy), corner(cx + 1, cy), fx);
+        int bottom = lerp(corner(cx, cy + 1), corner(cx + 1, cy + 1), fx);
+        int smooth = lerp(top, bottom, fy);
+        // Hard-edged diagonal stripes
+        int stripe = (((x + 2 * y) / 97) % 3 == 0) ? 64 : 0;
+        int grain = hash(x, y) & 63;
+        return Math.min(255, smooth / 2 + stripe + grain);
+    }
+
+    private static int lerp(int a, int b, int f) {
+        return a + (b - a) * f / CELL;
+    }
+
+    /**
+     * Return the random value (in `[0..255]`) at the corner of noise cell (`cx`, `cy`).
+     */
+    private int corner(int cx, int cy) {
+        return hash(cx, cy) & 0xFF;
+    }
+
+    /**
+     * Return random bits determined by `seed` and the coordinates (`a`, `b`).
+     */
+    private int hash(int a, int b) {
+        long h = seed ^ (a * 0x9E3779B97F4A7C15L) ^ (b * 0xC2B2AE3D27D4EB4FL);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /**
+     * A pixel of our image.
+     */
+    final class Pixel implements Vertex<Step> {
+
+        private final int id;
+
+        private Pixel(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int id() {
+            return id;
+        }
+
+        @Override
+        public Iterable<Step> outgoingEdges() {
+            List<Step> edges = new ArrayList<>(8);
+            forEachNeighbor(id, (endId, dir) -> edges.add(new Step(id, endId)));
+            return edges;
+        }
+    }
+
+    /**
+     * An edge between neighboring pixels.
+     */
+    record Step(int startId, int endId) implements Edge {
+
+    }
+
+    /**
+     * Weighs the edges of our graph (see `weights()`).
+     */
+    final class Weights implements IntEdgeWeigher<Step>, BoundedWeigher<Step> {
+
+        private Weights() {
+        }
+
+        @Override
+        public int weight(Step edge) {
+            return weigh(edge.startId(), edge.endId());
+        }
+
+        @Override
+        public int weight(int startId, int dir) {
+            int y = startId / width;
+            int x = startId - y * width;
+            return weigh(startId, (y + DY[dir]) * width + (x + DX[dir]));
+        }
+
+        @Override
+        public int maxWeight() {
+            return MAX_WEIGHT;
+        }
+
+        private int weigh(int fromId, int toId) {
+            int a = intensity(fromId % width, fromId / width);
+            int b = intensity(toId % width, toId / width);
+            return MAX_WEIGHT - Math.abs(a - b);
+        }
+    }
+}
@@ -0,0 +1,455 @@
+package graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * The sequence of operations a `ShortestPaths` search performed on its frontier queue while finding
+ * all paths from the center of a `PixelGridGraph`, which can be replayed against any `IntMinQueue`
+ * to reproduce Dijkstra's access pattern without the cost of the search itself.
+ * <p>
+ * Besides the whole trace, offers workloads focused on additions and removals, taken from the
+ * moment the frontier was largest (its "high-water mark"): the keys then in the queue, with the
+ * priorities they were first added with and the priorities they then had.  Each of these workloads
+ * starts with an "anchor" key added at the smallest priority then in the queue, so that every
+ * priority that follows is valid for monotone queues like `BucketMinQueue`.  Searches of pixel
+ * graphs decrease few keys (about one for every seven additions), so `decreaseHeavy()` derives a
+ * trace in which decrease-keys are more common.
+ * <p>
+ * Recording a trace of a large graph takes a while, so traces are saved to the temporary directory
+ * and reused by later benchmark runs (including those in forked JVMs).
+ */
+final class QueueTrace {
+
+    /**
+     * Set in an element of `ops` to mark a removal (whose low bits are meaningless).
+     */
+    private static final int REMOVE = 0x8000_0000;
+
+    /**
+     * The seed of the synthetic images our traces are recorded on.
+     */
+    private static final long SEED = 0x5EED;
+
+    /**
+     * Identifies version 1 of our file format.
+     */
+    private static final int MAGIC = 0x5154_0001;
+
+    /**
+     * The size of the buffer through which arrays are read and written, in `int`s.
+     */
+    private static final int IO_CHUNK = 1 << 20;
+
+    /**
+     * The largest number of decreases `decreaseHeavy()` splits each decrease-key into.
+     */
+    private static final int DECREASE_STEPS = 8;
+
+    /**
+     * The number of vertices in the graph our trace was recorded on, which every replaying queue
+     * must be able to hold.
+     */
+    private final int capacity;
+
+    /**
+     * The operations of our trace in order: either a key that was added or updated, or `REMOVE`.
+     */
+    private final int[] ops;
+
+    /**
+     * The priority of each addition or update in `ops`, in order (removals have no entry).
+     */
+    private final int[] priorities;
+
+    /**
+     * The number of additions and updates in `ops` that added a new key.
+     */
+    private final int additions;
+
+    /**
+     * The anchor of our focused workloads, and the priority it is added with.
+     */
+    private final int anchorKey;
+    private final int anchorPriority;
+
+    /**
+     * The keys in the queue at its high-water mark, in the order they were added, with the
+     * priorities they were first added with and the priorities they then had.
+     */
+    private final int[] frontierKeys;
+    private final int[] firstPriorities;
+    private final int[] finalPriorities;
+
+    /**
+     * Create a trace from the operations `ops` (with `priorities`) performed on a queue holding
+     * keys in `[0..capacity)`, deriving our focused workloads.  Requires the operations are those
+     * of a Dijkstra search starting from an empty queue.
+     */
+    private QueueTrace(int capacity, int[] ops, int[] priorities) {
+        this.capacity = capacity;
+        this.ops = ops;
+        this.priorities = priorities;
+
+        // Simulate the trace to find the high-water mark (the first time the queue was largest).
+        BitSet present = new BitSet(capacity);
+        int size = 0;
+        int maxSize = 0;
+        int highWater = 0;
+        int added = 0;
+        for (int i = 0; i < ops.length; ++i) {
+            int key = ops[i];
+            if (key == REMOVE) {
+                size -= 1;
+            } else if (!present.get(key)) {
+                present.set(key);
+                size += 1;
+                added += 1;
+                if (size > maxSize) {
+                    maxSize = size;
+                    highWater = i + 1;
+                }
+            }
+        }
+        additions = added;
+
+        // Removals in the trace do not say which key was removed, so replay it up to the
+        //  high-water mark into a real queue to learn which keys remain.
+        IntHeapMinQueue queue = new IntHeapMinQueue(capacity);
+        int[] priority = new int[capacity];
+        int p = 0;
+        for (int i = 0; i < highWater; ++i) {
+            if (ops[i] == REMOVE) {
+                queue.removeInt();
+            } else {
+                queue.addOrUpdate(ops[i], priorities[p]);
+                priority[ops[i]] = priorities[p];
+                p += 1;
+            }
+        }
+        present.clear();
+        anchorPriority = queue.isEmpty() ? 0 : queue.minPriority();
+        while (!queue.isEmpty()) {
+            present.set(queue.removeInt());
+        }
+
+        // Collect the keys that remain in the order they were added.
+        IntList keys = new IntList();
+        IntList first = new IntList();
+        IntList last = new IntList();
+        BitSet seen = new BitSet(capacity);
+        p = 0;
+        for (int i = 0; i < highWater; ++i) {
+            int key = ops[i];
+            if (key == REMOVE) {
+                continue;
+            }
+            if (present.get(key) && !seen.get(key)) {
+                seen.set(key);
+                keys.add(key);
+                first.add(priorities[p]);
+                last.add(priority[key]);
+            }
+            p += 1;
+        }
+        frontierKeys = keys.copyFrom(0);
+        firstPriorities = first.copyFrom(0);
+        finalPriorities = last.copyFrom(0);
+
+        // Any key not in the frontier will do as the anchor.
+        anchorKey = present.nextClearBit(0);
+    }
+
+    /**
+     * Return the trace of a search over a synthetic image of about `pixels` pixels, recording it
+     * (and saving it for later runs) unless it was saved by an earlier run.  Requires `pixels` is
+     * positive.
+     */
+    static QueueTrace of(int pixels) throws IOException {
+        Path file = Path.of(System.getProperty("java.io.tmpdir"),
+                "minqueue-trace-" + pixels + "-" + Long.toHexString(SEED) + ".bin");
+        if (Files.exists(file)) {
+            return load(file);
+        }
+        QueueTrace trace = record(PixelGridGraph.ofSize(pixels, SEED));
+        trace.save(file);
+        return trace;
+    }
+
+    /**
+     * Return the trace of a search finding all paths from the center of `graph`.
+     */
+    static QueueTrace record(PixelGridGraph graph) {
+        Recorder recorder = new Recorder(graph.vertexCount(), PixelGridGraph.MAX_WEIGHT);
+        ShortestPaths<PixelGridGraph.Pixel, PixelGridGraph.Step> paths =
+                new ShortestPaths<>(graph, graph.weights(), recorder, PathStoreType.OFF_HEAP);
+        paths.setStart(graph.vertexCount() / 2);
+        paths.advance(Integer.MAX_VALUE);
+        paths.release();
+        return new QueueTrace(graph.vertexCount(), recorder.ops.copyFrom(0),
+                recorder.priorities.copyFrom(0));
+    }
+
+    /**
+     * Return the number of keys a queue must be able to hold to replay this trace.
+     */
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Return the number of operations in this trace.
+     */
+    int length() {
+        return ops.length;
+    }
+
+    /**
+     * Return the largest number of keys in the queue at any point of this trace.
+     */
+    int highWater() {
+        return frontierKeys.length;
+    }
+
+    /**
+     * Perform every operation of this trace on `queue`, then clear it, returning the sum of the
+     * keys removed (so that the work cannot be optimized away).  Since queues may break ties
+     * differently, the keys removed may differ from those of the search, in which case keys
+     * updated later are re-added instead; this preserves the validity of every priority.  Requires
+     * `queue` is empty and has at least our capacity.
+     */
+    int replay(IntMinQueue queue) {
+        int sum = 0;
+        int p = 0;
+        for (int key : ops) {
+            if (key == REMOVE) {
+                sum += queue.removeInt();
+            } else {
+                queue.addOrUpdate(key, priorities[p++]);
+            }
+        }
+        queue.clear();
+        return sum;
+    }
+
+    /**
+     * Add the keys in the frontier at our high-water mark to `queue` with the priorities they were
+     * first added with, in the order they were added, then clear it.  Requires `queue` is empty
+     * and has at least our capacity.
+     */
+    void addFrontier(IntMinQueue queue) {
+        queue.addOrUpdate(anchorKey, anchorPriority);
+        for (int i = 0; i < frontierKeys.length; ++i) {
+            queue.addOrUpdate(frontierKeys[i], firstPriorities[i]);
+        }
+        queue.clear();
+    }
+
+    /**
+     * Add the keys in the frontier at our high-water mark to `queue` with the priorities they then
+     * had, ready to be removed by `drain()`.  Requires `queue` has at least our capacity.
+     */
+    void fillFrontier(IntMinQueue queue) {
+        // Monotone queues only forget the last priority removed from them when cleared.
+        queue.clear();
+        queue.addOrUpdate(anchorKey, anchorPriority);
+        for (int i = 0; i < frontierKeys.length; ++i) {
+            queue.addOrUpdate(frontierKeys[i], finalPriorities[i]);
+        }
+    }
+
+    /**
+     * Remove every key from `queue`, returning their sum.  Monotone queues must then be cleared
+     * before they are given our other workloads.
+     */
+    static int drain(IntMinQueue queue) {
+        int sum = 0;
+        while (!queue.isEmpty()) {
+            sum += queue.removeInt();
+        }
+        return sum;
+    }
+
+    /**
+     * Return a trace like this one, except that each decrease-key is split into as many as
+     * `DECREASE_STEPS` decreases through evenly spaced intermediate priorities, as though the
+     * search had found successively shorter paths to the vertex.  Since every intermediate
+     * priority lies between two valid ones, the trace remains valid for monotone queues.
+     */
+    QueueTrace decreaseHeavy() {
+        IntList heavyOps = new IntList();
+        IntList heavyPriorities = new IntList();
+        int[] current = new int[capacity];
+        BitSet seen = new BitSet(capacity);
+        int p = 0;
+        for (int key : ops) {
+            if (key == REMOVE) {
+                heavyOps.add(REMOVE);
+                continue;
+            }
+            int priority = priorities[p++];
+            int gap = current[key] - priority;
+            if (seen.get(key) && gap > 0) {
+                int steps = Math.min(DECREASE_STEPS, gap);
+                for (int j = steps - 1; j >= 0; --j) {
+                    heavyOps.add(key);
+                    heavyPriorities.add(priority + (int) ((long) gap * j / steps));
+                }
+            } else {
+                seen.set(key);
+                heavyOps.add(key);
+                heavyPriorities.add(priority);
+            }
+            current[key] = priority;
+        }
+        return new QueueTrace(capacity, heavyOps.copyFrom(0), heavyPriorities.copyFrom(0));
+    }
+
+    @Override
+    public String toString() {
+        int removals = ops.length - priorities.length;
+        return String.format("%d vertices: %d additions, %d updates, %d removals; high water %d keys",
+                capacity, additions, priorities.length - additions, removals, frontierKeys.length);
+    }
+
+    /**
+     * Write this trace to `file`, replacing it atomically so that concurrent runs never read a
+     * partial trace.
+     */
+    private void save(Path file) throws IOException {
+        Path temp = Files.createTempFile(file.getParent(), "minqueue-trace", ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(4 * Integer.BYTES).order(ByteOrder.nativeOrder());
+            header.putInt(MAGIC).putInt(capacity).putInt(ops.length).putInt(priorities.length);
+            writeFully(channel, header.flip());
+            writeInts(channel, ops);
+            writeInts(channel, priorities);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Return the trace saved in `file` by `save()`.  Throws IOException if it was not saved in our
+     * format.
+     */
+    private static QueueTrace load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(4 * Integer.BYTES).order(ByteOrder.nativeOrder());
+            readFully(channel, header);
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a queue trace: " + file);
+            }
+            int capacity = header.getInt();
+            int[] ops = new int[header.getInt()];
+            int[] priorities = new int[header.getInt()];
+            readInts(channel, ops);
+            readInts(channel, priorities);
+            return new QueueTrace(capacity, ops, priorities);
+        }
+    }
+
+    private static void writeInts(FileChannel channel, int[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(IO_CHUNK * Integer.BYTES)
+                .order(ByteOrder.nativeOrder());
+        for (int from = 0; from < values.length; from += IO_CHUNK) {
+            int n = Math.min(IO_CHUNK, values.length - from);
+            buffer.clear();
+            buffer.asIntBuffer().put(values, from, n);
+            buffer.limit(n * Integer.BYTES);
+            writeFully(channel, buffer);
+        }
+    }
+
+    private static void readInts(FileChannel channel, int[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(IO_CHUNK * Integer.BYTES)
+                .order(ByteOrder.nativeOrder());
+        for (int from = 0; from < values.length; from += IO_CHUNK) {
+            int n = Math.min(IO_CHUNK, values.length - from);
+            buffer.clear().limit(n * Integer.BYTES);
+            readFully(channel, buffer);
+            buffer.flip();
+            buffer.asIntBuffer().get(values, from, n);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Truncated queue trace");
+            }
+        }
+    }
+
+    /**
+     * A frontier queue that records the operations performed on it before passing them to a bucket
+     * queue.
+     */
+    private static final class Recorder implements IntMinQueue {
+
+        private final BucketMinQueue queue;
+        private final IntList ops = new IntList();
+        private final IntList priorities = new IntList();
+
+        Recorder(int capacity, int maxWeight) {
+            queue = new BucketMinQueue(capacity, maxWeight);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return queue.isEmpty();
+        }
+
+        @Override
+        public int size() {
+            return queue.size();
+        }
+
+        @Override
+        public int minPriority() {
+            return queue.minPriority();
+        }
+
+        @Override
+        public int getInt() {
+            return queue.getInt();
+        }
+
+        @Override
+        public void addOrUpdate(int key, int priority) {
+            ops.add(key);
+            priorities.add(priority);
+            queue.addOrUpdate(key, priority);
+        }
+
+        @Override
+        public int removeInt() {
+            ops.add(REMOVE);
+            return queue.removeInt();
+        }
+
+        @Override
+        public void clear() {
+            queue.clear();
+        }
+
+        @Override
+        public int capacity() {
+            return queue.capacity();
+        }
+    }
+}
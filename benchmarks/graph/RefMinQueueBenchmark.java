@@ -0,0 +1,23 @@
+package graph;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks `RefMinQueue`, whose updates take time linear in its size, on graphs small enough for
+ * it to finish: 1e3 to 1e5 pixels.
+ */
+public class RefMinQueueBenchmark extends AbstractMinQueueBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int pixels;
+
+    @Override
+    protected FrontierType frontierType() {
+        return FrontierType.REFERENCE;
+    }
+
+    @Override
+    protected int pixels() {
+        return pixels;
+    }
+}
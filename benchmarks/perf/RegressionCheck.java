@@ -0,0 +1,122 @@
+package perf;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+/**
+ * Compares JMH results (as written with `-rf json`) against a baseline from an earlier run, and
+ * exits with status 1 if any benchmark slowed down by more than a threshold, so that a build
+ * running it fails.  Benchmarks are matched by name and parameters; those missing from either run
+ * are reported but never fail the check, and neither does a missing baseline (so that the first
+ * run can create one).
+ * <p>
+ * Usage: `RegressionCheck BASELINE RESULTS THRESHOLD`, where `THRESHOLD` is the largest tolerated
+ * slowdown in percent.
+ */
+public class RegressionCheck {
+
+    /**
+     * A benchmark's primary score, and whether larger scores are better (as for throughput) or
+     * worse (as for times).
+     */
+    record Score(double value, String unit, boolean higherIsBetter) {
+
+        /**
+         * Return how much slower `after` is than this score, as a fraction (negative if it is
+         * faster).  Requires `after` measures the same benchmark in the same mode.
+         */
+        double slowdownTo(Score after) {
+            return higherIsBetter ? value / after.value - 1 : after.value / value - 1;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: RegressionCheck BASELINE RESULTS THRESHOLD");
+            System.exit(2);
+        }
+        Path baselineFile = Path.of(args[0]);
+        Path resultsFile = Path.of(args[1]);
+        double threshold = Double.parseDouble(args[2]) / 100;
+        if (!Files.exists(baselineFile)) {
+            System.out.println("No baseline at " + baselineFile + "; copy " + resultsFile
+                    + " there to compare future runs against this one.");
+            return;
+        }
+
+        Map<String, Score> baseline = readScores(baselineFile);
+        Map<String, Score> results = readScores(resultsFile);
+        int regressions = 0;
+        for (Map.Entry<String, Score> result : results.entrySet()) {
+            Score before = baseline.get(result.getKey());
+            Score after = result.getValue();
+            if (before == null) {
+                System.out.printf("NEW        %s: %.3f %s%n", result.getKey(), after.value(),
+                        after.unit());
+                continue;
+            }
+            double slowdown = before.slowdownTo(after);
+            boolean regressed = slowdown > threshold;
+            if (regressed) {
+                regressions += 1;
+            }
+            System.out.printf("%-10s %s: %.3f -> %.3f %s (%+.1f%%)%n",
+                    regressed ? "REGRESSED" : "ok", result.getKey(), before.value(), after.value(),
+                    after.unit(), 100 * slowdown);
+        }
+        for (String key : baseline.keySet()) {
+            if (!results.containsKey(key)) {
+                System.out.println("NOT RUN    " + key);
+            }
+        }
+
+        if (regressions > 0) {
+            System.err.printf("%d benchmark(s) slowed down by more than %s%% from %s%n",
+                    regressions, args[2], baselineFile);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Return the primary scores in the JMH results file `file`, keyed by benchmark name and
+     * parameters, in the order they were run.  Throws IOException if `file` cannot be read.
+     */
+    static Map<String, Score> readScores(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            for (JsonElement element : JsonParser.parseReader(reader).getAsJsonArray()) {
+                JsonObject run = element.getAsJsonObject();
+                JsonObject metric = run.getAsJsonObject("primaryMetric");
+                Score score = new Score(metric.get("score").getAsDouble(),
+                        metric.get("scoreUnit").getAsString(),
+                        run.get("mode").getAsString().equals("thrpt"));
+                scores.put(key(run), score);
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Return a key identifying the benchmark and parameters of the JMH result `run`, such as
+     * `graph.MinQueueBenchmark.dijkstra{pixels=1000, type=BUCKET}`.
+     */
+    private static String key(JsonObject run) {
+        StringJoiner params = new StringJoiner(", ", "{", "}").setEmptyValue("");
+        if (run.has("params")) {
+            Map<String, String> sorted = new TreeMap<>();
+            run.getAsJsonObject("params").entrySet()
+                    .forEach(param -> sorted.put(param.getKey(), param.getValue().getAsString()));
+            sorted.forEach((name, value) -> params.add(name + "=" + value));
+        }
+        return run.get("benchmark").getAsString() + params;
+    }
+}
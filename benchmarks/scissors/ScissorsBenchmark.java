@@ -0,0 +1,241 @@
+package scissors;
+
+import graph.BoundedWeigher;
+import graph.PathfindingSnapshot;
+import graph.ShortestPaths;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.imageio.ImageIO;
+import javax.swing.SwingUtilities;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import selector.PolyLine;
+import selector.SelectionModel.SelectionState;
+
+/**
+ * Benchmarks each stage of intelligent scissors separately, from building an image's graph to
+ * saving a finished selection, on synthetic images of several resolutions and on a photograph.
+ * Each stage's inputs are prepared by a JMH state, so a stage is only timed doing its own work, and
+ * only the states a stage needs are prepared for it.  (Stages return only public types, since the
+ * code JMH generates to call them is in another package.)
+ * <p>
+ * Images are named by the `image` parameter: either `synthetic-WIDTHxHEIGHT` (see
+ * `SyntheticImages`) or the name of an image file in the directory given by the
+ * `benchmark.images` system property (by default, the working directory).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-Djava.awt.headless=true"})
+public class ScissorsBenchmark {
+
+    /**
+     * The seed of our synthetic images.
+     */
+    private static final long SEED = 0x5C155025L;
+
+    private static final Pattern SYNTHETIC = Pattern.compile("synthetic-(\\d+)x(\\d+)");
+
+    /**
+     * The image to select from.
+     */
+    @State(Scope.Benchmark)
+    public static class Images {
+
+        @Param({"synthetic-640x480", "synthetic-1920x1080", "synthetic-7680x4320",
+                "McGraw_Tower.jpg"})
+        public String image;
+
+        BufferedImage img;
+
+        @Setup(Level.Trial)
+        public void load() throws IOException {
+            Matcher synthetic = SYNTHETIC.matcher(image);
+            if (synthetic.matches()) {
+                img = SyntheticImages.create(Integer.parseInt(synthetic.group(1)),
+                        Integer.parseInt(synthetic.group(2)), SEED);
+                return;
+            }
+            File file = new File(System.getProperty("benchmark.images", "."), image);
+            img = ImageIO.read(file);
+            if (img == null) {
+                throw new IOException("Not a readable image: " + file.getAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * The graph of an image and a weigher for it, ready to tabulate.
+     */
+    @State(Scope.Benchmark)
+    public static class Weights {
+
+        @Param({"CrossGradMono", "ColorWeight"})
+        public String weightName;
+
+        ImageGraph graph;
+        BoundedWeigher<ImageEdge> weigher;
+
+        @Setup(Level.Trial)
+        public void setUp(Images images) {
+            graph = new ImageGraph(images.img);
+            weigher = ScissorsWeights.makeDirectWeigher(weightName, graph);
+        }
+    }
+
+    /**
+     * A solver for an image's graph with its weight table, and the pixel its searches start from
+     * (the center of the image).
+     */
+    @State(Scope.Benchmark)
+    public static class Solver {
+
+        ShortestPaths<ImageVertex, ImageEdge> solver;
+        int startId;
+
+        @Setup(Level.Trial)
+        public void setUp(Weights weights) {
+            ImageGraph graph = weights.graph;
+            solver = new ShortestPaths<>(graph, graph.weightTable(weights.weightName));
+            startId = graph.idAt(new Point(graph.width() / 2, graph.height() / 2));
+        }
+    }
+
+    /**
+     * The paths found from the center of an image to all of its pixels, and the pixel farthest
+     * along them (a corner of the image).
+     */
+    @State(Scope.Benchmark)
+    public static class Paths {
+
+        ImageGraph graph;
+        PathfindingSnapshot paths;
+        int goalId;
+
+        @Setup(Level.Trial)
+        public void setUp(Weights weights, Solver solver) {
+            graph = weights.graph;
+            paths = solver.solver.findAllPaths(solver.startId);
+            goalId = graph.idAt(new Point(0, 0));
+        }
+    }
+
+    /**
+     * A finished scissors selection of an image: a loop through four points around its center,
+     * selected as a user would through a `ScissorsSelectionModel`.
+     */
+    @State(Scope.Benchmark)
+    public static class Selection {
+
+        ScissorsSelectionModel model;
+
+        @Setup(Level.Trial)
+        public void setUp(Images images, Weights weights)
+                throws InterruptedException, InvocationTargetException {
+            BufferedImage img = images.img;
+            int w = img.getWidth();
+            int h = img.getHeight();
+            List<Point> points = List.of(new Point(w / 4, h / 4), new Point(3 * w / 4, h / 4),
+                    new Point(3 * w / 4, 3 * h / 4), new Point(w / 4, 3 * h / 4));
+            SwingUtilities.invokeAndWait(() -> {
+                model = new ScissorsSelectionModel(weights.weightName, new ImageContext(img),
+                        true);
+            });
+            for (Point p : points) {
+                SwingUtilities.invokeAndWait(() -> model.addPoint(p));
+                awaitState(SelectionState.SELECTING);
+            }
+            SwingUtilities.invokeAndWait(model::finishSelection);
+            awaitState(SelectionState.SELECTED);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws InterruptedException, InvocationTargetException {
+            SwingUtilities.invokeAndWait(model::reset);
+        }
+
+        /**
+         * Wait until our model is in state `state`, which it reaches once any background search
+         * it is processing completes.  Our model's state is only read on the EDT, where it changes.
+         */
+        private void awaitState(SelectionState state)
+                throws InterruptedException, InvocationTargetException {
+            SelectionState[] current = new SelectionState[1];
+            SwingUtilities.invokeAndWait(() -> current[0] = model.state());
+            while (current[0] != state) {
+                Thread.sleep(5);
+                SwingUtilities.invokeAndWait(() -> current[0] = model.state());
+            }
+        }
+    }
+
+    /**
+     * Build the graph of an image.
+     */
+    @Benchmark
+    public ImageGraph imageGraph(Images images) {
+        return new ImageGraph(images.img);
+    }
+
+    /**
+     * Create a weigher for an image's graph, which prepares a copy of the image in the form it
+     * weighs (for `CrossGradMono`, its band-averaged grayscale version).
+     */
+    @Benchmark
+    public BoundedWeigher<?> weigher(Weights weights) {
+        return ScissorsWeights.makeDirectWeigher(weights.weightName, weights.graph);
+    }
+
+    /**
+     * Tabulate the weights of every edge in an image's graph.
+     */
+    @Benchmark
+    public BoundedWeigher<?> weightTable(Weights weights) {
+        return new WeightTable(weights.graph, weights.weigher);
+    }
+
+    /**
+     * Find the shortest paths from the center of an image to all of its pixels, including taking
+     * the snapshot they are queried from.
+     */
+    @Benchmark
+    public PathfindingSnapshot findAllPaths(Solver solver) {
+        return solver.solver.findAllPaths(solver.startId);
+    }
+
+    /**
+     * Trace the path from the center of an image to its corner, and convert it to a polyline.
+     */
+    @Benchmark
+    public PolyLine pathToPolyLine(Paths paths) {
+        return paths.graph.pathToPolyLine(paths.paths.pathTo(paths.goalId));
+    }
+
+    /**
+     * Encode the pixels within a finished selection as a PNG image.
+     */
+    @Benchmark
+    public void saveSelection(Selection selection) throws IOException {
+        selection.model.saveSelection(OutputStream.nullOutputStream());
+    }
+}
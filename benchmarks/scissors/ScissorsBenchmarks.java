@@ -0,0 +1,27 @@
+package scissors;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every stage of `ScissorsBenchmark`, writing the results as JSON (to
+ * `scissors-benchmarks.json`, unless JMH's `-rff` option names another file) so that releases can
+ * be compared.  Accepts JMH's usual command-line options (e.g. `-p image=McGraw_Tower.jpg` to
+ * benchmark only the photograph).
+ */
+public class ScissorsBenchmarks {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                .parent(commandLine)
+                .include("scissors\\.ScissorsBenchmark\\.")
+                .resultFormat(ResultFormatType.JSON)
+                .result(commandLine.getResult().orElse("scissors-benchmarks.json"))
+                .build()).run();
+    }
+}
@@ -0,0 +1,81 @@
+package scissors;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.Polygon;
+import java.awt.RenderingHints;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.util.SplittableRandom;
+
+/**
+ * Generates reproducible photograph-like images for benchmarking: overlapping antialiased shapes
+ * of random colors (whose outlines give intelligent scissors boundaries to follow) over a gradient
+ * background, with per-pixel sensor noise.  Images have the same type (`TYPE_3BYTE_BGR`) that
+ * `ImageIO` produces for JPEG photographs.
+ */
+final class SyntheticImages {
+
+    /**
+     * The number of shapes drawn per million pixels (at least a dozen are always drawn).
+     */
+    private static final int SHAPES_PER_MEGAPIXEL = 40;
+
+    /**
+     * The largest amount by which noise changes a sample.
+     */
+    private static final int NOISE = 8;
+
+    private SyntheticImages() {
+    }
+
+    /**
+     * Return a synthetic image of `width` by `height` pixels determined by `seed`.  Requires the
+     * dimensions are positive.
+     */
+    static BufferedImage create(int width, int height, long seed) {
+        assert width > 0 && height > 0;
+        SplittableRandom random = new SplittableRandom(seed);
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D g = img.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setPaint(new GradientPaint(0, 0, randomColor(random), 0, height, randomColor(random)));
+        g.fillRect(0, 0, width, height);
+
+        long shapes = Math.max(12, SHAPES_PER_MEGAPIXEL * (long) width * height / 1_000_000);
+        int maxSize = Math.max(8, Math.min(width, height) / 4);
+        for (long i = 0; i < shapes; ++i) {
+            g.setColor(randomColor(random));
+            int w = 4 + random.nextInt(maxSize);
+            int h = 4 + random.nextInt(maxSize);
+            int x = random.nextInt(width) - w / 2;
+            int y = random.nextInt(height) - h / 2;
+            switch (random.nextInt(3)) {
+                case 0 -> g.fill(new Ellipse2D.Float(x, y, w, h));
+                case 1 -> g.fill(new RoundRectangle2D.Float(x, y, w, h, w / 4f, h / 4f));
+                default -> {
+                    Polygon triangle = new Polygon();
+                    for (int v = 0; v < 3; ++v) {
+                        triangle.addPoint(x + random.nextInt(w), y + random.nextInt(h));
+                    }
+                    g.fill(triangle);
+                }
+            }
+        }
+        g.dispose();
+
+        byte[] samples = ((DataBufferByte) img.getRaster().getDataBuffer()).getData();
+        for (int i = 0; i < samples.length; ++i) {
+            int noisy = (samples[i] & 0xFF) + random.nextInt(2 * NOISE + 1) - NOISE;
+            samples[i] = (byte) Math.clamp(noisy, 0, 255);
+        }
+        return img;
+    }
+
+    private static Color randomColor(SplittableRandom random) {
+        return new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256));
+    }
+}
@@ -0,0 +1,15 @@
+package graph;
+
+/**
+ * An `IntEdgeGraph` that can also enumerate the edges arriving at a vertex, allowing searches to
+ * proceed backwards from a goal (see `ShortestPaths.findPathBidirectional()`).
+ */
+public interface BidirectionalGraph<VertexType extends Vertex<?>> extends IntEdgeGraph<VertexType> {
+
+    /**
+     * Pass each edge arriving at the vertex with ID `id` to `consumer`, as the ID of the edge's
+     * source and the label `dir` that `forEachNeighbor()` reports for the edge when enumerating the
+     * source's outgoing edges.  Requires `id` is in `[0..vertexCount())`.
+     */
+    void forEachPredecessor(int id, IntEdgeConsumer consumer);
+}
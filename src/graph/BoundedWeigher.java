@@ -0,0 +1,23 @@
+package graph;
+
+/**
+ * A `Weigher` whose edge weights are known to lie in a small, bounded range.  Shortest-path solvers
+ * can take advantage of such a bound by using a bucket queue for their frontier (see
+ * `BucketMinQueue`).
+ */
+public interface BoundedWeigher<EdgeType extends Edge> extends Weigher<EdgeType> {
+
+    /**
+     * Return the largest weight this weigher can return for any edge.  Every weight returned by
+     * `weight()` must be in `[0..maxWeight()]`.
+     */
+    int maxWeight();
+
+    /**
+     * Return a lower bound on the weight of any edge.  Useful for deriving admissible heuristics
+     * for goal-directed search.  Defaults to 0, which is always valid.
+     */
+    default int minWeight() {
+        return 0;
+    }
+}
@@ -0,0 +1,220 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A min priority queue of distinct `int` keys in `[0..capacity)` associated with integer
+ * priorities, implemented as a circular array of buckets ("Dial's algorithm").  Adding an element
+ * and changing its priority take O(1) time, and removing the minimum takes amortized O(1) time when
+ * used by a monotone search.
+ * <p>
+ * The queue only supports priorities within a sliding window: the first priority added after
+ * construction or `clear()` starts the window, and thereafter every priority must be in
+ * `[m..m+maxSpan]`, where `m` is the most recently removed (or current minimum) priority.  This
+ * lower bound never decreases, even if the queue becomes empty.  Dijkstra's algorithm satisfies
+ * this whenever edge weights are in `[0..maxSpan]`.
+ */
+public class BucketMinQueue implements IntMinQueue {
+
+    /**
+     * Value of `prev[k]` when key `k` is not contained in this queue.
+     */
+    private static final int ABSENT = -2;
+
+    /**
+     * `heads[b]` is the first key in bucket `b`, or -1 if that bucket is empty.  Bucket `b` holds
+     * the keys whose priority `p` satisfies `floorMod(p, heads.length) == b`; since all priorities
+     * lie within a window of `heads.length` consecutive values, each bucket holds keys of a single
+     * priority.
+     */
+    private final int[] heads;
+
+    /**
+     * `next[k]` is the key following `k` in its bucket, or -1 if `k` is last.
+     */
+    private final int[] next;
+
+    /**
+     * `prev[k]` is the key preceding `k` in its bucket, -1 if `k` is first, or `ABSENT` if `k` is
+     * not contained in this queue.
+     */
+    private final int[] prev;
+
+    /**
+     * `priorities[k]` is the priority of key `k`.  Only meaningful if `k` is contained in this
+     * queue.
+     */
+    private final int[] priorities;
+
+    /**
+     * A lower bound on the priorities in this queue; the smallest priority is found by advancing
+     * this until a non-empty bucket is reached.  All priorities are in `[cursor..cursor+maxSpan]`.
+     * Only meaningful if `anchored` is true.
+     */
+    private int cursor;
+
+    /**
+     * Whether the window of allowed priorities has been established since construction or the
+     * last call to `clear()`.
+     */
+    private boolean anchored;
+
+    /**
+     * The number of keys currently in this queue.
+     */
+    private int size;
+
+    /**
+     * Create an empty queue capable of holding the keys `[0..capacity)` whose priorities never
+     * exceed the current minimum priority by more than `maxSpan`.  Requires `maxSpan >= 0`.
+     */
+    public BucketMinQueue(int capacity, int maxSpan) {
+        if (maxSpan < 0) {
+            throw new IllegalArgumentException("Negative priority span: " + maxSpan);
+        }
+        heads = new int[maxSpan + 1];
+        Arrays.fill(heads, -1);
+        next = new int[capacity];
+        prev = new int[capacity];
+        Arrays.fill(prev, ABSENT);
+        priorities = new int[capacity];
+        cursor = 0;
+        anchored = false;
+        size = 0;
+    }
+
+    @Override
+    public int capacity() {
+        return prev.length;
+    }
+
+    /**
+     * Return the largest amount by which a priority may exceed the current minimum priority.
+     */
+    public int maxSpan() {
+        return heads.length - 1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getInt() {
+        return heads[advance()];
+    }
+
+    @Override
+    public int minPriority() {
+        advance();
+        return cursor;
+    }
+
+    /**
+     * If `key` is already contained in this queue, change its associated priority to `priority`.
+     * Otherwise, add it to this queue with that priority.  Throws IllegalArgumentException if
+     * `priority` is outside of the current window (see class description).
+     */
+    @Override
+    public void addOrUpdate(int key, int priority) {
+        assert key >= 0 && key < prev.length;
+        if (!anchored) {
+            cursor = priority;
+            anchored = true;
+        } else if (priority < cursor || priority - cursor > maxSpan()) {
+            throw new IllegalArgumentException("Priority " + priority
+                    + " outside of window starting at " + cursor);
+        }
+
+        if (prev[key] != ABSENT) {
+            if (priorities[key] == priority) {
+                return;
+            }
+            unlink(key);
+        } else {
+            size += 1;
+        }
+        priorities[key] = priority;
+        int b = bucketOf(priority);
+        next[key] = heads[b];
+        prev[key] = -1;
+        if (heads[b] >= 0) {
+            prev[heads[b]] = key;
+        }
+        heads[b] = key;
+    }
+
+    @Override
+    public int removeInt() {
+        int b = advance();
+        int min = heads[b];
+        unlink(min);
+        prev[min] = ABSENT;
+        size -= 1;
+        return min;
+    }
+
+    /**
+     * Remove all elements from this queue (making it empty).  Takes time proportional to the
+     * number of elements removed plus the number of buckets, not to the capacity.
+     */
+    @Override
+    public void clear() {
+        for (int b = 0; b < heads.length; ++b) {
+            for (int k = heads[b]; k >= 0; k = next[k]) {
+                prev[k] = ABSENT;
+            }
+            heads[b] = -1;
+        }
+        size = 0;
+        cursor = 0;
+        anchored = false;
+    }
+
+    /**
+     * Return the bucket holding keys with priority `priority`.
+     */
+    private int bucketOf(int priority) {
+        return Math.floorMod(priority, heads.length);
+    }
+
+    /**
+     * Advance `cursor` to the smallest priority in this queue and return the (non-empty) bucket
+     * holding it.  Throws NoSuchElementException if this queue is empty.
+     */
+    private int advance() {
+        if (size == 0) {
+            throw new NoSuchElementException("Empty bucket queue");
+        }
+        int b = bucketOf(cursor);
+        while (heads[b] < 0) {
+            cursor += 1;
+            b = (b + 1 == heads.length) ? 0 : b + 1;
+        }
+        return b;
+    }
+
+    /**
+     * Remove `key` from its bucket's list (without updating `size` or marking it absent).
+     * Requires `key` is contained in this queue.
+     */
+    private void unlink(int key) {
+        int p = prev[key];
+        int n = next[key];
+        if (p >= 0) {
+            next[p] = n;
+        } else {
+            heads[bucketOf(priorities[key])] = n;
+        }
+        if (n >= 0) {
+            prev[n] = p;
+        }
+    }
+}
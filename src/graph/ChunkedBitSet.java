@@ -0,0 +1,143 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A fixed-length set of bits divided into chunks that are copied on write, so that read-only
+ * snapshots of it can be taken cheaply.  See `ChunkedIntArray`, whose chunking this shares.
+ */
+final class ChunkedBitSet {
+
+    /**
+     * The number of `long` words in each chunk.
+     */
+    private static final int CHUNK_WORDS = ChunkedIntArray.CHUNK_SIZE / 64;
+
+    /**
+     * A chunk with no bits set, shared by every chunk that has not been written to since the last
+     * `reset()`, and never itself written to.
+     */
+    private static final long[] EMPTY_CHUNK = new long[CHUNK_WORDS];
+
+    /**
+     * `chunks[c]` holds bits `[c*CHUNK_SIZE..(c+1)*CHUNK_SIZE)`.
+     */
+    private final long[][] chunks;
+
+    /**
+     * `owned[c]` is true if `chunks[c]` may be written in place.  Null if this set is a read-only
+     * snapshot.
+     */
+    private final boolean[] owned;
+
+    /**
+     * The number of bytes copied to keep snapshots of this set unchanged (see `copiedBytes()`).
+     */
+    private long copiedBytes;
+
+    /**
+     * Create a set of `length` bits, all clear.
+     */
+    ChunkedBitSet(int length) {
+        chunks = new long[ChunkedIntArray.chunkCount(length)][];
+        owned = new boolean[chunks.length];
+        reset();
+    }
+
+    /**
+     * Create a read-only set sharing the chunks `chunks` with another set.
+     */
+    private ChunkedBitSet(long[][] chunks) {
+        this.chunks = chunks;
+        owned = null;
+    }
+
+    /**
+     * Return a read-only set of `length` bits holding a copy of the first `length` bits of `bits`.
+     */
+    static ChunkedBitSet copyOf(BitSet bits, int length) {
+        long[][] chunks = new long[ChunkedIntArray.chunkCount(length)][];
+        long[] words = bits.toLongArray();
+        for (int c = 0; c < chunks.length; ++c) {
+            chunks[c] = Arrays.copyOfRange(words, Math.min(words.length, c * CHUNK_WORDS),
+                    Math.min(words.length, c * CHUNK_WORDS) + CHUNK_WORDS);
+        }
+        return new ChunkedBitSet(chunks);
+    }
+
+    /**
+     * Return whether bit `i` is set.
+     */
+    boolean get(int i) {
+        long[] chunk = chunks[i >>> ChunkedIntArray.CHUNK_BITS];
+        return (chunk[(i & (ChunkedIntArray.CHUNK_SIZE - 1)) >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Set bit `i`, first copying its chunk if that chunk is shared.  Requires that this set is not
+     * a snapshot.
+     */
+    void set(int i) {
+        int c = i >>> ChunkedIntArray.CHUNK_BITS;
+        if (!owned[c]) {
+            if (chunks[c] != EMPTY_CHUNK) {
+                copiedBytes += (long) Long.BYTES * CHUNK_WORDS;
+            }
+            chunks[c] = chunks[c].clone();
+            owned[c] = true;
+        }
+        chunks[c][(i & (ChunkedIntArray.CHUNK_SIZE - 1)) >>> 6] |= 1L << i;
+    }
+
+    /**
+     * Clear every bit.  Takes time proportional to the number of chunks.  Requires that this set
+     * is not a snapshot.
+     */
+    void reset() {
+        Arrays.fill(chunks, EMPTY_CHUNK);
+        Arrays.fill(owned, false);
+    }
+
+    /**
+     * Return whether this set and `other` share the storage of chunk `c` (bits
+     * `[c*CHUNK_SIZE..(c+1)*CHUNK_SIZE)`, as in `ChunkedIntArray`), which implies that their bits in
+     * that chunk are equal.  Requires `c` is a chunk of both sets.
+     */
+    boolean sameChunk(ChunkedBitSet other, int c) {
+        return other.chunks[c] == chunks[c];
+    }
+
+    /**
+     * Return the approximate number of bytes of memory referenced by this set, including chunks it
+     * may share with other sets.
+     */
+    long estimatedBytes() {
+        long bytes = 16 + 8L * chunks.length;
+        for (long[] chunk : chunks) {
+            if (chunk != EMPTY_CHUNK) {
+                bytes += 16 + (long) Long.BYTES * CHUNK_WORDS;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Return the total number of bytes this set has copied in order to keep its snapshots
+     * unchanged (see `PathStore.copiedBytes()`).  Requires that this set is not a snapshot.
+     */
+    long copiedBytes() {
+        return copiedBytes;
+    }
+
+    /**
+     * Return a read-only copy of this set's current contents.  Requires that this set is not a
+     * snapshot.
+     */
+    ChunkedBitSet snapshot() {
+        Arrays.fill(owned, false);
+        copiedBytes += 8L * chunks.length;
+        return new ChunkedBitSet(chunks.clone());
+    }
+
+}
@@ -0,0 +1,173 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * A `PathStore` on the Java heap: a fixed-length array of `int`s divided into chunks that are
+ * copied on write, so that read-only snapshots of it can be taken cheaply.  Taking a snapshot only
+ * copies the table of chunk references; afterwards, the first write to each chunk copies that
+ * chunk, so the total copying cost is proportional to the number of chunks that change between
+ * snapshots rather than to the array's length.
+ * <p>
+ * A snapshot is itself a `ChunkedIntArray` that may be read (from any thread, once it has been
+ * safely published) but not written.
+ */
+final class ChunkedIntArray implements PathStore {
+
+    /**
+     * Each chunk holds `2^CHUNK_BITS` elements.  Shared with `ChunkedBitSet` so that element `i`
+     * lives in chunk `i >>> CHUNK_BITS` in both.
+     */
+    static final int CHUNK_BITS = 12;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * The number of elements in this array.
+     */
+    private final int length;
+
+    /**
+     * A chunk whose elements all equal this array's fill value.  Shared by every chunk that has not
+     * been written to since the last `reset()`, and never itself written to.
+     */
+    private final int[] fillChunk;
+
+    /**
+     * `chunks[c]` holds elements `[c*CHUNK_SIZE..(c+1)*CHUNK_SIZE)` (the last chunk may be
+     * partially used).
+     */
+    private final int[][] chunks;
+
+    /**
+     * `owned[c]` is true if `chunks[c]` is private to this array (not shared with `fillChunk` or
+     * with any snapshot), meaning it may be written in place.  Null if this array is a read-only
+     * snapshot.
+     */
+    private final boolean[] owned;
+
+    /**
+     * The number of bytes copied to keep snapshots of this array unchanged (see `copiedBytes()`).
+     */
+    private long copiedBytes;
+
+    /**
+     * Create an array of `length` elements, all equal to `fill`.
+     */
+    ChunkedIntArray(int length, int fill) {
+        this.length = length;
+        fillChunk = new int[CHUNK_SIZE];
+        Arrays.fill(fillChunk, fill);
+        chunks = new int[chunkCount(length)][];
+        owned = new boolean[chunks.length];
+        reset();
+    }
+
+    /**
+     * Create a read-only array sharing the chunks `chunks` with another array.
+     */
+    private ChunkedIntArray(int length, int[] fillChunk, int[][] chunks) {
+        this.length = length;
+        this.fillChunk = fillChunk;
+        this.chunks = chunks;
+        owned = null;
+    }
+
+    /**
+     * Return a read-only array holding a copy of `values`.
+     */
+    static ChunkedIntArray copyOf(int[] values) {
+        int[][] chunks = new int[chunkCount(values.length)][];
+        for (int c = 0; c < chunks.length; ++c) {
+            chunks[c] = Arrays.copyOfRange(values, c * CHUNK_SIZE, (c + 1) * CHUNK_SIZE);
+        }
+        return new ChunkedIntArray(values.length, new int[CHUNK_SIZE], chunks);
+    }
+
+    /**
+     * Return the number of chunks needed to hold `length` elements.
+     */
+    static int chunkCount(int length) {
+        return (int) (((long) length + CHUNK_MASK) >>> CHUNK_BITS);
+    }
+
+    /**
+     * Return the number of elements in this array.
+     */
+    @Override
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Return the element at index `i`.  Requires `0 <= i < length()`.
+     */
+    @Override
+    public int get(int i) {
+        return chunks[i >>> CHUNK_BITS][i & CHUNK_MASK];
+    }
+
+    /**
+     * Set the element at index `i` to `value`, first copying its chunk if that chunk is shared.
+     * Requires `0 <= i < length()` and that this array is not a snapshot.
+     */
+    @Override
+    public void set(int i, int value) {
+        int c = i >>> CHUNK_BITS;
+        if (!owned[c]) {
+            if (chunks[c] != fillChunk) {
+                copiedBytes += (long) Integer.BYTES * CHUNK_SIZE;
+            }
+            chunks[c] = chunks[c].clone();
+            owned[c] = true;
+        }
+        chunks[c][i & CHUNK_MASK] = value;
+    }
+
+    /**
+     * Set every element back to this array's fill value.  Takes time proportional to the number of
+     * chunks, not the number of elements.  Requires that this array is not a snapshot.
+     */
+    @Override
+    public void reset() {
+        Arrays.fill(chunks, fillChunk);
+        Arrays.fill(owned, false);
+    }
+
+    /**
+     * Return whether this array and `other` share the storage of chunk `c`.
+     */
+    @Override
+    public boolean sameChunk(PathStore other, int c) {
+        return other instanceof ChunkedIntArray array && array.chunks[c] == chunks[c];
+    }
+
+    @Override
+    public long copiedBytes() {
+        return copiedBytes;
+    }
+
+    @Override
+    public long estimatedBytes() {
+        // The chunk table, plus each chunk other than the shared fill chunk (with array headers)
+        long bytes = 16 + 8L * chunks.length;
+        for (int[] chunk : chunks) {
+            if (chunk != fillChunk) {
+                bytes += 16 + (long) Integer.BYTES * CHUNK_SIZE;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Return a read-only copy of this array's current contents.  Subsequent writes to this array
+     * will not affect the copy.  Requires that this array is not a snapshot.
+     */
+    @Override
+    public ChunkedIntArray snapshot() {
+        Arrays.fill(owned, false);
+        copiedBytes += 8L * chunks.length;
+        return new ChunkedIntArray(length, fillChunk, chunks.clone());
+    }
+
+}
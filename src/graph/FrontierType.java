@@ -0,0 +1,107 @@
+package graph;
+
+/**
+ * The priority queue implementations that `ShortestPaths` can use for its frontier.  All of them
+ * produce the same shortest-path distances; they differ only in speed and memory use, so this is
+ * mainly useful for benchmarking them against each other.
+ */
+public enum FrontierType {
+    /**
+     * `RefMinQueue`: Java's `PriorityQueue` with O(N) updates.  Only suitable for small graphs.
+     */
+    REFERENCE,
+
+    /**
+     * `HeapMinQueue`: a binary heap indexed by a hash table of boxed vertex IDs.
+     */
+    HEAP,
+
+    /**
+     * `IntHeapMinQueue`: a binary heap over primitive arrays indexed by vertex ID.
+     */
+    INT_HEAP,
+
+    /**
+     * `BucketMinQueue`: a circular bucket queue.  Requires a `BoundedWeigher`.
+     */
+    BUCKET,
+
+    /**
+     * `RadixMinQueue`: a radix heap, whose size does not depend on the magnitude of edge weights.
+     */
+    RADIX;
+
+    /**
+     * Return the frontier type `ShortestPaths` uses by default for weights determined by
+     * `weigher`: a bucket queue if the weights are bounded, otherwise a primitive binary heap.
+     */
+    public static FrontierType defaultFor(Weigher<?> weigher) {
+        return (weigher instanceof BoundedWeigher<?>) ? BUCKET : INT_HEAP;
+    }
+
+    /**
+     * Create an empty queue of this type able to hold the vertex IDs `[0..capacity)` of a graph
+     * whose edge weights are determined by `weigher`.  Throws IllegalArgumentException if this is
+     * `BUCKET` and `weigher` is not a `BoundedWeigher`.
+     */
+    IntMinQueue create(int capacity, Weigher<?> weigher) {
+        return switch (this) {
+            case REFERENCE -> new BoxedIntMinQueue(new RefMinQueue<>(), capacity);
+            case HEAP -> new BoxedIntMinQueue(new HeapMinQueue<>(), capacity);
+            case INT_HEAP -> new IntHeapMinQueue(capacity);
+            case BUCKET -> {
+                if (!(weigher instanceof BoundedWeigher<?> bounded)) {
+                    throw new IllegalArgumentException(
+                            "Bucket frontier requires a BoundedWeigher");
+                }
+                // Dijkstra never enqueues a priority more than one edge weight beyond the
+                //  minimum, so a bucket queue spanning the largest weight suffices.
+                yield new BucketMinQueue(capacity, bounded.maxWeight());
+            }
+            case RADIX -> new RadixMinQueue(capacity);
+        };
+    }
+
+    /**
+     * Adapts a generic `MinQueue<Integer>` to the primitive `IntMinQueue` interface (boxing on
+     * every call), so that the original queue implementations can be compared against the
+     * primitive ones.
+     */
+    private record BoxedIntMinQueue(MinQueue<Integer> queue, int capacity) implements IntMinQueue {
+
+        @Override
+        public boolean isEmpty() {
+            return queue.isEmpty();
+        }
+
+        @Override
+        public int size() {
+            return queue.size();
+        }
+
+        @Override
+        public int minPriority() {
+            return queue.minPriority();
+        }
+
+        @Override
+        public int getInt() {
+            return queue.get();
+        }
+
+        @Override
+        public void addOrUpdate(int key, int priority) {
+            queue.addOrUpdate(key, priority);
+        }
+
+        @Override
+        public int removeInt() {
+            return queue.remove();
+        }
+
+        @Override
+        public void clear() {
+            queue.clear();
+        }
+    }
+}
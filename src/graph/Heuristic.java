@@ -0,0 +1,21 @@
+package graph;
+
+/**
+ * Estimates the distance between vertices of a graph in order to direct a point-to-point search
+ * towards its goal (see `ShortestPaths.findPath()`).
+ */
+@FunctionalInterface
+public interface Heuristic {
+
+    /**
+     * Return a lower bound on the total weight of any path from the vertex with ID `id` to the
+     * vertex with ID `goalId`.  Estimates must be consistent: for every edge from `u` to `v` with
+     * weight `w`, `estimate(u, goal) <= w + estimate(v, goal)`.
+     */
+    int estimate(int id, int goalId);
+
+    /**
+     * A heuristic that provides no guidance (turning A* search into Dijkstra's algorithm).
+     */
+    Heuristic NONE = (id, goalId) -> 0;
+}
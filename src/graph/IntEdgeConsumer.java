@@ -0,0 +1,16 @@
+package graph;
+
+/**
+ * Receives the edges leaving a vertex as primitive values, without an `Edge` object being created
+ * for each one (see `IntEdgeGraph`).
+ */
+@FunctionalInterface
+public interface IntEdgeConsumer {
+
+    /**
+     * Process an edge leading to the vertex with ID `endId`.  `dir` distinguishes the edge from the
+     * others leaving the same vertex; it has whatever meaning the graph assigns it (for a pixel
+     * grid, the direction of the neighbor) and is what an `IntEdgeWeigher` expects.
+     */
+    void accept(int endId, int dir);
+}
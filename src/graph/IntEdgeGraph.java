@@ -0,0 +1,17 @@
+package graph;
+
+/**
+ * A `Graph` that can enumerate the edges leaving a vertex as primitive `(endId, dir)` pairs.  When
+ * paired with an `IntEdgeWeigher`, this allows `ShortestPaths` to search the graph without
+ * allocating vertex, edge, or iterator objects.
+ */
+public interface IntEdgeGraph<VertexType extends Vertex<?>> extends Graph<VertexType> {
+
+    /**
+     * Pass each edge leaving the vertex with ID `id` to `consumer`, as the ID of the edge's
+     * destination and a label `dir` that identifies the edge among those leaving `id`.  Edges must
+     * be the same (and be reported in the same order) as those of `getVertex(id).outgoingEdges()`.
+     * Requires `id` is in `[0..vertexCount())`.
+     */
+    void forEachNeighbor(int id, IntEdgeConsumer consumer);
+}
@@ -0,0 +1,14 @@
+package graph;
+
+/**
+ * A `Weigher` that can also weigh an edge identified by primitive values, as reported by
+ * `IntEdgeGraph.forEachNeighbor()`.
+ */
+public interface IntEdgeWeigher<EdgeType extends Edge> extends Weigher<EdgeType> {
+
+    /**
+     * Return the weight of the edge leaving the vertex with ID `startId` that is labeled `dir`.
+     * Must agree with `weight()` for the corresponding `Edge`.
+     */
+    int weight(int startId, int dir);
+}
@@ -0,0 +1,199 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A min priority queue of distinct `int` keys in `[0..capacity)` associated with (extrinsic)
+ * integer priorities, implemented using a binary heap stored in parallel `int` arrays paired with a
+ * direct-mapped position index.  Unlike `HeapMinQueue<Integer>`, no operation boxes its keys,
+ * hashes them, or allocates; this makes it suitable as the frontier of searches over large graphs
+ * (where keys are vertex IDs and the capacity is the graph's vertex count).
+ */
+public class IntHeapMinQueue implements IntMinQueue {
+
+    /**
+     * `keys[i]` is the key of the entry at position `i` in the heap.  Only positions in
+     * `[0..size)` are meaningful.
+     */
+    private final int[] keys;
+
+    /**
+     * `priorities[i]` is the priority of the entry at position `i` in the heap (parallel to
+     * `keys`).  Satisfies `priorities[i] >= priorities[(i-1)/2]` for all `i` in `[1..size)`.
+     */
+    private final int[] priorities;
+
+    /**
+     * `index[k]` is the position of key `k` in the heap, or -1 if `k` is not in the queue.
+     * Satisfies `keys[index[k]] == k` for every key `k` in the queue.
+     */
+    private final int[] index;
+
+    /**
+     * The number of entries currently in the heap.
+     */
+    private int size;
+
+    /**
+     * Assert that our class invariant is satisfied.  Returns true if it is (or if assertions are
+     * disabled).  Note that this takes linear time, so it is only called from operations that
+     * already cost that much.
+     */
+    private boolean checkInvariant() {
+        for (int i = 1; i < size; ++i) {
+            assert priorities[i] >= priorities[(i - 1) / 2];
+        }
+        for (int i = 0; i < size; ++i) {
+            assert index[keys[i]] == i;
+        }
+        return true;
+    }
+
+    /**
+     * Create an empty queue capable of holding the keys `[0..capacity)`.
+     */
+    public IntHeapMinQueue(int capacity) {
+        keys = new int[capacity];
+        priorities = new int[capacity];
+        index = new int[capacity];
+        Arrays.fill(index, -1);
+        size = 0;
+        assert checkInvariant();
+    }
+
+    @Override
+    public int capacity() {
+        return index.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getInt() {
+        if (size == 0) {
+            throw new NoSuchElementException("Empty heap");
+        }
+        return keys[0];
+    }
+
+    @Override
+    public int minPriority() {
+        if (size == 0) {
+            throw new NoSuchElementException("Empty heap");
+        }
+        return priorities[0];
+    }
+
+    @Override
+    public void addOrUpdate(int key, int priority) {
+        assert key >= 0 && key < index.length;
+        int i = index[key];
+        if (i < 0) {
+            // Add a new entry at the end of the heap
+            i = size;
+            size += 1;
+            keys[i] = key;
+            priorities[i] = priority;
+            index[key] = i;
+            bubbleUp(i);
+        } else {
+            int oldPriority = priorities[i];
+            priorities[i] = priority;
+            if (priority < oldPriority) {
+                bubbleUp(i);
+            } else {
+                bubbleDown(i);
+            }
+        }
+    }
+
+    @Override
+    public int removeInt() {
+        if (size == 0) {
+            throw new NoSuchElementException("Empty heap");
+        }
+        int min = keys[0];
+        index[min] = -1;
+        size -= 1;
+        if (size > 0) {
+            // Move the last entry to the root and restore the heap property
+            keys[0] = keys[size];
+            priorities[0] = priorities[size];
+            index[keys[0]] = 0;
+            bubbleDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Remove all elements from this queue (making it empty).  Takes time proportional to the
+     * number of elements removed, not to the capacity.
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; ++i) {
+            index[keys[i]] = -1;
+        }
+        size = 0;
+        assert checkInvariant();
+    }
+
+    /**
+     * Move the entry at position `i` towards the root until its parent's priority is no greater
+     * than its own, updating `index` accordingly.  Requires `0 <= i < size`.
+     */
+    private void bubbleUp(int i) {
+        int key = keys[i];
+        int priority = priorities[i];
+        while (i > 0) {
+            int p = (i - 1) / 2;
+            if (priorities[p] <= priority) {
+                break;
+            }
+            keys[i] = keys[p];
+            priorities[i] = priorities[p];
+            index[keys[i]] = i;
+            i = p;
+        }
+        keys[i] = key;
+        priorities[i] = priority;
+        index[key] = i;
+    }
+
+    /**
+     * Move the entry at position `i` away from the root until neither of its children has a
+     * smaller priority, updating `index` accordingly.  Requires `0 <= i < size`.
+     */
+    private void bubbleDown(int i) {
+        int key = keys[i];
+        int priority = priorities[i];
+        while (true) {
+            int c = 2 * i + 1;
+            if (c >= size) {
+                break;
+            }
+            if (c + 1 < size && priorities[c + 1] < priorities[c]) {
+                c += 1;
+            }
+            if (priorities[c] >= priority) {
+                break;
+            }
+            keys[i] = keys[c];
+            priorities[i] = priorities[c];
+            index[keys[i]] = i;
+            i = c;
+        }
+        keys[i] = key;
+        priorities[i] = priority;
+        index[key] = i;
+    }
+}
@@ -0,0 +1,38 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of `int`s.
+ */
+final class IntList {
+
+    int[] data = new int[16];
+    int size;
+
+    void add(int value) {
+        if (size == data.length) {
+            data = Arrays.copyOf(data, 2 * size);
+        }
+        data[size++] = value;
+    }
+
+    void addAll(IntList other) {
+        if (size + other.size > data.length) {
+            data = Arrays.copyOf(data, Math.max(2 * data.length, size + other.size));
+        }
+        System.arraycopy(other.data, 0, data, size, other.size);
+        size += other.size;
+    }
+
+    /**
+     * Return a copy of elements `[from..size)`.
+     */
+    int[] copyFrom(int from) {
+        return Arrays.copyOfRange(data, from, size);
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,52 @@
+package graph;
+
+/**
+ * A min priority queue whose elements are non-negative `int` keys (typically vertex IDs) associated
+ * with (extrinsic) integer priorities.  Offers primitive variants of the `MinQueue` operations so
+ * that hot loops like the one in `ShortestPaths` can avoid boxing; the inherited boxed operations
+ * delegate to them.
+ */
+interface IntMinQueue extends MinQueue<Integer> {
+
+    /**
+     * Return an element associated with the smallest priority in this queue.  This is the same
+     * element that would be removed by a call to `removeInt()` (assuming no mutations in between).
+     * Throws NoSuchElementException if this queue is empty.
+     */
+    int getInt();
+
+    /**
+     * If `key` is already contained in this queue, change its associated priority to `priority`.
+     * Otherwise, add it to this queue with that priority.  Requires `key` is in
+     * `[0..capacity())`.
+     */
+    void addOrUpdate(int key, int priority);
+
+    /**
+     * Remove and return the element associated with the smallest priority in this queue.  If
+     * multiple elements are tied for the smallest priority, an arbitrary one will be removed.
+     * Throws NoSuchElementException if this queue is empty.
+     */
+    int removeInt();
+
+    /**
+     * Return the number of distinct keys this queue can hold; keys must be in
+     * `[0..capacity())`.
+     */
+    int capacity();
+
+    @Override
+    default Integer get() {
+        return getInt();
+    }
+
+    @Override
+    default void addOrUpdate(Integer key, int priority) {
+        addOrUpdate(key.intValue(), priority);
+    }
+
+    @Override
+    default Integer remove() {
+        return removeInt();
+    }
+}
@@ -0,0 +1,189 @@
+package graph;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * A `PathStore` with the same copy-on-write chunking as `ChunkedIntArray`, but whose chunks are
+ * direct buffers outside the Java heap.  A search over a huge graph therefore adds almost nothing
+ * to the heap for its distances and predecessors, and copying chunks does not create garbage for
+ * the collector to trace.
+ * <p>
+ * Direct buffers can only be freed by the garbage collector, so `release()` instead returns this
+ * array's chunks to a shared pool from which later arrays allocate theirs.  Repeated searches thus
+ * reuse the same off-heap memory rather than waiting for it to be collected.
+ */
+final class OffHeapIntArray implements PathStore {
+
+    private static final int CHUNK_BITS = ChunkedIntArray.CHUNK_BITS;
+    private static final int CHUNK_SIZE = ChunkedIntArray.CHUNK_SIZE;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * The maximum number of released chunks kept for reuse (64 MiB); chunks released beyond this
+     * are left for the garbage collector.
+     */
+    private static final int MAX_POOLED_CHUNKS = 4096;
+
+    /**
+     * Released chunks available for reuse.  Their contents are arbitrary.
+     */
+    private static final ArrayBlockingQueue<IntBuffer> pool =
+            new ArrayBlockingQueue<>(MAX_POOLED_CHUNKS);
+
+    /**
+     * The number of elements in this array.
+     */
+    private final int length;
+
+    /**
+     * A chunk whose elements all equal this array's fill value.  Shared by every chunk that has not
+     * been written to since the last `reset()`, and never itself written to.
+     */
+    private final IntBuffer fillChunk;
+
+    /**
+     * `chunks[c]` holds elements `[c*CHUNK_SIZE..(c+1)*CHUNK_SIZE)` (the last chunk may be
+     * partially used).
+     */
+    private final IntBuffer[] chunks;
+
+    /**
+     * `owned[c]` is true if `chunks[c]` is private to this array (not shared with `fillChunk` or
+     * with any snapshot), meaning it may be written in place.  Null if this array is a read-only
+     * snapshot.
+     */
+    private final boolean[] owned;
+
+    /**
+     * The number of bytes copied to keep snapshots of this array unchanged (see `copiedBytes()`).
+     */
+    private long copiedBytes;
+
+    /**
+     * Create an array of `length` elements, all equal to `fill`.
+     */
+    OffHeapIntArray(int length, int fill) {
+        this.length = length;
+        fillChunk = allocateChunk();
+        for (int i = 0; i < CHUNK_SIZE; ++i) {
+            fillChunk.put(i, fill);
+        }
+        chunks = new IntBuffer[ChunkedIntArray.chunkCount(length)];
+        owned = new boolean[chunks.length];
+        reset();
+    }
+
+    /**
+     * Create a read-only array sharing the chunks `chunks` with another array.
+     */
+    private OffHeapIntArray(int length, IntBuffer fillChunk, IntBuffer[] chunks) {
+        this.length = length;
+        this.fillChunk = fillChunk;
+        this.chunks = chunks;
+        owned = null;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public int get(int i) {
+        return chunks[i >>> CHUNK_BITS].get(i & CHUNK_MASK);
+    }
+
+    /**
+     * Set the element at index `i` to `value`, first copying its chunk if that chunk is shared.
+     * Requires `0 <= i < length()` and that this array is not a snapshot.
+     */
+    @Override
+    public void set(int i, int value) {
+        int c = i >>> CHUNK_BITS;
+        if (!owned[c]) {
+            if (chunks[c] != fillChunk) {
+                copiedBytes += (long) Integer.BYTES * CHUNK_SIZE;
+            }
+            IntBuffer copy = allocateChunk();
+            copy.put(0, chunks[c], 0, CHUNK_SIZE);
+            chunks[c] = copy;
+            owned[c] = true;
+        }
+        chunks[c].put(i & CHUNK_MASK, value);
+    }
+
+    /**
+     * Set every element back to this array's fill value.  Takes time proportional to the number of
+     * chunks, not the number of elements.  Requires that this array is not a snapshot.
+     */
+    @Override
+    public void reset() {
+        Arrays.fill(chunks, fillChunk);
+        Arrays.fill(owned, false);
+    }
+
+    /**
+     * Return a read-only copy of this array's current contents.  Subsequent writes to this array
+     * will not affect the copy.  Requires that this array is not a snapshot.
+     */
+    @Override
+    public OffHeapIntArray snapshot() {
+        Arrays.fill(owned, false);
+        copiedBytes += 8L * chunks.length;
+        return new OffHeapIntArray(length, fillChunk, chunks.clone());
+    }
+
+    @Override
+    public boolean sameChunk(PathStore other, int c) {
+        return other instanceof OffHeapIntArray array && array.chunks[c] == chunks[c];
+    }
+
+    @Override
+    public long copiedBytes() {
+        return copiedBytes;
+    }
+
+    @Override
+    public long estimatedBytes() {
+        // The chunk table, plus each chunk other than the shared fill chunk (with buffer objects)
+        long bytes = 16 + 8L * chunks.length;
+        for (IntBuffer chunk : chunks) {
+            if (chunk != fillChunk) {
+                bytes += 64 + (long) Integer.BYTES * CHUNK_SIZE;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Return every chunk this array currently refers to (other than `fillChunk`) to the pool,
+     * leaving this array reset.  Snapshots taken from this array must not be read afterwards, since
+     * they may share those chunks.  Requires that this array is not a snapshot.
+     */
+    @Override
+    public void release() {
+        for (IntBuffer chunk : chunks) {
+            // `offer()` fails once the pool is full, in which case the chunk becomes garbage.
+            if (chunk != fillChunk && !pool.offer(chunk)) {
+                break;
+            }
+        }
+        reset();
+    }
+
+    /**
+     * Return a chunk with arbitrary contents, reusing a pooled one if possible.
+     */
+    private static IntBuffer allocateChunk() {
+        IntBuffer chunk = pool.poll();
+        if (chunk == null) {
+            chunk = ByteBuffer.allocateDirect(CHUNK_SIZE * Integer.BYTES)
+                    .order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+        return chunk;
+    }
+}
@@ -0,0 +1,485 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Solves for shortest paths using the delta-stepping algorithm, relaxing edges on multiple threads
+ * of a `ForkJoinPool`.  Vertices are grouped into buckets of width `delta` by their tentative
+ * distances, and all vertices in the closest non-empty bucket are processed together: their
+ * "light" edges (weighing at most `delta`) are relaxed in parallel, repeatedly, until the bucket
+ * stops changing, after which their "heavy" edges are relaxed in parallel once.  Tentative
+ * distances are updated with atomic compare-and-set operations.
+ * <p>
+ * Requires a graph supporting primitive traversal (`IntEdgeGraph`) and a weigher that is both an
+ * `IntEdgeWeigher` and a `BoundedWeigher`; both must be safe to query from multiple threads.
+ * Finds the same distances as `ShortestPaths`.  Where several paths are equally short, the one
+ * whose final edge leaves the vertex with the smallest ID is chosen, so results do not depend on
+ * thread scheduling.
+ */
+public class ParallelShortestPaths implements ShortestPathSolver {
+
+    /**
+     * Bucket and relaxation sets smaller than this are processed on the calling thread, since
+     * splitting them would cost more than it saves.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 1024;
+
+    /**
+     * The packed tentative entry of a vertex with no known path (see `tentative`).
+     */
+    private static final long UNREACHED = Long.MAX_VALUE;
+
+    /**
+     * The graph we are searching for paths in.
+     */
+    private final IntEdgeGraph<?> graph;
+
+    /**
+     * Weigher to use in order to query edge weights in our graph.
+     */
+    private final IntEdgeWeigher<?> weigher;
+
+    /**
+     * The width of each bucket of distances; edges weighing at most this much are "light".
+     */
+    private final int delta;
+
+    /**
+     * The pool on which edges are relaxed.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * `buckets[(d / delta) % buckets.length]` holds the IDs of vertices whose tentative distance
+     * became `d` (possibly along with stale entries for vertices whose distances have since
+     * decreased).  Since no edge weighs more than our weigher's `maxWeight()`, enough buckets are
+     * allocated that those in use never wrap around onto each other.
+     */
+    private final IntList[] buckets;
+
+    /**
+     * The total number of entries (including stale ones) in `buckets`.
+     */
+    private long bucketEntries;
+
+    /**
+     * The index (`d / delta`) of the bucket that will be processed next.  Every bucket with a
+     * smaller index has been processed.
+     */
+    private int currentBucket;
+
+    /**
+     * `tentative.get(id)` packs the weight of the shortest known path from our starting vertex to
+     * the vertex with ID `id` (in its upper 32 bits) with the ID of that path's penultimate vertex
+     * (in its lower 32 bits, or -1 for the start), so that both can be updated by a single atomic
+     * operation; comparing packed entries as `long`s orders them by distance.  `UNREACHED` if no
+     * path is known.
+     */
+    private final AtomicLongArray tentative;
+
+    /**
+     * Copies of the distances and predecessors in `tentative`, updated after each parallel step so
+     * that snapshots of them can be taken cheaply.  -1 if no path is known.
+     */
+    private final PathStore distances;
+    private final PathStore predecessors;
+
+    /**
+     * `settledIds.get(id)` is true if the shortest path has been determined from our starting
+     * vertex to the vertex with ID `id`.
+     */
+    private final ChunkedBitSet settledIds;
+
+    /**
+     * The number of vertices in `settledIds`.
+     */
+    private int settledCount;
+
+    /**
+     * The IDs of every vertex for which a path has been found since our starting point was set, so
+     * that `tentative` can be reset without visiting every vertex.
+     */
+    private final IntList discovered;
+
+    /**
+     * The IDs of the vertices settled since the last call to `takeDelta()`, or null if deltas are
+     * not being recorded.  Vertices discovered since then are those after `discoveredTaken` in
+     * `discovered`.
+     */
+    private IntList deltaSettled;
+    private int discoveredTaken;
+
+    /**
+     * The work done by the current batch, added to `SearchMetrics` when the batch ends.  Only
+     * searches, settled vertices, and snapshot copying are counted, since edges are relaxed
+     * concurrently.
+     */
+    private final SearchMetrics.Tally tally = new SearchMetrics.Tally();
+
+    /**
+     * The ID of the starting vertex for our current search, or -1 if no starting vertex has yet
+     * been selected.
+     */
+    private int startId;
+
+    /**
+     * Create a new solver for the graph `graph` whose edge weights are determined by `weigher`,
+     * using a bucket width of a quarter of the largest edge weight and the common `ForkJoinPool`.
+     * Throws IllegalArgumentException if `weigher` is not both an `IntEdgeWeigher` and a
+     * `BoundedWeigher`.
+     */
+    public ParallelShortestPaths(IntEdgeGraph<?> graph, Weigher<?> weigher) {
+        this(graph, weigher, defaultDelta(weigher), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a new solver for the graph `graph` whose edge weights are determined by `weigher`,
+     * using buckets of width `delta` and relaxing edges on `pool`.  Throws
+     * IllegalArgumentException if `weigher` is not both an `IntEdgeWeigher` and a
+     * `BoundedWeigher`, or if `delta` is not positive.
+     */
+    public ParallelShortestPaths(IntEdgeGraph<?> graph, Weigher<?> weigher, int delta,
+            ForkJoinPool pool) {
+        if (!(weigher instanceof IntEdgeWeigher<?> intWeigher)
+                || !(weigher instanceof BoundedWeigher<?> bounded)) {
+            throw new IllegalArgumentException(
+                    "Parallel search requires an IntEdgeWeigher that is also a BoundedWeigher");
+        }
+        if (delta <= 0) {
+            throw new IllegalArgumentException("Bucket width must be positive: " + delta);
+        }
+        this.graph = graph;
+        this.weigher = intWeigher;
+        this.delta = delta;
+        this.pool = pool;
+
+        // A vertex in bucket `i` is at distance less than `(i+1)*delta`, so relaxing its edges
+        //  cannot reach beyond bucket `i + 1 + maxWeight/delta`.
+        buckets = new IntList[bounded.maxWeight() / delta + 2];
+        for (int i = 0; i < buckets.length; ++i) {
+            buckets[i] = new IntList();
+        }
+
+        int n = graph.vertexCount();
+        tentative = new AtomicLongArray(n);
+        for (int id = 0; id < n; ++id) {
+            tentative.set(id, UNREACHED);
+        }
+        PathStoreType storeType = PathStoreType.defaultFor(n);
+        distances = storeType.create(n, -1);
+        predecessors = storeType.create(n, -1);
+        settledIds = new ChunkedBitSet(n);
+        discovered = new IntList();
+        startId = -1;
+    }
+
+    /**
+     * Return the bucket width used by default for weights determined by `weigher`.
+     */
+    private static int defaultDelta(Weigher<?> weigher) {
+        return (weigher instanceof BoundedWeigher<?> bounded)
+                ? Math.max(1, bounded.maxWeight() / 4) : 1;
+    }
+
+    /**
+     * Clear any intermediate pathfinding results in preparation for finding paths from a new
+     * starting point.  Takes time proportional to the number of vertices discovered by the previous
+     * search plus the number of storage chunks.
+     */
+    private void reset() {
+        for (int i = 0; i < discovered.size; ++i) {
+            tentative.set(discovered.data[i], UNREACHED);
+        }
+        discovered.clear();
+        for (IntList bucket : buckets) {
+            bucket.clear();
+        }
+        bucketEntries = 0;
+        currentBucket = 0;
+        distances.reset();
+        predecessors.reset();
+        settledIds.reset();
+        settledCount = 0;
+        startId = -1;
+        if (deltaSettled != null) {
+            deltaSettled.clear();
+        }
+        discoveredTaken = 0;
+    }
+
+    @Override
+    public void release() {
+        distances.release();
+        predecessors.release();
+        reset();
+    }
+
+    @Override
+    public int vertexCount() {
+        return graph.vertexCount();
+    }
+
+    @Override
+    public int settledCount() {
+        return settledCount;
+    }
+
+    /**
+     * Return whether shortest paths have been found for all vertices reachable from the current
+     * starting point.  Returns false if no starting point has been set.  May also return false if
+     * only stale bucket entries remain; extending the search will then discard them.
+     */
+    @Override
+    public boolean allPathsFound() {
+        return bucketEntries == 0 && startId >= 0;
+    }
+
+    @Override
+    public void setStart(int startId) {
+        reset();
+        this.startId = startId;
+        tentative.set(startId, pack(0, -1));
+        discovered.add(startId);
+        distances.set(startId, 0);
+        buckets[0].add(startId);
+        bucketEntries = 1;
+        SearchMetrics.searchStarted();
+    }
+
+    /**
+     * Find the shortest paths from our current starting point to at least the next `maxToSettle`
+     * closest vertices for which shortest paths are not yet known (or to all remaining reachable
+     * vertices, if there are fewer).  Vertices are settled a whole bucket at a time, so more than
+     * `maxToSettle` vertices may be settled.  Requires `maxToSettle` is non-negative and that a
+     * starting vertex has been set.
+     */
+    @Override
+    public void advance(int maxToSettle) {
+        assert startId >= 0;
+        tally.begin();
+        int settledBefore = settledCount;
+        int target = settledCount + maxToSettle;
+        while (settledCount < target && processNextBucket()) {
+            // Keep settling
+        }
+        flushMetrics(settledBefore);
+    }
+
+    @Override
+    public PathfindingSnapshot extendSearchUntil(int id) {
+        assert startId >= 0;
+        tally.begin();
+        int settledBefore = settledCount;
+        while (!settledIds.get(id) && processNextBucket()) {
+            // Keep settling
+        }
+        PathfindingSnapshot snapshot = snapshot();
+        flushMetrics(settledBefore);
+        return snapshot;
+    }
+
+    /**
+     * Add the work done by the batch that just ended, which started with `settledBefore` vertices
+     * settled, to `SearchMetrics`.
+     */
+    private void flushMetrics(int settledBefore) {
+        tally.settled = settledCount - settledBefore;
+        tally.flush(distances.copiedBytes() + predecessors.copiedBytes()
+                + settledIds.copiedBytes());
+    }
+
+    @Override
+    public boolean settled(int id) {
+        return settledIds.get(id);
+    }
+
+    @Override
+    public void recordDeltas(boolean record) {
+        if (!record) {
+            deltaSettled = null;
+        } else if (deltaSettled == null) {
+            deltaSettled = new IntList();
+            discoveredTaken = discovered.size;
+        }
+    }
+
+    @Override
+    public SearchDelta takeDelta() {
+        assert deltaSettled != null && startId >= 0;
+        SearchDelta delta = new SearchDelta(startId, deltaSettled.copyFrom(0),
+                discovered.copyFrom(discoveredTaken));
+        deltaSettled.clear();
+        discoveredTaken = discovered.size;
+        return delta;
+    }
+
+    @Override
+    public PathfindingSnapshot snapshot() {
+        return new PathfindingSnapshot(startId, distances.snapshot(), predecessors.snapshot(),
+                settledIds.snapshot());
+    }
+
+    /**
+     * Settle every vertex in the closest non-empty bucket.  Returns false (settling nothing) if
+     * every bucket is empty.
+     */
+    private boolean processNextBucket() {
+        if (bucketEntries == 0) {
+            return false;
+        }
+        while (buckets[currentBucket % buckets.length].size == 0) {
+            currentBucket += 1;
+        }
+        IntList bucket = buckets[currentBucket % buckets.length];
+
+        // Vertices settled in this bucket, whose heavy edges must be relaxed once it is empty.
+        IntList settledHere = new IntList();
+        while (bucket.size > 0) {
+            int[] requests = Arrays.copyOf(bucket.data, bucket.size);
+            bucketEntries -= bucket.size;
+            bucket.clear();
+
+            // Discard stale entries for vertices that now belong to an earlier bucket (which
+            //  were settled there).  Vertices already settled in this bucket are relaxed again,
+            //  since their distances may have decreased.
+            int n = 0;
+            for (int id : requests) {
+                if (distanceOf(tentative.get(id)) / delta == currentBucket) {
+                    requests[n++] = id;
+                    if (!settledIds.get(id)) {
+                        settledIds.set(id);
+                        settledCount += 1;
+                        settledHere.add(id);
+                    }
+                }
+            }
+            update(relaxAll(requests, n, true));
+        }
+        update(relaxAll(settledHere.data, settledHere.size, false));
+        if (deltaSettled != null) {
+            deltaSettled.addAll(settledHere);
+        }
+        currentBucket += 1;
+        return true;
+    }
+
+    /**
+     * Relax the light edges (if `light` is true) or heavy edges (otherwise) leaving the vertices
+     * whose IDs are `ids[0..n)`, in parallel if there are enough of them.  Returns the IDs of the
+     * vertices whose tentative entries were improved (possibly with duplicates).
+     */
+    private IntList relaxAll(int[] ids, int n, boolean light) {
+        RelaxTask task = new RelaxTask(ids, 0, n, light);
+        return (n < SEQUENTIAL_THRESHOLD) ? task.compute() : pool.invoke(task);
+    }
+
+    /**
+     * Copy the improved tentative entries of the vertices whose IDs are in `improved` to
+     * `distances` and `predecessors`, and add the vertices to the buckets for their new distances.
+     */
+    private void update(IntList improved) {
+        for (int i = 0; i < improved.size; ++i) {
+            int id = improved.data[i];
+            long entry = tentative.get(id);
+            int distance = distanceOf(entry);
+            int predecessor = (int) entry;
+            int oldDistance = distances.get(id);
+            if (oldDistance == distance && predecessors.get(id) == predecessor) {
+                // Duplicate of an update we have already made
+                continue;
+            }
+            if (oldDistance == -1) {
+                discovered.add(id);
+            }
+            distances.set(id, distance);
+            predecessors.set(id, predecessor);
+            buckets[(distance / delta) % buckets.length].add(id);
+            bucketEntries += 1;
+        }
+    }
+
+    /**
+     * Return the tentative entry for a path of weight `distance` whose penultimate vertex has ID
+     * `predecessor`.
+     */
+    private static long pack(int distance, int predecessor) {
+        return ((long) distance << 32) | (predecessor & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Return the distance packed in the tentative entry `entry`.
+     */
+    private static int distanceOf(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    /**
+     * Relaxes either the light or the heavy edges leaving a range of vertices, splitting the range
+     * across threads if it is large.  Returns the IDs of the vertices whose tentative entries it
+     * improved.  Tasks are never serialized (`RecursiveTask` is only `Serializable` by
+     * inheritance).
+     */
+    @SuppressWarnings("serial")
+    private final class RelaxTask extends RecursiveTask<IntList> implements IntEdgeConsumer {
+
+        private final int[] ids;
+        private final int lo;
+        private final int hi;
+        private final boolean light;
+
+        /**
+         * The ID and distance of the vertex whose edges are currently being relaxed, and the IDs
+         * of vertices improved so far.  Only used by leaf tasks.
+         */
+        private int fromId;
+        private long fromDistance;
+        private IntList improved;
+
+        RelaxTask(int[] ids, int lo, int hi, boolean light) {
+            this.ids = ids;
+            this.lo = lo;
+            this.hi = hi;
+            this.light = light;
+        }
+
+        @Override
+        protected IntList compute() {
+            if (hi - lo > SEQUENTIAL_THRESHOLD && getPool() != null) {
+                int mid = (lo + hi) >>> 1;
+                RelaxTask left = new RelaxTask(ids, lo, mid, light);
+                left.fork();
+                IntList result = new RelaxTask(ids, mid, hi, light).compute();
+                result.addAll(left.join());
+                return result;
+            }
+            improved = new IntList();
+            for (int i = lo; i < hi; ++i) {
+                fromId = ids[i];
+                fromDistance = distanceOf(tentative.get(fromId));
+                graph.forEachNeighbor(fromId, this);
+            }
+            return improved;
+        }
+
+        @Override
+        public void accept(int endId, int dir) {
+            int weight = weigher.weight(fromId, dir);
+            if ((weight <= delta) != light) {
+                return;
+            }
+            long entry = pack((int) (fromDistance + weight), fromId);
+            long old = tentative.get(endId);
+            while (entry < old) {
+                if (tentative.compareAndSet(endId, old, entry)) {
+                    improved.add(endId);
+                    return;
+                }
+                old = tentative.get(endId);
+            }
+        }
+    }
+
+}
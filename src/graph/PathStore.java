@@ -0,0 +1,69 @@
+package graph;
+
+/**
+ * A fixed-length array of `int`s holding per-vertex search state (such as distances or
+ * predecessors) that supports cheap read-only snapshots.  Implementations are chosen with
+ * `PathStoreType`.
+ * <p>
+ * A snapshot may be read (from any thread, once it has been safely published) but not written.
+ */
+interface PathStore {
+
+    /**
+     * Return the number of elements in this store.
+     */
+    int length();
+
+    /**
+     * Return the element at index `i`.  Requires `0 <= i < length()`.
+     */
+    int get(int i);
+
+    /**
+     * Set the element at index `i` to `value`.  Requires `0 <= i < length()` and that this store is
+     * not a snapshot.
+     */
+    void set(int i, int value);
+
+    /**
+     * Set every element back to this store's fill value.  Requires that this store is not a
+     * snapshot.
+     */
+    void reset();
+
+    /**
+     * Return a read-only copy of this store's current contents.  Subsequent writes to this store
+     * will not affect the copy.  Requires that this store is not a snapshot.
+     */
+    PathStore snapshot();
+
+    /**
+     * Return whether this store and `other` share the storage of chunk `c` (elements
+     * `[c*CHUNK_SIZE..(c+1)*CHUNK_SIZE)`, as in `ChunkedIntArray`), which implies that their
+     * elements in that chunk are equal (unless either store has since been released).  Stores of
+     * different types share no chunks.  Requires `c` is a chunk of both stores.
+     */
+    boolean sameChunk(PathStore other, int c);
+
+    /**
+     * Return the approximate number of bytes of memory (on or off the heap) referenced by this
+     * store, including chunks it may share with other stores or snapshots.
+     */
+    long estimatedBytes();
+
+    /**
+     * Return the total number of bytes this store has copied in order to keep its snapshots
+     * unchanged: the chunk tables copied by `snapshot()`, plus the chunks shared with a snapshot
+     * that were later copied on write.  Requires that this store is not a snapshot.
+     */
+    long copiedBytes();
+
+    /**
+     * Free any memory held by this store that is not managed by the garbage collector, leaving it
+     * reset.  Snapshots taken from this store must not be read afterwards.  Requires that this
+     * store is not a snapshot.  The default implementation just resets this store.
+     */
+    default void release() {
+        reset();
+    }
+}
@@ -0,0 +1,43 @@
+package graph;
+
+/**
+ * The storage implementations that `ShortestPaths` can use for its per-vertex distances and
+ * predecessors.  Both support the same cheap copy-on-write snapshots; they differ only in where
+ * their memory lives.
+ */
+public enum PathStoreType {
+    /**
+     * `ChunkedIntArray`: chunks are `int[]`s on the Java heap.
+     */
+    HEAP,
+
+    /**
+     * `OffHeapIntArray`: chunks are direct buffers outside the Java heap, which are recycled when
+     * the solver is released rather than left for the garbage collector.
+     */
+    OFF_HEAP;
+
+    /**
+     * Graphs with at least this many vertices use off-heap storage by default.
+     */
+    public static final int OFF_HEAP_THRESHOLD = 1 << 24;
+
+    /**
+     * Return the store type `ShortestPaths` uses by default for a graph with `vertexCount`
+     * vertices: off-heap storage for graphs with at least `OFF_HEAP_THRESHOLD` vertices, whose
+     * search state would otherwise dominate the heap, and heap storage for smaller ones.
+     */
+    public static PathStoreType defaultFor(int vertexCount) {
+        return (vertexCount >= OFF_HEAP_THRESHOLD) ? OFF_HEAP : HEAP;
+    }
+
+    /**
+     * Create a store of this type holding `length` elements, all equal to `fill`.
+     */
+    PathStore create(int length, int fill) {
+        return switch (this) {
+            case HEAP -> new ChunkedIntArray(length, fill);
+            case OFF_HEAP -> new OffHeapIntArray(length, fill);
+        };
+    }
+}
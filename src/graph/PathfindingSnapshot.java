@@ -1,10 +1,15 @@
 package graph;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
 
+/**
+ * An immutable record of the progress of a shortest-paths search.  Snapshots produced by
+ * `ShortestPaths` share unchanged storage with each other and with the solver (see
+ * `PathStore`), so they are cheap to create even for very large graphs; they may be queried
+ * from any thread once safely published.
+ */
 public class PathfindingSnapshot {
 
     /**
@@ -16,20 +21,32 @@ public class PathfindingSnapshot {
      * `distances[id]` is the weight of the shortest known path from the starting vertex to the
      * vertex with ID `id`, or -1 if no such path is currently known.
      */
-    private final int[] distances;
+    private final PathStore distances;
 
     /**
      * `predecessors[id]` is the ID of the penultimate vertex along the shortest known path from the
      * starting vertex to the vertex with ID `id`, or -1 if `id==startId` or if no such path is
      * currently known.
      */
-    private final int[] predecessors;
+    private final PathStore predecessors;
 
     /**
      * `settledIds[id]` is true if the shortest path has been determined from the starting vertex to
      * the vertex with ID `id`.
      */
-    private final BitSet settledIds;
+    private final ChunkedBitSet settledIds;
+
+    /**
+     * Receives ranges of vertex IDs.
+     */
+    @FunctionalInterface
+    public interface IdRangeConsumer {
+
+        /**
+         * Process the vertex IDs in `[fromId..toId)`.
+         */
+        void accept(int fromId, int toId);
+    }
 
     /**
      * Create a new snapshot of the progress of finding shortest paths from a vertex with ID
@@ -41,10 +58,21 @@ public class PathfindingSnapshot {
      */
     public PathfindingSnapshot(int startId, int[] distances, int[] predecessors,
             BitSet settledIds) {
+        this(startId, ChunkedIntArray.copyOf(distances), ChunkedIntArray.copyOf(predecessors),
+                ChunkedBitSet.copyOf(settledIds, distances.length));
+    }
+
+    /**
+     * Create a new snapshot sharing the read-only storage `distances`, `predecessors`, and
+     * `settledIds` (interpreted as for the public constructor), which must be snapshots that will
+     * not be modified.
+     */
+    PathfindingSnapshot(int startId, PathStore distances, PathStore predecessors,
+            ChunkedBitSet settledIds) {
         this.startId = startId;
-        this.predecessors = Arrays.copyOf(predecessors, predecessors.length);
-        this.distances = Arrays.copyOf(distances, distances.length);
-        this.settledIds = (BitSet) settledIds.clone();
+        this.distances = distances;
+        this.predecessors = predecessors;
+        this.settledIds = settledIds;
     }
 
     /**
@@ -69,7 +97,7 @@ public class PathfindingSnapshot {
         int current = dstId;
         while (current != -1) {
             path.add(0, current);
-            current = predecessors[current];
+            current = predecessors.get(current);
         }
         if (!settled(dstId)) {
             throw new IllegalStateException(); //unrequired but check if settled vertex distance is the shortest possible
@@ -85,7 +113,7 @@ public class PathfindingSnapshot {
      * the graph.
      */
     public int distanceTo(int dstId) {
-        return distances[dstId];
+        return distances.get(dstId);
     }
 
     /**
@@ -100,7 +128,51 @@ public class PathfindingSnapshot {
      * Return whether a path is known from the starting vertex to the vertex with ID `id`.
      */
     public boolean discovered(int id) {
-        return predecessors[id] >= 0 || id == startId;
+        return predecessors.get(id) >= 0 || id == startId;
+    }
+
+    /**
+     * Return the approximate number of bytes of memory retained by this snapshot.  Storage shared
+     * with other snapshots (or with the solver that produced it) is included, so this is an upper
+     * bound on how much memory discarding this snapshot alone would free.
+     */
+    public long estimatedBytes() {
+        return distances.estimatedBytes() + predecessors.estimatedBytes()
+                + settledIds.estimatedBytes();
+    }
+
+    /**
+     * Call `action` with disjoint, increasing ranges of vertex IDs that together include every
+     * vertex whose discovered or settled status differs between `previous` and this snapshot.
+     * Snapshots taken during the same search share storage for vertices whose statuses have not
+     * changed, so the ranges reported for snapshots taken shortly after one another cover little
+     * more than the vertices reached in between.  If `previous` is null, every vertex is reported.
+     * Requires `previous` (if not null) was taken from a search of the same graph that has not
+     * been released since.
+     */
+    public void forEachChangedRange(PathfindingSnapshot previous, IdRangeConsumer action) {
+        int length = predecessors.length();
+        if (previous == null) {
+            action.accept(0, length);
+            return;
+        }
+        int chunks = ChunkedIntArray.chunkCount(length);
+        int fromChunk = -1;
+        for (int c = 0; c <= chunks; ++c) {
+            boolean changed = c < chunks && !(predecessors.sameChunk(previous.predecessors, c)
+                    && settledIds.sameChunk(previous.settledIds, c)
+                    && (startId == previous.startId
+                        || (startId >>> ChunkedIntArray.CHUNK_BITS != c
+                            && previous.startId >>> ChunkedIntArray.CHUNK_BITS != c)));
+            if (changed && fromChunk < 0) {
+                fromChunk = c;
+            } else if (!changed && fromChunk >= 0) {
+                // Report runs of consecutive changed chunks as single ranges
+                action.accept(fromChunk * ChunkedIntArray.CHUNK_SIZE,
+                        (int) Math.min(length, (long) c * ChunkedIntArray.CHUNK_SIZE));
+                fromChunk = -1;
+            }
+        }
     }
 
     /**
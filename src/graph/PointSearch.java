@@ -0,0 +1,296 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Finds shortest paths between pairs of vertices in a graph with vertices of type `VertexType` and
+ * edges of type `EdgeType`, by A* or bidirectional search.  Unlike a `ShortestPaths` solver, it
+ * keeps no frontier for incremental searches from a single start, only the state that
+ * point-to-point searches use, so an idle instance is cheap to keep for reuse.  Per-vertex state is
+ * reset between searches in time proportional to the number of storage chunks, not the number of
+ * vertices.  Not thread-safe; concurrent searches each need their own instance.
+ */
+public final class PointSearch<VertexType extends Vertex<EdgeType>, EdgeType extends Edge> {
+
+    /**
+     * The graph we are searching for paths in.
+     */
+    private final Graph<VertexType> graph;
+
+    /**
+     * Weigher to use in order to query edge weights in our graph.
+     */
+    private final Weigher<EdgeType> weigher;
+
+    /**
+     * Our graph and weigher, if they support primitive traversal (see `IntEdgeGraph` and
+     * `IntEdgeWeigher`), or null otherwise (in which case edges are enumerated as objects).
+     */
+    private final IntEdgeGraph<?> intGraph;
+    private final IntEdgeWeigher<?> intWeigher;
+
+    /**
+     * The kind of storage used for our per-vertex search state.
+     */
+    private final PathStoreType storeType;
+
+    /**
+     * For the current search (or the forward half of a bidirectional one): `distances[id]` is the
+     * weight of the shortest known path from the start to the vertex with ID `id` (or -1 if none is
+     * known), and `predecessors[id]` is the ID of the penultimate vertex along that path (or -1).
+     */
+    private final PathStore distances;
+    private final PathStore predecessors;
+
+    /**
+     * Queue used by (the forward half of) searches, which may be ordered by heuristic estimates.
+     * A radix heap is used because heuristic priorities may exceed the current minimum by more
+     * than any single edge weight.
+     */
+    private final IntMinQueue forward;
+
+    /**
+     * For the backward half of a bidirectional search: `reverseDistances[id]` is the weight of the
+     * shortest known path from the vertex with ID `id` to the goal (or -1 if none is known), and
+     * `successors[id]` is the ID of the next vertex along that path (or -1), ordered by
+     * `backward`.  Created when first needed; null until then.
+     */
+    private PathStore reverseDistances;
+    private PathStore successors;
+    private IntMinQueue backward;
+
+    /**
+     * Create a point-to-point searcher for the graph `graph` whose edge weights are determined by
+     * `weigher`, storing per-vertex state in stores of the default type for its size (see
+     * `PathStoreType.defaultFor()`).
+     */
+    public PointSearch(Graph<VertexType> graph, Weigher<EdgeType> weigher) {
+        this(graph, weigher, PathStoreType.defaultFor(graph.vertexCount()));
+    }
+
+    /**
+     * Create a point-to-point searcher for the graph `graph` whose edge weights are determined by
+     * `weigher`, storing per-vertex state in stores of type `storeType`.
+     */
+    public PointSearch(Graph<VertexType> graph, Weigher<EdgeType> weigher,
+            PathStoreType storeType) {
+        this.graph = graph;
+        this.weigher = weigher;
+        this.storeType = storeType;
+        if (graph instanceof IntEdgeGraph<?> g && weigher instanceof IntEdgeWeigher<?> w) {
+            intGraph = g;
+            intWeigher = w;
+        } else {
+            intGraph = null;
+            intWeigher = null;
+        }
+        distances = storeType.create(graph.vertexCount(), -1);
+        predecessors = storeType.create(graph.vertexCount(), -1);
+        forward = new RadixMinQueue(graph.vertexCount());
+    }
+
+    /**
+     * Return a shortest path from the vertex with ID `startId` to the vertex with ID `goalId` as a
+     * sequence of vertex IDs (inclusive), or null if the goal is unreachable.  Uses A* search
+     * guided by `heuristic`, which must be consistent (see `Heuristic`); with a good heuristic, far
+     * fewer vertices are visited than by a full search from `startId`.
+     */
+    public List<Integer> findPath(int startId, int goalId, Heuristic heuristic) {
+        distances.set(startId, 0);
+        forward.addOrUpdate(startId, heuristic.estimate(startId, goalId));
+
+        List<Integer> path = null;
+        while (!forward.isEmpty()) {
+            int u = forward.removeInt();
+            if (u == goalId) {
+                path = traceBack(goalId);
+                break;
+            }
+            int du = distances.get(u);
+            forEachWeightedEdge(u, (v, w) -> {
+                int newDistance = du + w;
+                int oldDistance = distances.get(v);
+                if (newDistance < oldDistance || oldDistance == -1) {
+                    distances.set(v, newDistance);
+                    predecessors.set(v, u);
+                    // A consistent heuristic keeps these priorities monotone.
+                    forward.addOrUpdate(v, newDistance + heuristic.estimate(v, goalId));
+                }
+            });
+        }
+        reset();
+        return path;
+    }
+
+    /**
+     * Return a shortest path from the vertex with ID `startId` to the vertex with ID `goalId` as a
+     * sequence of vertex IDs (inclusive), or null if the goal is unreachable.  Searches forwards
+     * from the start and backwards from the goal simultaneously, which visits roughly half as many
+     * vertices as a one-sided search when paths are short relative to the graph.  Throws
+     * UnsupportedOperationException unless our graph is a `BidirectionalGraph` and our weigher is
+     * an `IntEdgeWeigher`.
+     */
+    public List<Integer> findPathBidirectional(int startId, int goalId) {
+        if (!(graph instanceof BidirectionalGraph<?> biGraph) || intWeigher == null) {
+            throw new UnsupportedOperationException(
+                    "Bidirectional search requires a BidirectionalGraph and an IntEdgeWeigher");
+        }
+        if (startId == goalId) {
+            return List.of(startId);
+        }
+
+        if (reverseDistances == null) {
+            reverseDistances = storeType.create(graph.vertexCount(), -1);
+            successors = storeType.create(graph.vertexCount(), -1);
+            backward = new RadixMinQueue(graph.vertexCount());
+        }
+        distances.set(startId, 0);
+        forward.addOrUpdate(startId, 0);
+        reverseDistances.set(goalId, 0);
+        backward.addOrUpdate(goalId, 0);
+
+        // Relaxes the edges of the vertex settled by each step of either search, and tracks the
+        //  best path found so far, which connects the two search trees by a single edge.  One
+        //  instance serves every step, so settling a vertex allocates nothing.
+        class Step implements IntEdgeConsumer {
+            boolean forwardStep;
+            int fromId;
+            int fromDistance;
+
+            int distance = Integer.MAX_VALUE;
+            int from = -1;
+            int to = -1;
+
+            void offer(int fromId, int toId, int total) {
+                if (total < distance) {
+                    distance = total;
+                    from = fromId;
+                    to = toId;
+                }
+            }
+
+            @Override
+            public void accept(int v, int dir) {
+                if (forwardStep) {
+                    int w = intWeigher.weight(fromId, dir);
+                    int newDistance = fromDistance + w;
+                    int oldDistance = distances.get(v);
+                    if (newDistance < oldDistance || oldDistance == -1) {
+                        distances.set(v, newDistance);
+                        predecessors.set(v, fromId);
+                        forward.addOrUpdate(v, newDistance);
+                    }
+                    int dv = reverseDistances.get(v);
+                    if (dv >= 0) {
+                        offer(fromId, v, fromDistance + w + dv);
+                    }
+                } else {
+                    int w = intWeigher.weight(v, dir);
+                    int newDistance = fromDistance + w;
+                    int oldDistance = reverseDistances.get(v);
+                    if (newDistance < oldDistance || oldDistance == -1) {
+                        reverseDistances.set(v, newDistance);
+                        successors.set(v, fromId);
+                        backward.addOrUpdate(v, newDistance);
+                    }
+                    int dv = distances.get(v);
+                    if (dv >= 0) {
+                        offer(v, fromId, dv + w + fromDistance);
+                    }
+                }
+            }
+        }
+        Step best = new Step();
+
+        // Once the closest unsettled vertices on each side are together at least as far apart as
+        //  the best known path, no shorter path can exist.
+        while (!forward.isEmpty() && !backward.isEmpty()
+                && (long) forward.minPriority() + backward.minPriority() < best.distance) {
+            best.forwardStep = forward.minPriority() <= backward.minPriority();
+            if (best.forwardStep) {
+                best.fromId = forward.removeInt();
+                best.fromDistance = distances.get(best.fromId);
+                biGraph.forEachNeighbor(best.fromId, best);
+            } else {
+                best.fromId = backward.removeInt();
+                best.fromDistance = reverseDistances.get(best.fromId);
+                biGraph.forEachPredecessor(best.fromId, best);
+            }
+        }
+
+        List<Integer> path = null;
+        if (best.from >= 0) {
+            path = traceBack(best.from);
+            for (int id = best.to; id >= 0; id = successors.get(id)) {
+                path.add(id);
+            }
+        }
+        reset();
+        return path;
+    }
+
+    /**
+     * Free any storage held by this searcher outside of the Java heap (see `PathStoreType`), rather
+     * than waiting for it to be garbage collected.  The searcher remains usable.
+     */
+    public void release() {
+        distances.release();
+        predecessors.release();
+        if (reverseDistances != null) {
+            reverseDistances.release();
+            successors.release();
+        }
+    }
+
+    /**
+     * Clear the state of the last search, in preparation for the next one.
+     */
+    private void reset() {
+        distances.reset();
+        predecessors.reset();
+        forward.clear();
+        if (reverseDistances != null) {
+            reverseDistances.reset();
+            successors.reset();
+            backward.clear();
+        }
+    }
+
+    /**
+     * Return the sequence of vertex IDs along the shortest known path from the start to the vertex
+     * with ID `id`, following `predecessors`.
+     */
+    private List<Integer> traceBack(int id) {
+        List<Integer> path = new ArrayList<>();
+        for (int current = id; current >= 0; current = predecessors.get(current)) {
+            path.add(current);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Receives an edge as the ID of its destination and its weight.
+     */
+    @FunctionalInterface
+    private interface WeightedEdgeVisitor {
+        void visit(int toId, int weight);
+    }
+
+    /**
+     * Pass each edge leaving the vertex with ID `id` to `visitor`, using primitive traversal if our
+     * graph and weigher support it.
+     */
+    private void forEachWeightedEdge(int id, WeightedEdgeVisitor visitor) {
+        if (intGraph != null) {
+            intGraph.forEachNeighbor(id,
+                    (endId, dir) -> visitor.visit(endId, intWeigher.weight(id, dir)));
+        } else {
+            for (EdgeType edge : graph.getVertex(id).outgoingEdges()) {
+                visitor.visit(edge.endId(), weigher.weight(edge));
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A min priority queue of distinct `int` keys in `[0..capacity)` associated with integer
+ * priorities, implemented as a radix heap.  Like `BucketMinQueue`, it requires that priorities be
+ * monotone: no priority may be smaller than the most recently removed priority.  Unlike a bucket
+ * queue, it needs only 33 buckets regardless of how large priorities (or edge weights) are, so it
+ * remains compact when a `Weigher` produces large weights.
+ * <p>
+ * A key with priority `p` lives in bucket 0 if `p == last`, and otherwise in bucket
+ * `32 - numberOfLeadingZeros(p ^ last)` (one more than the index of the highest bit in which `p`
+ * differs from `last`), where `last` is the most recently removed priority.  Every priority in a
+ * bucket is smaller than every priority in a higher bucket, so the minimum is found by scanning only
+ * the lowest non-empty bucket and redistributing its keys into lower buckets.  Each key can move
+ * down at most 32 times, so removal takes amortized O(log C) time for priorities spanning `C`.
+ */
+public class RadixMinQueue implements IntMinQueue {
+
+    /**
+     * The number of buckets needed to hold any `int` priority relative to any `last`.
+     */
+    private static final int BUCKET_COUNT = 33;
+
+    /**
+     * Value of `prev[k]` when key `k` is not contained in this queue.
+     */
+    private static final int ABSENT = -2;
+
+    /**
+     * `heads[b]` is the first key in bucket `b`, or -1 if that bucket is empty.
+     */
+    private final int[] heads;
+
+    /**
+     * `next[k]` is the key following `k` in its bucket, or -1 if `k` is last.
+     */
+    private final int[] next;
+
+    /**
+     * `prev[k]` is the key preceding `k` in its bucket, -1 if `k` is first, or `ABSENT` if `k` is
+     * not contained in this queue.
+     */
+    private final int[] prev;
+
+    /**
+     * `priorities[k]` is the priority of key `k`.  Only meaningful if `k` is contained in this
+     * queue.
+     */
+    private final int[] priorities;
+
+    /**
+     * The most recently removed (or, after normalization, the current minimum) priority.  All
+     * priorities in this queue are at least `last`.  Starts at `Integer.MIN_VALUE`, which places
+     * no constraint on the first priorities added.
+     */
+    private int last;
+
+    /**
+     * The number of keys currently in this queue.
+     */
+    private int size;
+
+    /**
+     * Create an empty queue capable of holding the keys `[0..capacity)`.
+     */
+    public RadixMinQueue(int capacity) {
+        heads = new int[BUCKET_COUNT];
+        Arrays.fill(heads, -1);
+        next = new int[capacity];
+        prev = new int[capacity];
+        Arrays.fill(prev, ABSENT);
+        priorities = new int[capacity];
+        last = Integer.MIN_VALUE;
+        size = 0;
+    }
+
+    @Override
+    public int capacity() {
+        return prev.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getInt() {
+        normalize();
+        return heads[0];
+    }
+
+    @Override
+    public int minPriority() {
+        normalize();
+        return last;
+    }
+
+    /**
+     * If `key` is already contained in this queue, change its associated priority to `priority`.
+     * Otherwise, add it to this queue with that priority.  Throws IllegalArgumentException if
+     * `priority` is smaller than the most recently removed priority.
+     */
+    @Override
+    public void addOrUpdate(int key, int priority) {
+        assert key >= 0 && key < prev.length;
+        if (priority < last) {
+            throw new IllegalArgumentException("Priority " + priority
+                    + " is less than last removed priority " + last);
+        }
+        if (prev[key] != ABSENT) {
+            if (priorities[key] == priority) {
+                return;
+            }
+            unlink(key, bucketOf(priorities[key]));
+        } else {
+            size += 1;
+        }
+        priorities[key] = priority;
+        link(key, bucketOf(priority));
+    }
+
+    @Override
+    public int removeInt() {
+        normalize();
+        int min = heads[0];
+        unlink(min, 0);
+        prev[min] = ABSENT;
+        size -= 1;
+        return min;
+    }
+
+    /**
+     * Remove all elements from this queue (making it empty).  Takes time proportional to the
+     * number of elements removed, not to the capacity.
+     */
+    @Override
+    public void clear() {
+        for (int b = 0; b < heads.length; ++b) {
+            for (int k = heads[b]; k >= 0; k = next[k]) {
+                prev[k] = ABSENT;
+            }
+            heads[b] = -1;
+        }
+        size = 0;
+        last = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Return the bucket that a key with priority `priority` belongs in, given the current value of
+     * `last`.  Requires `priority >= last`.
+     */
+    private int bucketOf(int priority) {
+        return (priority == last) ? 0 : 32 - Integer.numberOfLeadingZeros(priority ^ last);
+    }
+
+    /**
+     * Ensure that bucket 0 is non-empty by advancing `last` to the smallest priority in this queue
+     * and redistributing the keys of the lowest non-empty bucket.  Throws NoSuchElementException if
+     * this queue is empty.
+     */
+    private void normalize() {
+        if (size == 0) {
+            throw new NoSuchElementException("Empty radix heap");
+        }
+        if (heads[0] >= 0) {
+            return;
+        }
+        int b = 1;
+        while (heads[b] < 0) {
+            b += 1;
+        }
+
+        // Find the new minimum within the lowest non-empty bucket
+        int min = Integer.MAX_VALUE;
+        for (int k = heads[b]; k >= 0; k = next[k]) {
+            min = Math.min(min, priorities[k]);
+        }
+        last = min;
+
+        // Every key in bucket `b` now belongs in a lower bucket; keys in higher buckets share
+        //  their high bits with both the old and new `last`, so they stay put.
+        int k = heads[b];
+        heads[b] = -1;
+        while (k >= 0) {
+            int n = next[k];
+            link(k, bucketOf(priorities[k]));
+            k = n;
+        }
+    }
+
+    /**
+     * Insert `key` at the front of bucket `b`.
+     */
+    private void link(int key, int b) {
+        next[key] = heads[b];
+        prev[key] = -1;
+        if (heads[b] >= 0) {
+            prev[heads[b]] = key;
+        }
+        heads[b] = key;
+    }
+
+    /**
+     * Remove `key` from bucket `b`'s list (without updating `size` or marking it absent).
+     * Requires `key` is in bucket `b`.
+     */
+    private void unlink(int key, int b) {
+        int p = prev[key];
+        int n = next[key];
+        if (p >= 0) {
+            next[p] = n;
+        } else {
+            heads[b] = n;
+        }
+        if (n >= 0) {
+            prev[n] = p;
+        }
+    }
+}
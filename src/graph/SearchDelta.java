@@ -0,0 +1,24 @@
+package graph;
+
+/**
+ * The progress made by a `ShortestPathSolver` between two calls to `takeDelta()`: the IDs of the
+ * vertices it settled and of the vertices it discovered (found a first path to) in that time.  A
+ * vertex may appear in both arrays if it was discovered and settled in the same interval.  Much
+ * smaller than a `PathfindingSnapshot` for a short interval, so suitable for reporting progress to
+ * another thread frequently.
+ * <p>
+ * The arrays are owned by the delta and must not be modified.
+ *
+ * @param startId the ID of the starting vertex of the search that made this progress
+ * @param settledIds the IDs of the newly settled vertices, in the order they were settled
+ * @param discoveredIds the IDs of the newly discovered vertices, in the order they were discovered
+ */
+public record SearchDelta(int startId, int[] settledIds, int[] discoveredIds) {
+
+    /**
+     * Return whether this delta records no progress.
+     */
+    public boolean isEmpty() {
+        return settledIds.length == 0 && discoveredIds.length == 0;
+    }
+}
@@ -0,0 +1,306 @@
+package graph;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Process-wide counters describing the work done by `ShortestPaths` searches: vertices settled,
+ * edges relaxed, decrease-key operations, the largest frontier, estimated time spent weighing
+ * edges versus operating on the frontier, and bytes copied to keep snapshots unchanged.
+ * <p>
+ * Each solver counts into its own `Tally` with plain arithmetic and adds it to these counters once
+ * per batch (`advance()` or `extendSearchUntil()`), so the hot loop never touches shared state.
+ * Timings are sampled: only one settled vertex in `SAMPLE_INTERVAL` has its frontier and weigher
+ * operations timed, and the totals are scaled up accordingly.  While disabled, tallies are
+ * discarded and no clocks are read.
+ * <p>
+ * The counters are published as the MXBean `smarttrace:type=SearchMetrics` (see
+ * `SearchMetricsMXBean`) and, while a flight recording enables it, as the periodic JFR event
+ * `smarttrace.SearchMetrics`.  Collection is enabled unless the system property
+ * `smarttrace.metrics` is `false`.
+ */
+public final class SearchMetrics {
+
+    /**
+     * The frontier and weigher operations of one settled vertex in this many are timed.  Must be a
+     * power of two.
+     */
+    static final int SAMPLE_INTERVAL = 64;
+
+    /**
+     * The name under which our MXBean is registered.
+     */
+    public static final String OBJECT_NAME = "smarttrace:type=SearchMetrics";
+
+    private static volatile boolean enabled =
+            Boolean.parseBoolean(System.getProperty("smarttrace.metrics", "true"));
+
+    private static final LongAdder searches = new LongAdder();
+    private static final LongAdder settled = new LongAdder();
+    private static final LongAdder edgesRelaxed = new LongAdder();
+    private static final LongAdder decreaseKeys = new LongAdder();
+    private static final LongAccumulator frontierHighWater = new LongAccumulator(Math::max, 0);
+    private static final LongAdder weigherNanos = new LongAdder();
+    private static final LongAdder frontierNanos = new LongAdder();
+    private static final LongAdder snapshotBytes = new LongAdder();
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+        } catch (JMException | SecurityException e) {
+            // Another copy of this class (in a different class loader) has registered already, or
+            //  we may not register; the counters are still available from this class.
+        }
+        FlightRecorder.addPeriodicEvent(SearchMetricsEvent.class, SearchMetrics::emitEvent);
+    }
+
+    private SearchMetrics() {
+    }
+
+    /**
+     * Return whether solvers are currently adding to these counters.
+     */
+    public static boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Start or stop adding solvers' work to these counters.  Batches already running may still add
+     * theirs after collection is disabled.
+     */
+    public static void setEnabled(boolean enable) {
+        enabled = enable;
+    }
+
+    /**
+     * Set every counter back to zero.
+     */
+    public static void reset() {
+        searches.reset();
+        settled.reset();
+        edgesRelaxed.reset();
+        decreaseKeys.reset();
+        frontierHighWater.reset();
+        weigherNanos.reset();
+        frontierNanos.reset();
+        snapshotBytes.reset();
+    }
+
+    /**
+     * Return the number of searches started (by setting a starting vertex).
+     */
+    public static long searches() {
+        return searches.sum();
+    }
+
+    /**
+     * Return the number of vertices settled.
+     */
+    public static long settled() {
+        return settled.sum();
+    }
+
+    /**
+     * Return the number of edges relaxed (every edge leaving a settled vertex counts, whether or
+     * not it improved a path).
+     */
+    public static long edgesRelaxed() {
+        return edgesRelaxed.sum();
+    }
+
+    /**
+     * Return the number of times a vertex already on the frontier had its priority lowered.
+     */
+    public static long decreaseKeys() {
+        return decreaseKeys.sum();
+    }
+
+    /**
+     * Return the largest number of vertices any search has held on its frontier at once.
+     */
+    public static long frontierHighWater() {
+        return frontierHighWater.get();
+    }
+
+    /**
+     * Return the estimated time spent computing edge weights, in nanoseconds.
+     */
+    public static long weigherNanos() {
+        return weigherNanos.sum();
+    }
+
+    /**
+     * Return the estimated time spent adding, updating, and removing frontier vertices, in
+     * nanoseconds.
+     */
+    public static long frontierNanos() {
+        return frontierNanos.sum();
+    }
+
+    /**
+     * Return the number of bytes copied to keep snapshots unchanged as their solvers continued.
+     */
+    public static long snapshotBytes() {
+        return snapshotBytes.sum();
+    }
+
+    /**
+     * Record that a search has started, if enabled.
+     */
+    static void searchStarted() {
+        if (enabled) {
+            searches.increment();
+        }
+    }
+
+    /**
+     * Commit a `SearchMetricsEvent` holding the current counters.
+     */
+    private static void emitEvent() {
+        SearchMetricsEvent event = new SearchMetricsEvent();
+        event.searches = searches();
+        event.settled = settled();
+        event.edgesRelaxed = edgesRelaxed();
+        event.decreaseKeys = decreaseKeys();
+        event.frontierHighWater = frontierHighWater();
+        event.weigherNanos = weigherNanos();
+        event.frontierNanos = frontierNanos();
+        event.snapshotBytes = snapshotBytes();
+        event.commit();
+    }
+
+    /**
+     * The work done by one solver since its last `flush()`.  Only accessed by the thread running
+     * that solver's batches, so its fields are updated with plain arithmetic.
+     */
+    static final class Tally {
+
+        /**
+         * Whether this tally's batch should be counted, as of the batch's start.
+         */
+        boolean enabled;
+
+        /**
+         * Whether the vertex currently being settled is a timing sample.
+         */
+        boolean timing;
+
+        long settled;
+        long edgesRelaxed;
+        long decreaseKeys;
+        int frontierHighWater;
+        long sampledWeigherNanos;
+        long sampledFrontierNanos;
+
+        /**
+         * The copied-byte total of the owning solver's stores at the last flush.
+         */
+        long copiedBytes;
+
+        /**
+         * Prepare to count a new batch, picking up the current enabled state.
+         */
+        void begin() {
+            enabled = SearchMetrics.enabled;
+        }
+
+        /**
+         * Return whether the vertex about to be settled, which will be the `settledCount+1`th of
+         * its search, should be timed.
+         */
+        boolean sample(int settledCount) {
+            timing = enabled && (settledCount & (SAMPLE_INTERVAL - 1)) == 0;
+            return timing;
+        }
+
+        /**
+         * Add this batch's work to the process-wide counters (if it was counted), given that the
+         * owning solver's stores have copied `copiedBytes` bytes in total, and start over.
+         */
+        void flush(long copiedBytes) {
+            if (enabled) {
+                SearchMetrics.settled.add(settled);
+                SearchMetrics.edgesRelaxed.add(edgesRelaxed);
+                SearchMetrics.decreaseKeys.add(decreaseKeys);
+                SearchMetrics.frontierHighWater.accumulate(frontierHighWater);
+                weigherNanos.add(sampledWeigherNanos * SAMPLE_INTERVAL);
+                frontierNanos.add(sampledFrontierNanos * SAMPLE_INTERVAL);
+                snapshotBytes.add(copiedBytes - this.copiedBytes);
+            }
+            this.copiedBytes = copiedBytes;
+            settled = 0;
+            edgesRelaxed = 0;
+            decreaseKeys = 0;
+            frontierHighWater = 0;
+            sampledWeigherNanos = 0;
+            sampledFrontierNanos = 0;
+            timing = false;
+        }
+    }
+
+    /**
+     * Exposes the counters over JMX.
+     */
+    private static final class Bean implements SearchMetricsMXBean {
+
+        @Override
+        public boolean isEnabled() {
+            return enabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            SearchMetrics.setEnabled(enabled);
+        }
+
+        @Override
+        public long getSearches() {
+            return searches();
+        }
+
+        @Override
+        public long getSettled() {
+            return settled();
+        }
+
+        @Override
+        public long getEdgesRelaxed() {
+            return edgesRelaxed();
+        }
+
+        @Override
+        public long getDecreaseKeys() {
+            return decreaseKeys();
+        }
+
+        @Override
+        public long getFrontierHighWater() {
+            return frontierHighWater();
+        }
+
+        @Override
+        public long getWeigherNanos() {
+            return weigherNanos();
+        }
+
+        @Override
+        public long getFrontierNanos() {
+            return frontierNanos();
+        }
+
+        @Override
+        public long getSnapshotBytes() {
+            return snapshotBytes();
+        }
+
+        @Override
+        public void reset() {
+            SearchMetrics.reset();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package graph;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.Timespan;
+
+/**
+ * A periodic flight-recorder event holding the running totals of `SearchMetrics`.  Emitted once
+ * per second while a recording has it enabled, and never otherwise.
+ */
+@Name("smarttrace.SearchMetrics")
+@Label("Search Metrics")
+@Category({"SmartTrace", "Pathfinding"})
+@Description("Running totals of the work done by shortest-path searches")
+@Period("1 s")
+class SearchMetricsEvent extends Event {
+
+    @Label("Searches")
+    long searches;
+
+    @Label("Vertices Settled")
+    long settled;
+
+    @Label("Edges Relaxed")
+    long edgesRelaxed;
+
+    @Label("Decrease-Key Operations")
+    long decreaseKeys;
+
+    @Label("Frontier High-Water Mark")
+    long frontierHighWater;
+
+    @Label("Weigher Time")
+    @Timespan
+    long weigherNanos;
+
+    @Label("Frontier Time")
+    @Timespan
+    long frontierNanos;
+
+    @Label("Snapshot Bytes Copied")
+    @DataAmount
+    long snapshotBytes;
+}
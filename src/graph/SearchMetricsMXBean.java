@@ -0,0 +1,63 @@
+package graph;
+
+/**
+ * The management interface of `SearchMetrics`, registered as `smarttrace:type=SearchMetrics`.
+ * Attributes are running totals since the process started or since the last `reset()`.
+ */
+public interface SearchMetricsMXBean {
+
+    /**
+     * Return whether solvers are currently adding to the counters.
+     */
+    boolean isEnabled();
+
+    /**
+     * Start or stop adding solvers' work to the counters.
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Return the number of searches started.
+     */
+    long getSearches();
+
+    /**
+     * Return the number of vertices settled.
+     */
+    long getSettled();
+
+    /**
+     * Return the number of edges relaxed.
+     */
+    long getEdgesRelaxed();
+
+    /**
+     * Return the number of decrease-key operations on frontiers.
+     */
+    long getDecreaseKeys();
+
+    /**
+     * Return the largest number of vertices held on any search's frontier at once.
+     */
+    long getFrontierHighWater();
+
+    /**
+     * Return the estimated time spent weighing edges, in nanoseconds.
+     */
+    long getWeigherNanos();
+
+    /**
+     * Return the estimated time spent on frontier operations, in nanoseconds.
+     */
+    long getFrontierNanos();
+
+    /**
+     * Return the number of bytes copied to keep snapshots unchanged.
+     */
+    long getSnapshotBytes();
+
+    /**
+     * Set every counter back to zero.
+     */
+    void reset();
+}
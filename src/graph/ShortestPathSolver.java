@@ -0,0 +1,104 @@
+package graph;
+
+/**
+ * Incrementally solves for shortest paths from a starting vertex to all other vertices in a graph.
+ * Implemented by the sequential `ShortestPaths` and by the multithreaded `ParallelShortestPaths`,
+ * which find the same distances (though paths may differ where several are equally short).
+ * Instances are not thread-safe; each should be used by one thread at a time.
+ */
+public interface ShortestPathSolver {
+
+    /**
+     * Return the total number of vertices in the graph we are finding shortest paths in.
+     */
+    int vertexCount();
+
+    /**
+     * Return the number of vertices for which the final shortest paths from the current starting
+     * point are known.
+     */
+    int settledCount();
+
+    /**
+     * Return whether shortest paths have been found for all vertices reachable from the current
+     * starting point.  Returns false if no starting point has been set.
+     */
+    boolean allPathsFound();
+
+    /**
+     * Change our starting point to `start`, discarding any pathfinding results from any previous
+     * starting point.
+     */
+    void setStart(int startId);
+
+    /**
+     * Find the shortest paths from our current starting point to (about) the next `maxToSettle`
+     * closest vertices for which shortest paths are not yet known, without creating a snapshot of
+     * the results.  See the implementing class for how strictly `maxToSettle` is observed.
+     * Requires `maxToSettle` is non-negative and that a starting vertex has been set.
+     */
+    void advance(int maxToSettle);
+
+    /**
+     * Find the shortest paths from our current starting point to (about) the next `maxToSettle`
+     * closest vertices for which shortest paths are not yet known, returning an object from which
+     * those paths can be queried.  Equivalent to `advance()` followed by `snapshot()`.  Requires
+     * `maxToSettle` is non-negative and that a starting vertex has been set.
+     */
+    default PathfindingSnapshot extendSearch(int maxToSettle) {
+        advance(maxToSettle);
+        return snapshot();
+    }
+
+    /**
+     * Continue the search from our current starting point until the shortest path to the vertex
+     * with ID `id` is known (or until all reachable vertices are settled, if `id` is unreachable).
+     * Requires that a starting vertex has been set.
+     */
+    PathfindingSnapshot extendSearchUntil(int id);
+
+    /**
+     * Return whether the shortest path from our current starting point to the vertex with ID `id`
+     * is known.
+     */
+    boolean settled(int id);
+
+    /**
+     * Return a snapshot of our current pathfinding results.  Only the storage chunks changed since
+     * the previous snapshot will be copied (when they are next written to).  Requires that a
+     * starting vertex has been set.
+     */
+    PathfindingSnapshot snapshot();
+
+    /**
+     * Start (if `record` is true) or stop recording which vertices are settled and discovered, to
+     * be reported by `takeDelta()`.  Recording is off for new solvers; stopping it discards any
+     * progress not yet taken.
+     */
+    void recordDeltas(boolean record);
+
+    /**
+     * Return the vertices settled and discovered since the previous call to this method, or since
+     * our starting point was last set (which counts the starting vertex as discovered).  Requires
+     * that deltas are being recorded and that a starting vertex has been set.
+     */
+    SearchDelta takeDelta();
+
+    /**
+     * Free any storage held by this solver outside of the Java heap, rather than waiting for it to
+     * be garbage collected.  This discards our pathfinding results, and snapshots we have returned
+     * must not be queried afterwards.  A new start must be set before extending a search again.
+     */
+    void release();
+
+    /**
+     * Find the shortest paths from `start` to every vertex in our graph reachable from `start`,
+     * returning an object from which those paths can be queried.
+     */
+    default PathfindingSnapshot findAllPaths(int startId) {
+        setStart(startId);
+        PathfindingSnapshot paths = extendSearch(vertexCount());
+        assert allPathsFound();
+        return paths;
+    }
+}
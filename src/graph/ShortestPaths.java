@@ -1,14 +1,14 @@
 package graph;
 
-import java.util.Arrays;
-import java.util.BitSet;
+import java.util.List;
 
 /**
  * Supports incrementally solving for shortest paths from a starting vertex in a graph with vertices
  * of type `VertexType` and edges of type `EdgeType`.  Can provide preliminary pathfinding results
  * and report progress towards a full solution.
  */
-public class  ShortestPaths<VertexType extends Vertex<EdgeType>, EdgeType extends Edge> {
+public class  ShortestPaths<VertexType extends Vertex<EdgeType>, EdgeType extends Edge>
+        implements ShortestPathSolver {
 
     /**
      * The graph we are searching for paths in.
@@ -20,6 +20,12 @@ public class  ShortestPaths<VertexType extends Vertex<EdgeType>, EdgeType extend
      */
     private final Weigher<EdgeType> weigher;
 
+    /**
+     * Relaxes edges reported by `IntEdgeGraph.forEachNeighbor()`, or null if our graph and weigher
+     * do not support primitive traversal (in which case edges are enumerated as objects).
+     */
+    private final Relaxer relaxer;
+
     /**
      * The ID of the starting vertex for our current search, or -1 if no starting vertex has yet
      * been selected.
@@ -28,70 +34,163 @@ public class  ShortestPaths<VertexType extends Vertex<EdgeType>, EdgeType extend
 
     /**
      * `distances[id]` is the weight of the shortest known path from our starting vertex to the
-     * vertex with ID `id`, or -1 if no such path is currently known.
+     * vertex with ID `id`, or -1 if no such path is currently known.  Stored in copy-on-write
+     * chunks so that snapshots of our progress need not copy the whole array.
      */
-    private final int[] distances;
+    private final PathStore distances;
 
     /**
      * `predecessors[id]` is the ID of the penultimate vertex along the shortest known path from our
      * starting vertex to the vertex with ID `id`, or -1 if `id==startId` or if no such path is
      * currently known.
      */
-    private final int[] predecessors;
+    private final PathStore predecessors;
 
     /**
      * Queue of vertex IDs currently known to be reachable from the starting vertex but for whom the
      * shortest possible path has not yet been determined.  Ordered by weight of the shortest known
-     * path from the starting vertex.
+     * path from the starting vertex.  Uses a primitive queue so that relaxing an edge neither boxes
+     * the vertex ID nor allocates.
      */
-    private final MinQueue<Integer> frontier;
+    private final IntMinQueue frontier;
 
     /**
      * `settledIds.get(id)` is true if the shortest path has been determined from our starting
      * vertex to the vertex with ID `id`.
      */
-    private final BitSet settledIds;
+    private final ChunkedBitSet settledIds;
+
+    /**
+     * The number of vertices whose IDs are in `settledIds`.
+     */
+    private int settledCount;
+
+    /**
+     * The IDs of the vertices settled and discovered since the last call to `takeDelta()`, or
+     * null if deltas are not being recorded.
+     */
+    private IntList deltaSettled;
+    private IntList deltaDiscovered;
+
+    /**
+     * Runs our point-to-point searches (see `findPath()`), which need none of our own search
+     * state.  Created when first needed; null until then.
+     */
+    private PointSearch<VertexType, EdgeType> pointSearch;
+
+    /**
+     * The kind of storage used for our per-vertex search state.
+     */
+    private final PathStoreType storeType;
+
+    /**
+     * The work done by the current batch, added to `SearchMetrics` when the batch ends.
+     */
+    private final SearchMetrics.Tally tally = new SearchMetrics.Tally();
 
     /**
      * Create a new shortest paths solver for the graph `graph` whose edge weights are determined by
-     * `weigher`.
+     * `weigher`.  The frontier type is chosen by `FrontierType.defaultFor(weigher)`.
      */
     public ShortestPaths(Graph<VertexType> graph, Weigher<EdgeType> weigher) {
+        this(graph, weigher, FrontierType.defaultFor(weigher));
+    }
+
+    /**
+     * Create a new shortest paths solver for the graph `graph` whose edge weights are determined by
+     * `weigher`, using a frontier queue of type `frontierType`.  Throws IllegalArgumentException if
+     * `frontierType` is incompatible with `weigher` (see `FrontierType.create()`).
+     */
+    public ShortestPaths(Graph<VertexType> graph, Weigher<EdgeType> weigher,
+            FrontierType frontierType) {
+        this(graph, weigher, frontierType, PathStoreType.defaultFor(graph.vertexCount()));
+    }
+
+    /**
+     * Create a new shortest paths solver for the graph `graph` whose edge weights are determined by
+     * `weigher`, using a frontier queue of type `frontierType` and storing distances and
+     * predecessors in stores of type `storeType`.  Throws IllegalArgumentException if
+     * `frontierType` is incompatible with `weigher` (see `FrontierType.create()`).
+     */
+    public ShortestPaths(Graph<VertexType> graph, Weigher<EdgeType> weigher,
+            FrontierType frontierType, PathStoreType storeType) {
+        this(graph, weigher, frontierType.create(graph.vertexCount(), weigher), storeType);
+    }
+
+    /**
+     * Create a new shortest paths solver for the graph `graph` whose edge weights are determined by
+     * `weigher`, using `frontier` as its frontier queue and storing distances and predecessors in
+     * stores of type `storeType`.  Lets benchmarks observe the operations a search performs on its
+     * queue.  Requires `frontier` is empty, is not used by anything else, and has a capacity of at
+     * least `graph.vertexCount()`.
+     */
+    ShortestPaths(Graph<VertexType> graph, Weigher<EdgeType> weigher, IntMinQueue frontier,
+            PathStoreType storeType) {
+        assert frontier.isEmpty() && frontier.capacity() >= graph.vertexCount();
         this.graph = graph;
         this.weigher = weigher;
-        distances = new int[graph.vertexCount()];
-        predecessors = new int[graph.vertexCount()];
-        settledIds = new BitSet(graph.vertexCount());
-
-        // TODO A6.3f: Replace this with a `HeapMinQueue` after implementing and testing the latter.
-        frontier = new RefMinQueue<>();
+        this.storeType = storeType;
+        distances = storeType.create(graph.vertexCount(), -1);
+        predecessors = storeType.create(graph.vertexCount(), -1);
+        settledIds = new ChunkedBitSet(graph.vertexCount());
+        this.frontier = frontier;
+        if (graph instanceof IntEdgeGraph<?> intGraph
+                && weigher instanceof IntEdgeWeigher<?> intWeigher) {
+            relaxer = new Relaxer(intGraph, intWeigher);
+        } else {
+            relaxer = null;
+        }
 
         reset();
     }
 
     /**
      * Clear any intermediate pathfinding results in preparation for finding paths from a new
-     * starting point.
+     * starting point.  Takes time proportional to the size of the frontier plus the number of
+     * storage chunks, not the number of vertices.
      */
     private void reset() {
-        Arrays.fill(distances, -1);
-        Arrays.fill(predecessors, -1);
+        distances.reset();
+        predecessors.reset();
         frontier.clear();
-        settledIds.clear();
+        settledIds.reset();
+        settledCount = 0;
         startId = -1;
+        if (deltaSettled != null) {
+            deltaSettled.clear();
+            deltaDiscovered.clear();
+        }
+    }
+
+    /**
+     * Free any storage held by this solver outside of the Java heap (see `PathStoreType`), rather
+     * than waiting for it to be garbage collected.  This discards our pathfinding results, and
+     * snapshots we have returned must not be queried afterwards.  A new start must be set before
+     * extending a search again.
+     */
+    @Override
+    public void release() {
+        distances.release();
+        predecessors.release();
+        if (pointSearch != null) {
+            pointSearch.release();
+        }
+        reset();
     }
 
     /**
      * Return the number of vertices for which the final shortest paths from the current starting
      * point are known.
      */
+    @Override
     public int settledCount() {
-        return settledIds.cardinality();
+        return settledCount;
     }
 
     /**
      * Return the total number of vertices in the graph we are finding shortest paths in.
      */
+    @Override
     public int vertexCount() {
         return graph.vertexCount();
     }
@@ -100,6 +199,7 @@ public class  ShortestPaths<VertexType extends Vertex<EdgeType>, EdgeType extend
      * Return whether shortest paths have been found for all vertices reachable from the current
      * starting point.  Returns false if no starting point has been set.
      */
+    @Override
     public boolean allPathsFound() {
         // The second condition is needed in case we were just constructed and have no starting
         //  point.
@@ -110,29 +210,23 @@ public class  ShortestPaths<VertexType extends Vertex<EdgeType>, EdgeType extend
      * Change our starting point to `start`, discarding any pathfinding results from any previous
      * starting point.
      */
+    @Override
     public void setStart(int startId) {
         reset();
         this.startId = startId;
-        distances[startId] = 0;
+        distances.set(startId, 0);
         frontier.addOrUpdate(startId, 0);
-    }
-
-    /**
-     * Find the shortest paths from `start` to every vertex in our graph reachable from `start`,
-     * returning an object from which those paths can be queried.
-     */
-    public PathfindingSnapshot findAllPaths(int startId) {
-        setStart(startId);
-        PathfindingSnapshot paths = extendSearch(vertexCount());
-        assert allPathsFound();
-        return paths;
+        if (deltaDiscovered != null) {
+            deltaDiscovered.add(startId);
+        }
+        SearchMetrics.searchStarted();
     }
 
     /**
      * Find the shortest paths from our current starting point to the next `maxToSettle` closest
-     * vertices for which shortest paths are not yet known.  Results can be queried from the
-     * returned object, which will also provide candidate paths to farther "frontier" vertices found
-     * during the pathfinding process.
+     * vertices for which shortest paths are not yet known.  Results can be queried from a
+     * subsequent `snapshot()`, which will also provide candidate paths to farther "frontier"
+     * vertices found during the pathfinding process.
      * <p>
      * If fewer than `maxToSettle` reachable vertices do not have the shortest paths to them known,
      * then this method returns when shortest paths have been found for all reachable vertices in
@@ -140,39 +234,232 @@ public class  ShortestPaths<VertexType extends Vertex<EdgeType>, EdgeType extend
      * have its shortest path found first.  Requires `maxToSettle` is non-negative and that a
      * starting vertex has been set.
      */
-    public PathfindingSnapshot extendSearch(int maxToSettle) {
+    @Override
+    public void advance(int maxToSettle) {
         assert startId >= 0;
 
         // TODO A6.1a: Implement this method as specified using Dijkstra's algorithm (but settling
         //  no more than `maxToSettle` new vertices).  Make effective use of this class's fields,
         //  preserving their invariants.
-        //  Note that the constructor parameters for the return type correlate closely with this
-        //  class's fields (and the constructor guarantees copies are made, so you don't need to
-        //  worry about "rep exposure" when sharing them).
 
-        int settledCount = 0;
+        tally.begin();
         int settledVertices = 0;
+        while (settledVertices < maxToSettle && settleNext()) {
+            settledVertices++;
+        }
+        flushMetrics();
+    }
+
+    /**
+     * Continue the search from our current starting point until the shortest path to the vertex
+     * with ID `id` is known (or until all reachable vertices are settled, if `id` is unreachable).
+     * Results are identical to those of a search that settled every vertex.  Requires that a
+     * starting vertex has been set.
+     */
+    @Override
+    public PathfindingSnapshot extendSearchUntil(int id) {
+        assert startId >= 0;
+        tally.begin();
+        while (!settledIds.get(id) && settleNext()) {
+            // Keep settling
+        }
+        PathfindingSnapshot snapshot = snapshot();
+        flushMetrics();
+        return snapshot;
+    }
 
-        while (!frontier.isEmpty() && settledVertices < maxToSettle) {
-            int currentVertexId = frontier.remove();
+    /**
+     * Add the work done by the batch that just ended to `SearchMetrics`.
+     */
+    private void flushMetrics() {
+        tally.flush(distances.copiedBytes() + predecessors.copiedBytes()
+                + settledIds.copiedBytes());
+    }
+
+    /**
+     * Return whether the shortest path from our current starting point to the vertex with ID `id`
+     * is known.
+     */
+    @Override
+    public boolean settled(int id) {
+        return settledIds.get(id);
+    }
+
+    @Override
+    public void recordDeltas(boolean record) {
+        if (!record) {
+            deltaSettled = null;
+            deltaDiscovered = null;
+        } else if (deltaSettled == null) {
+            deltaSettled = new IntList();
+            deltaDiscovered = new IntList();
+        }
+    }
+
+    @Override
+    public SearchDelta takeDelta() {
+        assert deltaSettled != null && startId >= 0;
+        SearchDelta delta = new SearchDelta(startId, deltaSettled.copyFrom(0),
+                deltaDiscovered.copyFrom(0));
+        deltaSettled.clear();
+        deltaDiscovered.clear();
+        return delta;
+    }
+
+    /**
+     * Settle the closest unsettled vertex on the frontier and relax its outgoing edges.  Returns
+     * false (settling nothing) if the frontier is empty.
+     */
+    private boolean settleNext() {
+        while (!frontier.isEmpty()) {
+            // A sample of vertices have their frontier and weigher operations timed (see
+            //  `SearchMetrics`); the others pay only for a few field updates.
+            int currentVertexId;
+            if (tally.sample(settledCount)) {
+                long start = System.nanoTime();
+                currentVertexId = frontier.removeInt();
+                tally.sampledFrontierNanos += System.nanoTime() - start;
+            } else {
+                currentVertexId = frontier.removeInt();
+            }
             if (!settledIds.get(currentVertexId)) {
                 settledIds.set(currentVertexId);
-                settledVertices++;
-                VertexType currentVertex = graph.getVertex(currentVertexId);
-                for (EdgeType edge : currentVertex.outgoingEdges()) {
-                    int neighborId = edge.endId();
-                    int edgeWeight = weigher.weight(edge);
-                    int newDistance = distances[currentVertexId] + edgeWeight;
-
-                    if (newDistance < distances[neighborId] || distances[neighborId] == -1) {
-                        distances[neighborId] = newDistance;
-                        predecessors[neighborId] = currentVertexId;
-                        frontier.addOrUpdate(neighborId, newDistance);
+                settledCount++;
+                tally.settled++;
+                if (deltaSettled != null) {
+                    deltaSettled.add(currentVertexId);
+                }
+                if (relaxer != null) {
+                    relaxer.relaxFrom(currentVertexId);
+                } else {
+                    VertexType currentVertex = graph.getVertex(currentVertexId);
+                    for (EdgeType edge : currentVertex.outgoingEdges()) {
+                        relax(currentVertexId, edge.endId(), weigh(edge));
                     }
                 }
+                return true;
             }
         }
-        return new PathfindingSnapshot(startId, distances, predecessors, settledIds);
+        return false;
+    }
+
+    @Override
+    public PathfindingSnapshot snapshot() {
+        return new PathfindingSnapshot(startId, distances.snapshot(), predecessors.snapshot(),
+                settledIds.snapshot());
+    }
+
+    /**
+     * Return a shortest path from the vertex with ID `startId` to the vertex with ID `goalId` as a
+     * sequence of vertex IDs (inclusive), or null if the goal is unreachable, found by A* search
+     * guided by `heuristic` (see `PointSearch.findPath()`).  Leaves our own search untouched.
+     */
+    public List<Integer> findPath(int startId, int goalId, Heuristic heuristic) {
+        return pointSearch().findPath(startId, goalId, heuristic);
     }
 
+    /**
+     * Return a shortest path from the vertex with ID `startId` to the vertex with ID `goalId` as a
+     * sequence of vertex IDs (inclusive), or null if the goal is unreachable, found by searching
+     * from both ends at once (see `PointSearch.findPathBidirectional()`).  Throws
+     * UnsupportedOperationException unless our graph is a `BidirectionalGraph` and our weigher is
+     * an `IntEdgeWeigher`.  Leaves our own search untouched.
+     */
+    public List<Integer> findPathBidirectional(int startId, int goalId) {
+        return pointSearch().findPathBidirectional(startId, goalId);
+    }
+
+    /**
+     * Return the searcher for our point-to-point searches, creating it if necessary.
+     */
+    private PointSearch<VertexType, EdgeType> pointSearch() {
+        if (pointSearch == null) {
+            pointSearch = new PointSearch<>(graph, weigher, storeType);
+        }
+        return pointSearch;
+    }
+
+    /**
+     * If going through the settled vertex with ID `fromId` along an edge of weight `edgeWeight`
+     * gives a shorter path to the vertex with ID `toId` than previously known, record it and update
+     * the frontier.
+     */
+    private void relax(int fromId, int toId, int edgeWeight) {
+        tally.edgesRelaxed++;
+        int newDistance = distances.get(fromId) + edgeWeight;
+        int oldDistance = distances.get(toId);
+        if (newDistance < oldDistance || oldDistance == -1) {
+            if (oldDistance == -1 && deltaDiscovered != null) {
+                deltaDiscovered.add(toId);
+            }
+            distances.set(toId, newDistance);
+            predecessors.set(toId, fromId);
+            if (tally.timing) {
+                long start = System.nanoTime();
+                frontier.addOrUpdate(toId, newDistance);
+                tally.sampledFrontierNanos += System.nanoTime() - start;
+            } else {
+                frontier.addOrUpdate(toId, newDistance);
+            }
+            if (oldDistance == -1) {
+                tally.frontierHighWater = Math.max(tally.frontierHighWater, frontier.size());
+            } else {
+                tally.decreaseKeys++;
+            }
+        }
+    }
+
+    /**
+     * Return the weight of `edge`, timing the weigher if the vertex being settled is a timing
+     * sample.
+     */
+    private int weigh(EdgeType edge) {
+        if (!tally.timing) {
+            return weigher.weight(edge);
+        }
+        long start = System.nanoTime();
+        int weight = weigher.weight(edge);
+        tally.sampledWeigherNanos += System.nanoTime() - start;
+        return weight;
+    }
+
+    /**
+     * Relaxes the edges leaving a vertex using primitive traversal.  A single instance is reused
+     * for every vertex, so that settling a vertex allocates nothing.
+     */
+    private final class Relaxer implements IntEdgeConsumer {
+
+        private final IntEdgeGraph<?> graph;
+        private final IntEdgeWeigher<?> weigher;
+
+        /**
+         * The ID of the vertex whose edges are currently being relaxed.
+         */
+        private int fromId;
+
+        Relaxer(IntEdgeGraph<?> graph, IntEdgeWeigher<?> weigher) {
+            this.graph = graph;
+            this.weigher = weigher;
+        }
+
+        /**
+         * Relax every edge leaving the vertex with ID `id`.
+         */
+        void relaxFrom(int id) {
+            fromId = id;
+            graph.forEachNeighbor(id, this);
+        }
+
+        @Override
+        public void accept(int endId, int dir) {
+            if (!tally.timing) {
+                relax(fromId, endId, weigher.weight(fromId, dir));
+                return;
+            }
+            long start = System.nanoTime();
+            int weight = weigher.weight(fromId, dir);
+            tally.sampledWeigherNanos += System.nanoTime() - start;
+            relax(fromId, endId, weight);
+        }
+    }
 }
@@ -0,0 +1,119 @@
+package scissors;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Chooses how many vertices a background search should settle per batch so that each batch takes
+ * about a given wall-clock budget.  The search's settling rate is measured as it runs (it depends
+ * on the machine, the image, and how far the search has spread), so batches are small at first and
+ * then track that rate.
+ * <p>
+ * Batches are timed with a clock (normally `System.nanoTime()`) between `startBatch()` and
+ * `finishBatch()`, or measured elsewhere and passed to `record()`.  Not thread-safe; each search
+ * should use its own sizer.
+ */
+final class BatchSizer {
+
+    /**
+     * The smallest and largest batch sizes we choose.
+     */
+    static final int MIN_BATCH = 256;
+    static final int MAX_BATCH = 1 << 20;
+
+    /**
+     * The size of the first batch, before the settling rate has been measured.
+     */
+    static final int INITIAL_BATCH = 2000;
+
+    /**
+     * The most by which one batch may be larger than the previous one, in case a fast batch was
+     * unrepresentative.
+     */
+    private static final int MAX_GROWTH = 4;
+
+    /**
+     * The target duration of each batch, in nanoseconds.
+     */
+    private final long budgetNanos;
+
+    /**
+     * Reads the current time, in nanoseconds.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The time at which the current batch started, according to `clock`.
+     */
+    private long batchStart;
+
+    /**
+     * The smoothed settling rate (in vertices per nanosecond) measured so far, or 0 if none has
+     * been measured.
+     */
+    private double rate;
+
+    /**
+     * The size of the next batch.
+     */
+    private int batchSize = INITIAL_BATCH;
+
+    /**
+     * Create a sizer aiming for batches that each take `budgetNanos` nanoseconds.  Requires
+     * `budgetNanos` is positive.
+     */
+    BatchSizer(long budgetNanos) {
+        this(budgetNanos, System::nanoTime);
+    }
+
+    /**
+     * Create a sizer aiming for batches that each take `budgetNanos` nanoseconds as read from
+     * `clock`.  Requires `budgetNanos` is positive.
+     */
+    BatchSizer(long budgetNanos, LongSupplier clock) {
+        assert budgetNanos > 0;
+        this.budgetNanos = budgetNanos;
+        this.clock = clock;
+    }
+
+    /**
+     * Return the number of vertices the next batch should settle.
+     */
+    int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Start timing a batch, and return the number of vertices it should settle.
+     */
+    int startBatch() {
+        batchStart = clock.getAsLong();
+        return batchSize;
+    }
+
+    /**
+     * Record that the batch started by the last call to `startBatch()` has settled `settled`
+     * vertices, size the next batch accordingly, and return how long the batch took in
+     * nanoseconds.  Requires `settled` is non-negative.
+     */
+    long finishBatch(int settled) {
+        long elapsedNanos = clock.getAsLong() - batchStart;
+        record(settled, elapsedNanos);
+        return elapsedNanos;
+    }
+
+    /**
+     * Record that a batch settled `settled` vertices in `elapsedNanos` nanoseconds, and size the
+     * next batch accordingly.  Requires `settled` and `elapsedNanos` are non-negative.
+     */
+    void record(int settled, long elapsedNanos) {
+        if (settled == 0 || elapsedNanos <= 0) {
+            // Too little was measured to estimate anything
+            return;
+        }
+        double measured = (double) settled / elapsedNanos;
+        rate = (rate == 0) ? measured : (rate + measured) / 2;
+        long target = (long) (rate * budgetNanos);
+        batchSize = (int) Math.clamp(target, MIN_BATCH,
+                Math.min(MAX_BATCH, (long) MAX_GROWTH * batchSize));
+    }
+}
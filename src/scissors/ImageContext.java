@@ -0,0 +1,224 @@
+package scissors;
+
+import graph.PointSearch;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The state of intelligent scissors for one image that can be shared by any number of
+ * `ScissorsSelectionModel`s selecting from it (for different regions or annotators, say): the
+ * image's graph with its weight tables, the paths found from its pixels so far (and the precomputer
+ * speculatively finding more), and the executor its searches run on.  Each model only adds the
+ * state of its own selection and of its active search, so memory scales with the number of active
+ * searches rather than with the number of models times the size of the image.
+ * <p>
+ * The graph may cover just a region of the image (see `regionAround()`), so that images far larger
+ * than the heap (see `TiledImage`) can be selected from; points outside of that region are moved to
+ * its nearest pixel (see `clamp()`).
+ * <p>
+ * All methods are thread-safe.
+ */
+public final class ImageContext {
+
+    /**
+     * The largest width and height (in pixels) of the region that `regionAround()` traces, which
+     * bounds the heap used by its weight tables and searches.
+     */
+    public static final int MAX_REGION_SIZE = 2048;
+
+    /**
+     * The image being selected from.
+     */
+    private final BufferedImage img;
+
+    /**
+     * The graph representation of `img` (or of the region of it that may be selected from).
+     * Caches its weight tables, so each is computed once no matter how many models use it.
+     */
+    private final ImageGraph graph;
+
+    /**
+     * Runs the background searches of every model attached to this context.
+     */
+    private final PathfindingExecutor executor;
+
+    /**
+     * Paths found from pixels of `img` by any attached model (including speculatively), so that a
+     * model making one of those pixels its selection's endpoint need not wait for a search.  This
+     * is the process-wide cache, shared with every other context.
+     */
+    private final PathCache pathCache;
+
+    /**
+     * Speculatively adds paths from pixels near the resting cursor of any attached model to
+     * `pathCache`, running its searches on `executor`.
+     */
+    private final PathPrecomputer precomputer;
+
+    /**
+     * Idle point-to-point searchers, keyed by the name of the weigher they use.  Shared by attached
+     * models, since each search is brief; a search takes a searcher (or creates one, if none is
+     * idle) and returns it when done, so concurrent searches never wait for each other.  Searches
+     * run in `executor`'s batches, so at most one searcher per executor thread is kept; any more
+     * (left over from a burst of searches on other threads) are dropped.
+     */
+    private final Map<String, Queue<PointSearch<ImageVertex, ImageEdge>>> pointSearches =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Create a context for selecting from `img`, whose searches run on the executor shared by all
+     * contexts.  Throws IllegalArgumentException if `img` has too many pixels for a graph.
+     */
+    public ImageContext(BufferedImage img) {
+        this(img, PathfindingExecutor.shared());
+    }
+
+    /**
+     * Create a context for selecting from `img`, whose searches run on a dedicated pool of
+     * `searchThreads` threads.  Throws IllegalArgumentException if `img` has too many pixels for a
+     * graph or if `searchThreads` is not positive.
+     */
+    public ImageContext(BufferedImage img, int searchThreads) {
+        this(img, newExecutor(searchThreads));
+    }
+
+    private ImageContext(BufferedImage img, PathfindingExecutor executor) {
+        this(img, new ImageGraph(img), executor);
+    }
+
+    private ImageContext(BufferedImage img, ImageGraph graph, PathfindingExecutor executor) {
+        this.img = img;
+        this.graph = graph;
+        this.executor = executor;
+        pathCache = PathCache.shared();
+        precomputer = new PathPrecomputer(graph, pathCache, executor);
+    }
+
+    /**
+     * Create a context for selecting from `img` near `focus`.  If `img` is a view of a tiled image
+     * too large to trace whole (see `TiledImage.view()`), only a region at most `MAX_REGION_SIZE`
+     * pixels on a side, centered on `focus` as nearly as the image's bounds allow, may be selected
+     * from; otherwise all of `img` may be.  Throws IllegalArgumentException if `img` has too many
+     * pixels for a graph.
+     */
+    public static ImageContext regionAround(BufferedImage img, Point focus) {
+        TiledImage tiled = TiledImage.viewed(img);
+        if (tiled == null || (img.getWidth() <= MAX_REGION_SIZE
+                && img.getHeight() <= MAX_REGION_SIZE)) {
+            return new ImageContext(img);
+        }
+        int width = Math.min(img.getWidth(), MAX_REGION_SIZE);
+        int height = Math.min(img.getHeight(), MAX_REGION_SIZE);
+        int x = Math.clamp(focus.x - width / 2, 0, img.getWidth() - width);
+        int y = Math.clamp(focus.y - height / 2, 0, img.getHeight() - height);
+        // Only pixels within the region are read to build the graph, but points remain in the
+        //  coordinates of the whole image.
+        return new ImageContext(img, ImageGraph.ofRegion(tiled, new Rectangle(x, y, width, height)),
+                PathfindingExecutor.shared());
+    }
+
+    /**
+     * Return a new executor running `threads` searches at once.  Throws IllegalArgumentException if
+     * `threads` is not positive.
+     */
+    private static PathfindingExecutor newExecutor(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Search thread count must be positive: " + threads);
+        }
+        return new PathfindingExecutor(threads);
+    }
+
+    /**
+     * Return the image being selected from.
+     */
+    public BufferedImage image() {
+        return img;
+    }
+
+    /**
+     * Return the bounds of the region of our image that may be selected from (which is all of it,
+     * unless this context was created for a region).
+     */
+    public Rectangle bounds() {
+        return graph.bounds();
+    }
+
+    /**
+     * Return whether `p` is within the region of our image that may be selected from.
+     */
+    public boolean covers(Point p) {
+        return graph.bounds().contains(p);
+    }
+
+    /**
+     * Return the point nearest to `p` within the region of our image that may be selected from
+     * (which is `p` itself, if it is within that region).
+     */
+    public Point clamp(Point p) {
+        if (covers(p)) {
+            return p;
+        }
+        Rectangle bounds = graph.bounds();
+        return new Point(Math.clamp(p.x, bounds.x, bounds.x + bounds.width - 1),
+                Math.clamp(p.y, bounds.y, bounds.y + bounds.height - 1));
+    }
+
+    ImageGraph graph() {
+        return graph;
+    }
+
+    PathfindingExecutor executor() {
+        return executor;
+    }
+
+    PathCache pathCache() {
+        return pathCache;
+    }
+
+    PathPrecomputer precomputer() {
+        return precomputer;
+    }
+
+    /**
+     * Discard the paths cached for this context's image, once no model will select from it again.
+     * Otherwise they (and the graph they were found in) are only discarded as newer paths need
+     * their space.  Models may still use this context afterwards, at the cost of searching again.
+     */
+    public void discardCachedPaths() {
+        precomputer.clear();
+        pathCache.removeAll(graph);
+    }
+
+    /**
+     * Return a shortest path from the pixel with ID `startId` to the pixel with ID `goalId`, as
+     * weighed by the weigher named `weightName`, found by a point-to-point search on the calling
+     * thread.  Weighers with a positive minimum edge weight admit an A* heuristic; otherwise a
+     * bidirectional search is used.  May compute the weigher's weight table, so this should not be
+     * called on the EDT.
+     */
+    List<Integer> findPointPath(String weightName, int startId, int goalId) {
+        WeightTable table = graph.weightTable(weightName);
+        Queue<PointSearch<ImageVertex, ImageEdge>> idle = pointSearches.computeIfAbsent(
+                weightName, name -> new ArrayBlockingQueue<>(executor.threads()));
+        PointSearch<ImageVertex, ImageEdge> search = idle.poll();
+        if (search == null) {
+            search = new PointSearch<>(graph, table);
+        }
+        try {
+            if (table.minWeight() > 0) {
+                return search.findPath(startId, goalId, graph.hopHeuristic(table.minWeight()));
+            }
+            return search.findPathBidirectional(startId, goalId);
+        } finally {
+            // Only the searcher's queues are kept between searches.
+            search.release();
+            idle.offer(search);
+        }
+    }
+}
@@ -1,22 +1,26 @@
 package scissors;
 
-import graph.Edge;
-import graph.Graph;
-import graph.Vertex;
+import graph.BidirectionalGraph;
+import graph.Heuristic;
+import graph.IntEdgeConsumer;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.awt.image.Raster;
-import java.util.Iterator;
 import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
 import selector.PolyLine;
 
 /**
  * Provides a Graph structure on top of an image where pixels are treated as vertices connected to
  * their neighboring pixels (including diagonals).  Edges are interpreted as connecting pixel
  * centers and are aware of their length and direction within the image.
+ * <p>
+ * The image may be a region of a larger image (see `ofRegion()`), in which case vertex IDs and
+ * `ImageVertex` coordinates are local to the region, while the points accepted by `idAt()` and
+ * `vertexAt()` and produced by `pathToPolyLine()` are in the coordinates of the larger image.
  */
-class ImageGraph implements Graph<ImageVertex> {
+class ImageGraph implements BidirectionalGraph<ImageVertex> {
 
     /**
      * The image we are providing a graph structure for.
@@ -24,10 +28,73 @@ class ImageGraph implements Graph<ImageVertex> {
     private final BufferedImage img;
 
     /**
-     * Create a new ImageGraph to provide a graph structure over the image `img`.
+     * The location of our image's top-left pixel within the larger image it was taken from (or the
+     * origin if it is not a region).
+     */
+    private final Point origin;
+
+    /**
+     * The horizontal and vertical pixel offsets to the neighbor in each direction `dir` (see
+     * `ImageVertex`), where 0 points right and 2 points up.
+     */
+    private static final int[] DX = {1, 1, 0, -1, -1, -1, 0, 1};
+    private static final int[] DY = {0, -1, -1, -1, 0, 1, 1, 1};
+
+    /**
+     * `neighborOffsets[dir]` is the difference between the ID of a pixel's neighbor in direction
+     * `dir` and the pixel's own ID.
+     */
+    private final int[] neighborOffsets;
+
+    /**
+     * Weight tables that have been computed for this graph, keyed by weight name (as recognized by
+     * the `ScissorsWeights` factory).
+     */
+    private final ConcurrentHashMap<String, WeightTable> weightTables;
+
+    /**
+     * Create a new ImageGraph to provide a graph structure over the image `img`.  Throws
+     * IllegalArgumentException if `img` has too many pixels for each to have an `int` ID.
      */
     public ImageGraph(BufferedImage img) {
+        this(img, new Point(0, 0));
+    }
+
+    /**
+     * Create a new ImageGraph to provide a graph structure over the image `img`, which is a copy of
+     * the region of a larger image whose top-left pixel is at `origin`.  Throws
+     * IllegalArgumentException if `img` has too many pixels for each to have an `int` ID.
+     */
+    ImageGraph(BufferedImage img, Point origin) {
+        if ((long) img.getWidth() * img.getHeight() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Image is too large for a graph: "
+                    + img.getWidth() + " x " + img.getHeight());
+        }
         this.img = img;
+        this.origin = new Point(origin);
+        weightTables = new ConcurrentHashMap<>();
+        neighborOffsets = new int[8];
+        for (int dir = 0; dir < 8; ++dir) {
+            neighborOffsets[dir] = DX[dir] + img.getWidth() * DY[dir];
+        }
+    }
+
+    /**
+     * Create a new ImageGraph over the pixels of `image` within `region`, which are read from
+     * `image`'s mapped tiles as they are needed rather than copied (see `TiledImage.view()`).  Its
+     * vertex IDs will be local to the region, so that searches over it (and its weight tables) only
+     * need storage proportional to the region's area.  Throws IllegalArgumentException if `region`
+     * is empty, extends beyond the bounds of `image`, or is too large.
+     */
+    public static ImageGraph ofRegion(TiledImage image, Rectangle region) {
+        return new ImageGraph(image.view(region), region.getLocation());
+    }
+
+    /**
+     * Return the bounds of our image within the larger image it was taken from.
+     */
+    public Rectangle bounds() {
+        return new Rectangle(origin.x, origin.y, width(), height());
     }
 
     /**
@@ -58,202 +125,130 @@ class ImageGraph implements Graph<ImageVertex> {
     }
 
     /**
-     * Return the ID of the vertex at pixel location `p`.  Requires `p` is within the bounds of the
-     * image.
+     * Report each neighbor of the pixel with ID `id` to `consumer`, along with the direction from
+     * `id` to that neighbor.  Neighbors are visited in the same order as by
+     * `getVertex(id).outgoingEdges()`, but without allocating.
      */
-    public int idAt(Point p) {
-        assert p.x >= 0 && p.x < width();
-        assert p.y >= 0 && p.y < height();
-        return ImageVertex.xyToId(p.x, p.y, width());
-    }
-
-    /**
-     * Return a representation of the Vertex at the image location `p`.
-     */
-    public ImageVertex vertexAt(Point p) {
-        assert p.x >= 0 && p.x < width();
-        assert p.y >= 0 && p.y < height();
-        return new ImageVertex(this, p.x, p.y);
-    }
-
-    /**
-     * Return the Raster backing our image.  This is convenient for querying the brightness of
-     * pixels in different color bands.
-     */
-    public Raster raster() {
-        return img.getRaster();
+    @Override
+    public void forEachNeighbor(int id, IntEdgeConsumer consumer) {
+        assert id >= 0 && id < vertexCount();
+        int width = width();
+        int height = height();
+        int y = id / width;
+        int x = id - y * width;
+        if (x > 0 && x < width - 1 && y > 0 && y < height - 1) {
+            // Interior pixels have all 8 neighbors, so no bounds checks are needed.
+            for (int dir = 0; dir < 8; ++dir) {
+                consumer.accept(id + neighborOffsets[dir], dir);
+            }
+        } else {
+            for (int dir = 0; dir < 8; ++dir) {
+                int nx = x + DX[dir];
+                int ny = y + DY[dir];
+                if (nx >= 0 && nx < width && ny >= 0 && ny < height) {
+                    consumer.accept(id + neighborOffsets[dir], dir);
+                }
+            }
+        }
     }
 
     /**
-     * Convert a sequence of vertex IDs, `path`, into a `PolyLine` that connects to the
-     * corresponding pixels.
+     * Report each neighbor of the pixel with ID `id` to `consumer`, along with the direction of the
+     * edge from that neighbor back to `id` (the opposite of the direction from `id` to it).
+     * Neighbors are visited in the same order as by `forEachNeighbor()`, without allocating.
      */
-    public PolyLine pathToPolyLine(List<Integer> path) {
-        PolyLineBuffer buffer = new PolyLineBuffer(path.size());
-        for (int id : path) {
-            buffer.append(getVertex(id).point());
-        }
-        return buffer.toPolyLine();
-    }
-}
-
-/**
- * A Vertex in the ImageGraph `image` representing a pixel at location (x, y).
- * <p>
- * Invariant: `0 <= x < image.width()`, `0 <= y < image.height()`.
- */
-record ImageVertex(ImageGraph image, int x, int y) implements Vertex<ImageEdge> {
-
-    public ImageVertex {
-        // This "post-constructor" runs after the record's fields have been initialized to the
-        //  constructor's arguments.  Here we just assert that the location is within the image's
-        //  bounds.
-        assert x >= 0 && x < image.width();
-        assert y >= 0 && y < image.height();
-    }
-
     @Override
-    public int id() {
-        return xyToId(x, y, image.width());
-    }
-
-    @Override
-    public Iterable<ImageEdge> outgoingEdges() {
-        return new Iterable<ImageEdge>() {
-            @Override
-            public Iterator<ImageEdge> iterator() {
-                return new ImageEdgeIterator();
+    public void forEachPredecessor(int id, IntEdgeConsumer consumer) {
+        assert id >= 0 && id < vertexCount();
+        int width = width();
+        int height = height();
+        int y = id / width;
+        int x = id - y * width;
+        if (x > 0 && x < width - 1 && y > 0 && y < height - 1) {
+            for (int dir = 0; dir < 8; ++dir) {
+                consumer.accept(id + neighborOffsets[dir], (dir + 4) & 7);
             }
-        };
+        } else {
+            for (int dir = 0; dir < 8; ++dir) {
+                int nx = x + DX[dir];
+                int ny = y + DY[dir];
+                if (nx >= 0 && nx < width && ny >= 0 && ny < height) {
+                    consumer.accept(id + neighborOffsets[dir], (dir + 4) & 7);
+                }
+            }
+        }
     }
 
     /**
-     * Return the location of the pixel represented by this vertex in the image.
+     * Return a heuristic for point-to-point searches in this graph, assuming every edge weighs at
+     * least `minWeight`.  Since each edge moves at most one pixel horizontally and vertically, the
+     * larger of those offsets to the goal is a lower bound on the number of edges remaining.
      */
-    public Point point() {
-        return new Point(x, y);
+    public Heuristic hopHeuristic(int minWeight) {
+        int width = width();
+        return (id, goalId) -> {
+            int y = id / width;
+            int x = id - y * width;
+            int goalY = goalId / width;
+            int goalX = goalId - goalY * width;
+            return minWeight * Math.max(Math.abs(goalX - x), Math.abs(goalY - y));
+        };
     }
 
     /**
-     * Return whether a potential pixel neighbor in the direction `dir` is within the image's
-     * bounds.  Requires `dir` in [0..7], with 0 representing "right" and 2 representing "up".
+     * Return the ID of the vertex at pixel location `p`.  Requires `p` is within `bounds()`.
      */
-    boolean validDir(int dir) {
-        return switch (dir) {
-            case 0 -> x + 1 < image.width();
-            case 1 -> x + 1 < image.width() && y > 0;
-            case 2 -> y > 0;
-            case 3 -> x > 0 && y > 0;
-            case 4 -> x > 0;
-            case 5 -> x > 0 && y + 1 < image.height();
-            case 6 -> y + 1 < image.height();
-            case 7 -> x + 1 < image.width() && y + 1 < image.height();
-            default -> false;
-        };
+    public int idAt(Point p) {
+        int x = p.x - origin.x;
+        int y = p.y - origin.y;
+        assert x >= 0 && x < width();
+        assert y >= 0 && y < height();
+        return ImageVertex.xyToId(x, y, width());
     }
 
     /**
-     * Return the ID of our neighboring vertex in the direction `dir`.  Requires that such a
-     * neighbor is within the image's bounds.  Requires `dir` in [0..7], with 0 representing "right"
-     * and 2 representing "up".
+     * Return a representation of the Vertex at the image location `p`.  Requires `p` is within
+     * `bounds()`.
      */
-    int neighborId(int dir) {
-        assert validDir(dir);
-        return switch (dir) {
-            case 0 -> xyToId(x + 1, y, image.width());
-            case 1 -> xyToId(x + 1, y - 1, image.width());
-            case 2 -> xyToId(x, y - 1, image.width());
-            case 3 -> xyToId(x - 1, y - 1, image.width());
-            case 4 -> xyToId(x - 1, y, image.width());
-            case 5 -> xyToId(x - 1, y + 1, image.width());
-            case 6 -> xyToId(x, y + 1, image.width());
-            case 7 -> xyToId(x + 1, y + 1, image.width());
-            default -> throw new IllegalArgumentException();
-        };
+    public ImageVertex vertexAt(Point p) {
+        int x = p.x - origin.x;
+        int y = p.y - origin.y;
+        assert x >= 0 && x < width();
+        assert y >= 0 && y < height();
+        return new ImageVertex(this, x, y);
     }
 
     /**
-     * Convert a pixel location (`x`, `y`) to a vertex ID for an ImageGraph with a width of
-     * `width`.
+     * Return the Raster backing our image.  This is convenient for querying the brightness of
+     * pixels in different color bands.
      */
-    static int xyToId(int x, int y, int width) {
-        assert x >= 0 && x < width;
-        return x + width * y;
+    public Raster raster() {
+        return img.getRaster();
     }
 
     /**
-     * An Iterator for enumerating the valid outgoing edges for this ImageVertex.
+     * Return a table of the weights assigned to this graph's edges by the weigher named
+     * `weightName` (see `ScissorsWeights`).  The table is computed the first time it is requested
+     * for each name and shared thereafter, so this may take a while and should not be called on
+     * Swing's EDT.  Safe to call from multiple threads.  Throws IllegalArgumentException if
+     * `weightName` is not recognized.
      */
-    class ImageEdgeIterator implements Iterator<ImageEdge> {
-
-        /**
-         * The next edge direction to yield, or 8 if all edges have been yielded.
-         */
-        private int nextDir;
-
-        public ImageEdgeIterator() {
-            nextDir = 0;
-            findNextValidDir();
-        }
-
-        @Override
-        public boolean hasNext() {
-            return nextDir < 8;
-        }
-
-        @Override
-        public ImageEdge next() {
-            if (!hasNext()) {
-                throw new NoSuchElementException();
-            }
-            ImageEdge nextEdge = new ImageEdge(id(), neighborId(nextDir), nextDir);
-            nextDir += 1;
-            findNextValidDir();
-            return nextEdge;
-        }
-
-        /**
-         * Advance `nextDir` until it represents the next valid edge direction ("valid" means that
-         * it points to a neighbor that is within the image's bounds).  Advances to 8 when there are
-         * no more valid edge directions.
-         */
-        private void findNextValidDir() {
-            while (nextDir < 8 && !validDir(nextDir)) {
-                nextDir += 1;
-            }
-        }
-    }
-}
-
-/**
- * An Edge in an ImageGraph connecting the vertex with ID `startId` to its neighboring vertex with
- * ID `endId`, which lies in the direction `dir` relative to the start.
- * <p>
- * Invariant: `dst.equals(src.neighbor(dir))`.
- */
-record ImageEdge(int startId, int endId, int dir) implements Edge {
-
-    public ImageEdge {
-        // This "post-constructor" runs after the record's fields have been initialized to the
-        //  constructor's arguments.  Here we just assert that the location is within the image's
-        //  bounds.
-        assert dir >= 0 && dir < 8;
-
-        // We can't actually assert these without a reference to the ImageGraph, but we leave them
-        //  here as documentation.
-//        assert getVertex(startId).validDir(dir);
-//        assert endId == getVertex(startId).neighborId(dir);
+    public WeightTable weightTable(String weightName) {
+        return weightTables.computeIfAbsent(weightName,
+                name -> new WeightTable(this, ScissorsWeights.makeDirectWeigher(name, this)));
     }
 
     /**
-     * Return the geometric length of this edge, in pixel units, interpreting it as connecting pixel
-     * centers.
+     * Convert a sequence of vertex IDs, `path`, into a `PolyLine` that connects to the
+     * corresponding pixels.
      */
-    public double length() {
-        if (dir % 2 == 0) {
-            return 1;
-        } else {
-            return Math.sqrt(2);
+    public PolyLine pathToPolyLine(List<Integer> path) {
+        PolyLineBuffer buffer = new PolyLineBuffer(path.size());
+        for (int id : path) {
+            int y = id / width();
+            int x = id - y * width();
+            buffer.append(origin.x + x, origin.y + y);
         }
+        return buffer.toPolyLine();
     }
 }
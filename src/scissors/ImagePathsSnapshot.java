@@ -1,39 +1,118 @@
 package scissors;
 
-import graph.PathfindingSnapshot;
+import graph.SearchDelta;
 import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
 
 /**
- * A wrapper around `PathfindingSnapshot` with convenience methods suitable for ImageGraphs. Allows
- * querying the "discovered" and "settled" statuses of `Point` locations.
+ * The progress of a background pathfinding search in an `ImageGraph`, as reported to the EDT.
+ * Allows querying the "discovered" and "settled" statuses of `Point` locations.
+ * <p>
+ * A search reports its progress as a stream of small deltas rather than as full copies of its
+ * results, so this object is a view of the search's accumulated progress as of some version of it.
+ * Queries reflect the search's latest progress received by the EDT, which is at least as recent as
+ * our version.  Must only be used on the EDT.
  */
 public class ImagePathsSnapshot {
 
-    private ImageGraph graph;
-    private PathfindingSnapshot paths;
+    private final ImageGraph graph;
+    private final SearchProgress progress;
 
-    ImagePathsSnapshot(ImageGraph graph, PathfindingSnapshot paths) {
+    /**
+     * The version of `progress` this object was created at.
+     */
+    private final long version;
+
+    ImagePathsSnapshot(ImageGraph graph, SearchProgress progress) {
         this.graph = graph;
-        this.paths = paths;
+        this.progress = progress;
+        version = progress.version();
     }
 
-
-
-
+    /**
+     * Return the bounds of the region of the image that the search may reach (which is all of it,
+     * unless the search's graph covers only a region; see `ImageContext`).
+     */
+    public Rectangle bounds() {
+        return graph.bounds();
+    }
 
     /**
      * Return whether the pixel at location `p` is known to be reachable from the pathfinder's
-     * starting location.  Requires `p` is a point in the image.
+     * starting location.  Requires `p` is a point within `bounds()`.
      */
     public boolean discovered(Point p) {
-        return paths.discovered(graph.idAt(p));
+        return progress.discovered(graph.idAt(p));
     }
 
     /**
      * Return whether a shortest path is known from the pathfinder's starting location to the pixel
-     * at location `p` Requires `p` is a point in the image.
+     * at location `p` Requires `p` is a point within `bounds()`.
      */
     public boolean settled(Point p) {
-        return paths.settled(graph.idAt(p));
+        return progress.settled(graph.idAt(p));
+    }
+
+    /**
+     * Return whether this and `other` view the same version of the same search (so that an overlay
+     * up to date with one is also up to date with the other).  `other` may be null.
+     */
+    public boolean sameAs(ImagePathsSnapshot other) {
+        return other != null && other.progress == progress && other.version == version;
+    }
+
+    /**
+     * Bring `overlay` up to date with this snapshot by coloring the pixels that are settled
+     * `settledColor`, those that are discovered but not settled `frontierColor`, and the rest
+     * transparent, given that it was last brought up to date with `previous` (or has arbitrary
+     * contents, if `previous` is null).  Only the pixels named by the deltas the search published
+     * in between are written, straight into the overlay's pixel array, so this takes time
+     * proportional to the number of pixels the search reached in between rather than to the size
+     * of the image.  If `previous` is null or those deltas are no longer retained, the overlay is
+     * redrawn in full.
+     * <p>
+     * Requires `overlay` was created as a `TYPE_INT_ARGB` image the same size as `bounds()`, and
+     * `previous` (if not null) views the same search as this snapshot.
+     */
+    public void updateOverlay(ImagePathsSnapshot previous, BufferedImage overlay,
+            int settledColor, int frontierColor) {
+        assert overlay.getType() == BufferedImage.TYPE_INT_ARGB;
+        assert overlay.getWidth() == graph.width() && overlay.getHeight() == graph.height();
+        assert previous == null || previous.progress == progress;
+
+        // Pixel IDs are row-major indices, just like indices into the overlay's pixel array.
+        int[] pixels = ((DataBufferInt) overlay.getRaster().getDataBuffer()).getData();
+        if (previous == null) {
+            redraw(pixels, settledColor, frontierColor);
+            return;
+        }
+        boolean replayed = progress.forEachDeltaSince(previous.version, (SearchDelta delta) -> {
+            // Pixels settled since they were discovered (perhaps in a later delta) stay settled.
+            for (int id : delta.discoveredIds()) {
+                if (!progress.settled(id)) {
+                    pixels[id] = frontierColor;
+                }
+            }
+            for (int id : delta.settledIds()) {
+                pixels[id] = settledColor;
+            }
+        });
+        if (!replayed) {
+            redraw(pixels, settledColor, frontierColor);
+        }
+    }
+
+    /**
+     * Color every pixel of an overlay whose pixel array is `pixels` according to our search's
+     * progress, as described in `updateOverlay()`.  Undiscovered pixels are cleared a whole run
+     * at a time, since a search typically reaches only a small part of the image.
+     */
+    private void redraw(int[] pixels, int settledColor, int frontierColor) {
+        Arrays.fill(pixels, 0);
+        progress.forEachDiscovered(id -> pixels[id] = progress.settled(id) ? settledColor
+                : frontierColor);
     }
 }
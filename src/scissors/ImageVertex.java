@@ -0,0 +1,134 @@
+package scissors;
+
+import graph.Vertex;
+import java.awt.Point;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A Vertex in the ImageGraph `image` representing a pixel at location (x, y).
+ * <p>
+ * Invariant: `0 <= x < image.width()`, `0 <= y < image.height()`.
+ */
+record ImageVertex(ImageGraph image, int x, int y) implements Vertex<ImageEdge> {
+
+    public ImageVertex {
+        // This "post-constructor" runs after the record's fields have been initialized to the
+        //  constructor's arguments.  Here we just assert that the location is within the image's
+        //  bounds.
+        assert x >= 0 && x < image.width();
+        assert y >= 0 && y < image.height();
+    }
+
+    @Override
+    public int id() {
+        return xyToId(x, y, image.width());
+    }
+
+    @Override
+    public Iterable<ImageEdge> outgoingEdges() {
+        return new Iterable<ImageEdge>() {
+            @Override
+            public Iterator<ImageEdge> iterator() {
+                return new ImageEdgeIterator();
+            }
+        };
+    }
+
+    /**
+     * Return the location of the pixel represented by this vertex in the image.
+     */
+    public Point point() {
+        return new Point(x, y);
+    }
+
+    /**
+     * Return whether a potential pixel neighbor in the direction `dir` is within the image's
+     * bounds.  Requires `dir` in [0..7], with 0 representing "right" and 2 representing "up".
+     */
+    boolean validDir(int dir) {
+        return switch (dir) {
+            case 0 -> x + 1 < image.width();
+            case 1 -> x + 1 < image.width() && y > 0;
+            case 2 -> y > 0;
+            case 3 -> x > 0 && y > 0;
+            case 4 -> x > 0;
+            case 5 -> x > 0 && y + 1 < image.height();
+            case 6 -> y + 1 < image.height();
+            case 7 -> x + 1 < image.width() && y + 1 < image.height();
+            default -> false;
+        };
+    }
+
+    /**
+     * Return the ID of our neighboring vertex in the direction `dir`.  Requires that such a
+     * neighbor is within the image's bounds.  Requires `dir` in [0..7], with 0 representing "right"
+     * and 2 representing "up".
+     */
+    int neighborId(int dir) {
+        assert validDir(dir);
+        return switch (dir) {
+            case 0 -> xyToId(x + 1, y, image.width());
+            case 1 -> xyToId(x + 1, y - 1, image.width());
+            case 2 -> xyToId(x, y - 1, image.width());
+            case 3 -> xyToId(x - 1, y - 1, image.width());
+            case 4 -> xyToId(x - 1, y, image.width());
+            case 5 -> xyToId(x - 1, y + 1, image.width());
+            case 6 -> xyToId(x, y + 1, image.width());
+            case 7 -> xyToId(x + 1, y + 1, image.width());
+            default -> throw new IllegalArgumentException();
+        };
+    }
+
+    /**
+     * Convert a pixel location (`x`, `y`) to a vertex ID for an ImageGraph with a width of
+     * `width`.
+     */
+    static int xyToId(int x, int y, int width) {
+        assert x >= 0 && x < width;
+        return x + width * y;
+    }
+
+    /**
+     * An Iterator for enumerating the valid outgoing edges for this ImageVertex.
+     */
+    class ImageEdgeIterator implements Iterator<ImageEdge> {
+
+        /**
+         * The next edge direction to yield, or 8 if all edges have been yielded.
+         */
+        private int nextDir;
+
+        public ImageEdgeIterator() {
+            nextDir = 0;
+            findNextValidDir();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextDir < 8;
+        }
+
+        @Override
+        public ImageEdge next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ImageEdge nextEdge = new ImageEdge(id(), neighborId(nextDir), nextDir);
+            nextDir += 1;
+            findNextValidDir();
+            return nextEdge;
+        }
+
+        /**
+         * Advance `nextDir` until it represents the next valid edge direction ("valid" means that
+         * it points to a neighbor that is within the image's bounds).  Advances to 8 when there are
+         * no more valid edge directions.
+         */
+        private void findNextValidDir() {
+            while (nextDir < 8 && !validDir(nextDir)) {
+                nextDir += 1;
+            }
+        }
+    }
+}
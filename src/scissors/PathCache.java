@@ -0,0 +1,156 @@
+package scissors;
+
+import graph.PathfindingSnapshot;
+import graph.ShortestPathSolver;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A least-recently-used cache of completed pathfinding snapshots, bounded by their total estimated
+ * size in bytes rather than by their number.  Lets a model reuse the paths it found from a point
+ * when that point becomes the selection's endpoint again (after an undo, or when a moved point is
+ * moved back), instead of searching from it again.
+ * <p>
+ * Only snapshots are cached, not the solvers that produced them, since a solver's frontier can be
+ * much larger than its results.  Snapshots are immutable, so a cached snapshot may be shared by
+ * any number of readers.  Keys include the graph, so one cache can serve every image; contexts share
+ * the process-wide `shared()` cache, which is sized once, rather than each reserving its own share
+ * of the heap.  All methods are thread-safe.
+ */
+final class PathCache {
+
+    /**
+     * The cache shared by every image context.  Created when first needed.
+     */
+    private static PathCache shared;
+
+    /**
+     * Identifies the snapshot of paths from the pixel with ID `startId` in `graph`, as weighed by
+     * the weigher named `weightName`.
+     */
+    record Key(ImageGraph graph, String weightName, int startId) {
+
+    }
+
+    /**
+     * The maximum total estimated size (in bytes) of the snapshots in `entries`.
+     */
+    private final long maxBytes;
+
+    /**
+     * Cached snapshots, in order from least to most recently used.  Guarded by `this`.
+     */
+    private final LinkedHashMap<Key, PathfindingSnapshot> entries;
+
+    /**
+     * The total estimated size (in bytes) of the snapshots in `entries`.  Guarded by `this`.
+     */
+    private long totalBytes;
+
+    /**
+     * Create an empty cache holding snapshots totalling at most `maxBytes` bytes.  Requires
+     * `maxBytes` is positive.
+     */
+    PathCache(long maxBytes) {
+        assert maxBytes > 0;
+        this.maxBytes = maxBytes;
+        entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Return the default size bound for caches: an eighth of the maximum heap size, but at least
+     * 64 MiB.
+     */
+    static long defaultMaxBytes() {
+        return Math.max(64L << 20, Runtime.getRuntime().maxMemory() / 8);
+    }
+
+    /**
+     * Return the cache shared by every image context, bounded by `defaultMaxBytes()` as of its
+     * creation.
+     */
+    static synchronized PathCache shared() {
+        if (shared == null) {
+            shared = new PathCache(defaultMaxBytes());
+        }
+        return shared;
+    }
+
+    /**
+     * Return the cached snapshot of paths from the pixel with ID `startId` in `graph`, as weighed
+     * by the weigher named `weightName`, or null if there is none.
+     */
+    synchronized PathfindingSnapshot get(ImageGraph graph, String weightName, int startId) {
+        return entries.get(new Key(graph, weightName, startId));
+    }
+
+    /**
+     * Cache `paths`, which were found in `graph` as weighed by the weigher named `weightName`,
+     * replacing any snapshot cached for the same start and evicting the least recently used
+     * snapshots until the cache fits within its bound.  Returns whether `paths` was cached; a
+     * snapshot larger than the bound is not.
+     */
+    synchronized boolean put(ImageGraph graph, String weightName, PathfindingSnapshot paths) {
+        long bytes = paths.estimatedBytes();
+        if (bytes > maxBytes) {
+            return false;
+        }
+        PathfindingSnapshot old = entries.put(new Key(graph, weightName, paths.start()), paths);
+        if (old != null) {
+            totalBytes -= old.estimatedBytes();
+        }
+        totalBytes += bytes;
+        Iterator<Map.Entry<Key, PathfindingSnapshot>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes) {
+            totalBytes -= it.next().getValue().estimatedBytes();
+            it.remove();
+        }
+        return true;
+    }
+
+    /**
+     * Cache `paths` as by `put()`, where `solver` (if not null) found them and so may share storage
+     * with them.  If `paths` is not cached, `solver` is released, since nobody else will query its
+     * results.  Returns whether `paths` was cached.
+     */
+    boolean putOrRelease(ImageGraph graph, String weightName, PathfindingSnapshot paths,
+            ShortestPathSolver solver) {
+        if (put(graph, weightName, paths)) {
+            return true;
+        }
+        if (solver != null) {
+            solver.release();
+        }
+        return false;
+    }
+
+    /**
+     * Discard all snapshots cached for `graph`.
+     */
+    synchronized void removeAll(ImageGraph graph) {
+        Iterator<Map.Entry<Key, PathfindingSnapshot>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, PathfindingSnapshot> entry = it.next();
+            if (entry.getKey().graph() == graph) {
+                totalBytes -= entry.getValue().estimatedBytes();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Return the total estimated size (in bytes) of the cached snapshots.
+     */
+    synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Discard all cached snapshots.
+     */
+    synchronized void clear() {
+        entries.clear();
+        totalBytes = 0;
+    }
+}
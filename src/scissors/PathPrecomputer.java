@@ -0,0 +1,266 @@
+package scissors;
+
+import graph.IntEdgeConsumer;
+import graph.PathfindingSnapshot;
+import graph.ShortestPathSolver;
+import java.awt.Point;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Speculatively computes shortest paths from pixels that the user is likely to click next, in the
+ * background, so that a click on one of them can be committed without waiting for a search.
+ * Candidates are the pixel under the (resting) cursor and the pixel on the strongest edge near it.
+ * Each `ImageContext` has one precomputer, which adds its results to the context's `PathCache`
+ * (shared with the models that consult it).
+ * <p>
+ * Speculative searches run in batches on the context's `PathfindingExecutor`, alongside (and
+ * sharing its threads fairly with) the models' own searches, through a lane of their own.  Requests
+ * are made from the EDT with `speculate()`; since the cursor keeps moving, only the most recent
+ * request is worth finishing, so each request cancels the previous one.  All methods are
+ * thread-safe.
+ */
+final class PathPrecomputer {
+
+    /**
+     * Pixels up to this many pixels away from the cursor (horizontally and vertically) are
+     * considered when looking for a strong edge.
+     */
+    private static final int SNAP_RADIUS = 4;
+
+    /**
+     * The wall-clock time that each batch of a speculative search should take, in milliseconds.
+     * Matches the models' own batches, so that speculation does not hold up their searches.
+     */
+    private static final int BATCH_MILLIS = ScissorsSelectionModel.DEFAULT_BATCH_MILLIS;
+
+    /**
+     * The graph that searches are run in.
+     */
+    private final ImageGraph graph;
+
+    /**
+     * The cache that results are added to.
+     */
+    private final PathCache cache;
+
+    /**
+     * Runs our searches one at a time, on the same executor as the models' searches.
+     */
+    private final PathfindingExecutor.Lane lane;
+
+    /**
+     * The most recently started speculation, or null if none.  Guarded by `this`.
+     */
+    private Speculation current;
+
+    /**
+     * Incremented by every `clear()`, so that searches started before it are not cached.  Guarded
+     * by `this`.
+     */
+    private int epoch;
+
+    /**
+     * Create a precomputer adding paths in `graph` to `cache`, whose searches run on `executor`.
+     */
+    PathPrecomputer(ImageGraph graph, PathCache cache, PathfindingExecutor executor) {
+        this.graph = graph;
+        this.cache = cache;
+        lane = executor.newLane();
+    }
+
+    /**
+     * Start computing (in the background) paths within `radius` pixels of the pixel at `cursor`,
+     * and of the pixel on the strongest edge near it, as weighed by the weigher named
+     * `weightName`, adding them to our cache, and abandon any earlier request.  Skips pixels whose
+     * results are already cached.  Requires `cursor` is within the image's bounds.
+     */
+    void speculate(String weightName, Point cursor, int radius) {
+        Speculation speculation;
+        synchronized (this) {
+            speculation = new Speculation(weightName, graph.idAt(cursor), radius, epoch);
+            current = speculation;
+        }
+        lane.start(speculation);
+    }
+
+    /**
+     * Abandon any pending search, so that its results will not be cached.
+     */
+    void clear() {
+        Speculation abandoned;
+        synchronized (this) {
+            epoch += 1;
+            abandoned = current;
+            current = null;
+        }
+        if (abandoned != null) {
+            abandoned.cancel();
+        }
+    }
+
+    /**
+     * Add `paths`, found by `solver`, to our cache, unless `clear()` has been called since
+     * `startEpoch`, and release `solver` if they are not cached.
+     */
+    private synchronized void offer(String weightName, PathfindingSnapshot paths,
+            ShortestPathSolver solver, int startEpoch) {
+        // A cached snapshot may share storage with its solver, which therefore must not be
+        //  released.
+        if (epoch == startEpoch) {
+            cache.putOrRelease(graph, weightName, paths, solver);
+        } else {
+            solver.release();
+        }
+    }
+
+    /**
+     * A request to search from the pixel under the cursor and then from the pixel on the strongest
+     * edge near it.  Each batch extends the current search by as many vertices as its `BatchSizer`
+     * expects to settle in `BATCH_MILLIS`.
+     */
+    private final class Speculation extends PathfindingExecutor.Task<Boolean, Void> {
+
+        /**
+         * The name of the weigher to weigh edges with.
+         */
+        private final String weightName;
+
+        /**
+         * The ID of the pixel under the cursor.
+         */
+        private final int cursorId;
+
+        /**
+         * The radius of the region of interest each search settles.
+         */
+        private final int radius;
+
+        /**
+         * The value of our precomputer's `epoch` when this request was made.
+         */
+        private final int startEpoch;
+
+        /**
+         * The number of candidate pixels whose searches have finished or been skipped (0, 1, or 2).
+         * Only accessed from our batches.
+         */
+        private int candidatesDone;
+
+        /**
+         * The current search and the region it must settle, or null between searches.  Only
+         * accessed from our batches until we are done.
+         */
+        private ShortestPathSolver solver;
+        private SearchRegion region;
+
+        /**
+         * Sizes the batches of the current search, or null between searches.  Only accessed from
+         * our batches.
+         */
+        private BatchSizer batchSizer;
+
+        Speculation(String weightName, int cursorId, int radius, int startEpoch) {
+            this.weightName = weightName;
+            this.cursorId = cursorId;
+            this.radius = radius;
+            this.startEpoch = startEpoch;
+        }
+
+        @Override
+        protected Boolean runBatch() {
+            while (solver == null) {
+                if (candidatesDone == 2) {
+                    return true;
+                }
+                // Finding the strongest edge requires the weight table, which would be too slow to
+                //  compute on the EDT.
+                int startId = (candidatesDone == 0) ? cursorId
+                        : strongestEdgeNear(graph, weightName, cursorId);
+                if (cache.get(graph, weightName, startId) != null) {
+                    candidatesDone += 1;
+                    continue;
+                }
+                solver = ScissorsSelectionModel.makeSolver(graph, weightName);
+                solver.recordDeltas(true);
+                solver.setStart(startId);
+                region = new SearchRegion(graph, startId, radius);
+                batchSizer = new BatchSizer(TimeUnit.MILLISECONDS.toNanos(BATCH_MILLIS));
+            }
+            int settledBefore = solver.settledCount();
+            solver.advance(batchSizer.startBatch());
+            batchSizer.finishBatch(solver.settledCount() - settledBefore);
+            if (region.update(solver.takeDelta()) || solver.allPathsFound()) {
+                solver.recordDeltas(false);
+                offer(weightName, solver.snapshot(), solver, startEpoch);
+                solver = null;
+                batchSizer = null;
+                candidatesDone += 1;
+            }
+            return null;
+        }
+
+        /**
+         * Nobody will query an abandoned search's results, so free its storage.
+         */
+        @Override
+        protected void cleanUp() {
+            if (solver != null) {
+                solver.release();
+            }
+        }
+
+        /**
+         * Free the storage of a search whose batch failed; a cancelled search's last batch may
+         * still be running, so it is cleaned up by `cleanUp()` instead.
+         */
+        @Override
+        protected void done() {
+            if (!isCancelled()) {
+                cleanUp();
+            }
+        }
+    }
+
+    /**
+     * Return the ID of the pixel within `SNAP_RADIUS` of the pixel with ID `centerId` in `graph`
+     * that has the lightest edge (as weighed by the weigher named `weightName`).  Since light edges
+     * follow strong image features, this is where the user is most likely aiming.  Ties are broken
+     * in favor of pixels nearer the center.
+     */
+    private static int strongestEdgeNear(ImageGraph graph, String weightName, int centerId) {
+        WeightTable weights = graph.weightTable(weightName);
+        Point center = graph.getVertex(centerId).point();
+        int minX = Math.max(0, center.x - SNAP_RADIUS);
+        int maxX = Math.min(graph.width() - 1, center.x + SNAP_RADIUS);
+        int minY = Math.max(0, center.y - SNAP_RADIUS);
+        int maxY = Math.min(graph.height() - 1, center.y + SNAP_RADIUS);
+
+        class Lightest implements IntEdgeConsumer {
+            int fromId;
+            int weight;
+
+            @Override
+            public void accept(int endId, int dir) {
+                weight = Math.min(weight, weights.weight(fromId, dir));
+            }
+        }
+        Lightest lightest = new Lightest();
+        int bestId = centerId;
+        long bestScore = Long.MAX_VALUE;
+        for (int y = minY; y <= maxY; ++y) {
+            for (int x = minX; x <= maxX; ++x) {
+                lightest.fromId = ImageVertex.xyToId(x, y, graph.width());
+                lightest.weight = Integer.MAX_VALUE;
+                graph.forEachNeighbor(lightest.fromId, lightest);
+                // Weight dominates; distance from the center breaks ties.
+                int distance = Math.max(Math.abs(x - center.x), Math.abs(y - center.y));
+                long score = ((long) lightest.weight << 8) | distance;
+                if (score < bestScore) {
+                    bestScore = score;
+                    bestId = lightest.fromId;
+                }
+            }
+        }
+        return bestId;
+    }
+}
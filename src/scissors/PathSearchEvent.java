@@ -0,0 +1,33 @@
+package scissors;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A flight-recorder event spanning a `ScissorsSelectionModel`'s request for paths from a new point,
+ * from `findPaths()` until the background search serving it is done (or instantaneous, if the
+ * paths were cached).
+ */
+@Name("smarttrace.PathSearch")
+@Label("Path Search")
+@Category({"SmartTrace", "Pathfinding"})
+@Description("Finding shortest paths from a selection point, from request to results")
+class PathSearchEvent extends Event {
+
+    @Label("Start Vertex")
+    int startVertex;
+
+    @Label("Weigher")
+    String weigher;
+
+    @Label("Vertices Settled")
+    @Description("Vertices settled by the background search (0 if the paths were cached)")
+    long settled;
+
+    @Label("Outcome")
+    @Description("cached, completed, cancelled, superseded, or failed")
+    String outcome;
+}
@@ -0,0 +1,339 @@
+package scissors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingUtilities;
+
+/**
+ * Runs background pathfinding searches for selection models.  A search is a `Task` performed in
+ * batches: each batch runs on a bounded pool of platform threads sized to the machine's
+ * processors, while the search between batches is coordinated by its own virtual thread, which
+ * costs almost nothing while it waits.  Since searches only occupy a pool thread for one batch at
+ * a time, many searches share the pool fairly, and a cancelled search stops at its next batch
+ * (without waiting behind other searches' work).
+ * <p>
+ * Each model submits its searches to its own `Lane`, which runs at most one search at a time:
+ * starting a search cancels the lane's previous one, and waits for that search's current batch to
+ * finish before running any of its own.  Rapid clicks or undos therefore never queue up stale
+ * searches.  All methods are thread-safe.
+ */
+final class PathfindingExecutor {
+
+    /**
+     * The executor shared by models that are not given one.  Created when first needed.
+     */
+    private static PathfindingExecutor shared;
+
+    /**
+     * Runs batches of searches' work.  Its threads are daemons and exit when idle, so an unused
+     * executor holds no threads.
+     */
+    private final ThreadPoolExecutor pool;
+
+    /**
+     * Create an executor running at most `threads` batches at once.  Requires `threads` is
+     * positive.
+     */
+    PathfindingExecutor(int threads) {
+        assert threads > 0;
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(r, "pathfinding-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        pool = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), factory);
+        pool.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Return the executor shared by models that are not given one, with a thread per processor.
+     */
+    static synchronized PathfindingExecutor shared() {
+        if (shared == null) {
+            shared = new PathfindingExecutor(Runtime.getRuntime().availableProcessors());
+        }
+        return shared;
+    }
+
+    /**
+     * Return the largest number of batches this executor runs at once.
+     */
+    int threads() {
+        return pool.getMaximumPoolSize();
+    }
+
+    /**
+     * Return a new lane for submitting one model's searches.
+     */
+    Lane newLane() {
+        return new Lane();
+    }
+
+    /**
+     * A sequence of searches of which at most one is active at a time.
+     */
+    final class Lane {
+
+        /**
+         * The most recently started search, or null if none has been started.  Guarded by `this`.
+         */
+        private Task<?, ?> current;
+
+        private Lane() {
+        }
+
+        /**
+         * Cancel this lane's current search (if any) and start `task`, once the cancelled search
+         * has finished its current batch.  Requires `task` has not been started before.
+         */
+        void start(Task<?, ?> task) {
+            Task<?, ?> previous;
+            synchronized (this) {
+                previous = current;
+                current = task;
+            }
+            if (previous != null) {
+                previous.cancel();
+            }
+            Thread.ofVirtual().name("pathfinding-coordinator").start(() -> {
+                if (previous != null) {
+                    previous.awaitStopped();
+                }
+                task.coordinate(pool);
+            });
+        }
+    }
+
+    /**
+     * A search performed in batches, which publishes intermediate results of type `P` to the EDT
+     * and produces a final result of type `V`.  Modeled after `SwingWorker`: `runBatch()` is called
+     * on pool threads (one batch at a time, so it needs no synchronization of its own), while
+     * `process()` and `done()` are called on the EDT.
+     */
+    abstract static class Task<V, P> {
+
+        /**
+         * The stages of a task's life.  A task is done once it has succeeded, failed, or been
+         * cancelled.
+         */
+        enum State { PENDING, RUNNING, SUCCEEDED, FAILED, CANCELLED }
+
+        /**
+         * Our current stage.  Guarded by `this`.
+         */
+        private State state = State.PENDING;
+
+        /**
+         * Our result, if we succeeded, or the exception we threw, if we failed.  Guarded by
+         * `this`.
+         */
+        private V result;
+        private Throwable failure;
+
+        /**
+         * Intermediate results published since `process()` was last called.  Guarded by `this`.
+         */
+        private final List<P> published = new ArrayList<>();
+
+        /**
+         * The percentage of our work that is complete, as last reported by `setProgress()`.
+         */
+        private volatile int progress;
+
+        /**
+         * Counted down once we have stopped running batches (whether or not we are done), so that
+         * the next search on our lane can start.
+         */
+        private final CountDownLatch stopped = new CountDownLatch(1);
+
+        /**
+         * Perform the next batch of this task's work, returning the task's result if it is now
+         * complete, or null if more batches are needed.  Called on a pool thread.
+         */
+        protected abstract V runBatch() throws Exception;
+
+        /**
+         * Release any resources held by this task after it has been cancelled.  Called on a
+         * background thread once no batch is running (and none ever will again).  Does nothing
+         * unless overridden.
+         */
+        protected void cleanUp() {
+        }
+
+        /**
+         * Receive the intermediate results published since this method was last called, in the
+         * order they were published.  Called on the EDT, but not after `done()`.  Does nothing
+         * unless overridden.
+         */
+        protected void process(List<P> chunks) {
+        }
+
+        /**
+         * Called on the EDT once this task is done (promptly after it is cancelled, even if a batch
+         * is still running).  Does nothing unless overridden.
+         */
+        protected void done() {
+        }
+
+        /**
+         * Send `chunk` to `process()` on the EDT.  Chunks published in quick succession may be
+         * delivered in a single call.
+         */
+        protected final void publish(P chunk) {
+            boolean first;
+            synchronized (this) {
+                if (state == State.CANCELLED) {
+                    return;
+                }
+                first = published.isEmpty();
+                published.add(chunk);
+            }
+            if (first) {
+                SwingUtilities.invokeLater(this::deliverPublished);
+            }
+        }
+
+        /**
+         * Record that `percent` percent of this task's work is complete.  Requires `percent` is
+         * between 0 and 100.
+         */
+        protected final void setProgress(int percent) {
+            assert percent >= 0 && percent <= 100;
+            progress = percent;
+        }
+
+        /**
+         * Return the percentage of this task's work most recently reported as complete.
+         */
+        final int getProgress() {
+            return progress;
+        }
+
+        /**
+         * Stop this task at its next batch (if it is not already done), and call `done()` on the
+         * EDT.  Returns whether this task was cancelled by this call.
+         */
+        final boolean cancel() {
+            synchronized (this) {
+                if (isDone()) {
+                    return false;
+                }
+                state = State.CANCELLED;
+                published.clear();
+            }
+            SwingUtilities.invokeLater(this::done);
+            return true;
+        }
+
+        final synchronized boolean isCancelled() {
+            return state == State.CANCELLED;
+        }
+
+        final synchronized boolean isDone() {
+            return state == State.SUCCEEDED || state == State.FAILED
+                    || state == State.CANCELLED;
+        }
+
+        /**
+         * Return this task's result.  Throws CancellationException if it was cancelled, or
+         * ExecutionException wrapping the exception it threw if it failed.  Requires this task is
+         * done.
+         */
+        final synchronized V get() throws ExecutionException {
+            assert isDone();
+            return switch (state) {
+                case CANCELLED -> throw new CancellationException();
+                case FAILED -> throw new ExecutionException(failure);
+                default -> result;
+            };
+        }
+
+        /**
+         * Run this task's batches on `pool` until it completes, fails, or is cancelled, then make
+         * it done.  Called on this task's coordinating thread.
+         */
+        private void coordinate(ThreadPoolExecutor pool) {
+            try {
+                synchronized (this) {
+                    if (state != State.PENDING) {
+                        return;
+                    }
+                    state = State.RUNNING;
+                }
+                V batchResult = null;
+                while (batchResult == null) {
+                    // A batch waiting in the pool's queue when we are cancelled is skipped.
+                    batchResult = pool.submit(() -> isCancelled() ? null : runBatch()).get();
+                    if (isCancelled()) {
+                        return;
+                    }
+                }
+                finish(State.SUCCEEDED, batchResult, null);
+            } catch (ExecutionException e) {
+                finish(State.FAILED, null, e.getCause());
+            } catch (InterruptedException e) {
+                // Coordinating threads are never interrupted
+                throw new AssertionError(e);
+            } finally {
+                if (isCancelled()) {
+                    cleanUp();
+                }
+                stopped.countDown();
+            }
+        }
+
+        /**
+         * Make this task done in state `finalState` with result `value` or failure `cause`, and
+         * call `done()` on the EDT, unless it has already been cancelled.
+         */
+        private void finish(State finalState, V value, Throwable cause) {
+            synchronized (this) {
+                if (state == State.CANCELLED) {
+                    return;
+                }
+                state = finalState;
+                result = value;
+                failure = cause;
+            }
+            // Any published chunks are delivered first, since they were queued first.
+            SwingUtilities.invokeLater(this::done);
+        }
+
+        /**
+         * Wait until this task has stopped running batches.
+         */
+        private void awaitStopped() {
+            try {
+                stopped.await();
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        }
+
+        /**
+         * Pass our published chunks to `process()`, unless we have been cancelled.  Called on the
+         * EDT.
+         */
+        private void deliverPublished() {
+            List<P> chunks;
+            synchronized (this) {
+                if (published.isEmpty() || state == State.CANCELLED) {
+                    return;
+                }
+                chunks = new ArrayList<>(published);
+                published.clear();
+            }
+            process(chunks);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package scissors;
+
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+
+/**
+ * Reads the samples of a raster.  `Raster.getSample()` goes through several layers of virtual
+ * calls and bounds checks for every sample, so the rasters of the common `BufferedImage` types are
+ * instead read straight from their backing arrays: packed `int` pixels (`TYPE_INT_RGB`,
+ * `TYPE_INT_ARGB`, and the like) and interleaved `byte` samples (`TYPE_3BYTE_BGR`,
+ * `TYPE_BYTE_GRAY`, and the like).  Views of tiled images are read a row at a time from their
+ * mapped tiles.  Other rasters are read through the generic `Raster` methods.
+ * <p>
+ * Coordinates are relative to the raster's top-left corner (so that they match pixel coordinates
+ * in an `ImageGraph`).  Readers are immutable and safe to share between threads, but reflect any
+ * later changes to their raster's samples.
+ */
+abstract class SampleReader {
+
+    /**
+     * The dimensions of the raster being read, and its number of bands.
+     */
+    private final int width, height, numBands;
+
+    private SampleReader(Raster raster) {
+        width = raster.getWidth();
+        height = raster.getHeight();
+        numBands = raster.getNumBands();
+    }
+
+    /**
+     * Return a reader for the samples of `raster`, specialized for its layout if possible.
+     */
+    static SampleReader of(Raster raster) {
+        SampleModel model = raster.getSampleModel();
+        DataBuffer buffer = raster.getDataBuffer();
+        if (model instanceof SinglePixelPackedSampleModel packed
+                && buffer instanceof DataBufferInt ints && ints.getNumBanks() == 1) {
+            return new PackedIntReader(raster, packed, ints);
+        }
+        if (model instanceof SinglePixelPackedSampleModel packed
+                && buffer instanceof TiledImage.TileBuffer tiles) {
+            return new TiledReader(raster, packed, tiles);
+        }
+        if (model instanceof ComponentSampleModel component
+                && buffer instanceof DataBufferByte bytes && singleBank(component)) {
+            return new InterleavedByteReader(raster, component, bytes);
+        }
+        return new GenericReader(raster);
+    }
+
+    /**
+     * Return whether every band of `model` is stored in its data buffer's first bank.
+     */
+    private static boolean singleBank(ComponentSampleModel model) {
+        for (int bank : model.getBankIndices()) {
+            if (bank != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int width() {
+        return width;
+    }
+
+    int height() {
+        return height;
+    }
+
+    int numBands() {
+        return numBands;
+    }
+
+    /**
+     * Return the sample of band `b` of the pixel at (`x`, `y`).  Requires the pixel and band are
+     * within the raster.
+     */
+    abstract int sample(int x, int y, int b);
+
+    /**
+     * Copy the samples of band `b` of the pixels in row `y` into `row[0..width())`.  Requires the
+     * row and band are within the raster and `row` is at least `width()` long.
+     */
+    abstract void readRow(int y, int b, int[] row);
+
+    /**
+     * Reads rasters whose pixels are packed into one `int` each, with each band occupying a
+     * bit field.
+     */
+    private static final class PackedIntReader extends SampleReader {
+
+        /**
+         * The backing array of the raster's pixels.
+         */
+        private final int[] data;
+
+        /**
+         * The index in `data` of the raster's top-left pixel, and the distance between the
+         * indices of vertically adjacent pixels.
+         */
+        private final int origin, scanlineStride;
+
+        /**
+         * The bit mask and (right) shift extracting each band's sample from a pixel.
+         */
+        private final int[] masks, shifts;
+
+        PackedIntReader(Raster raster, SinglePixelPackedSampleModel model, DataBufferInt buffer) {
+            super(raster);
+            data = buffer.getData();
+            scanlineStride = model.getScanlineStride();
+            origin = buffer.getOffset()
+                    + (raster.getMinY() - raster.getSampleModelTranslateY()) * scanlineStride
+                    + (raster.getMinX() - raster.getSampleModelTranslateX());
+            masks = model.getBitMasks();
+            shifts = model.getBitOffsets();
+        }
+
+        @Override
+        int sample(int x, int y, int b) {
+            return (data[origin + y * scanlineStride + x] & masks[b]) >>> shifts[b];
+        }
+
+        @Override
+        void readRow(int y, int b, int[] row) {
+            int mask = masks[b];
+            int shift = shifts[b];
+            int start = origin + y * scanlineStride;
+            for (int x = 0; x < width(); ++x) {
+                row[x] = (data[start + x] & mask) >>> shift;
+            }
+        }
+    }
+
+    /**
+     * Reads rasters whose samples are stored as one unsigned `byte` each, with the samples of
+     * each pixel stored near each other.
+     */
+    private static final class InterleavedByteReader extends SampleReader {
+
+        /**
+         * The backing array of the raster's samples.
+         */
+        private final byte[] data;
+
+        /**
+         * The index in `data` of the raster's top-left pixel, and the distances between the
+         * indices of vertically and horizontally adjacent pixels.
+         */
+        private final int origin, scanlineStride, pixelStride;
+
+        /**
+         * The offset of each band's sample from the index of its pixel.
+         */
+        private final int[] bandOffsets;
+
+        InterleavedByteReader(Raster raster, ComponentSampleModel model, DataBufferByte buffer) {
+            super(raster);
+            data = buffer.getData();
+            scanlineStride = model.getScanlineStride();
+            pixelStride = model.getPixelStride();
+            origin = buffer.getOffset()
+                    + (raster.getMinY() - raster.getSampleModelTranslateY()) * scanlineStride
+                    + (raster.getMinX() - raster.getSampleModelTranslateX()) * pixelStride;
+            bandOffsets = model.getBandOffsets();
+        }
+
+        @Override
+        int sample(int x, int y, int b) {
+            return data[origin + y * scanlineStride + x * pixelStride + bandOffsets[b]] & 0xFF;
+        }
+
+        @Override
+        void readRow(int y, int b, int[] row) {
+            int start = origin + y * scanlineStride + bandOffsets[b];
+            if (pixelStride == 1) {
+                for (int x = 0; x < width(); ++x) {
+                    row[x] = data[start + x] & 0xFF;
+                }
+            } else {
+                for (int x = 0; x < width(); ++x) {
+                    row[x] = data[start + x * pixelStride] & 0xFF;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the rasters of views of tiled images (see `TiledImage.view()`), whose pixels are packed
+     * into one `int` each like those of `TYPE_INT_RGB` images.
+     */
+    private static final class TiledReader extends SampleReader {
+
+        /**
+         * The tiled image being viewed.
+         */
+        private final TiledImage image;
+
+        /**
+         * The location in `image` of the raster's top-left pixel.
+         */
+        private final int originX, originY;
+
+        /**
+         * The bit mask and (right) shift extracting each band's sample from a pixel.
+         */
+        private final int[] masks, shifts;
+
+        TiledReader(Raster raster, SinglePixelPackedSampleModel model,
+                TiledImage.TileBuffer buffer) {
+            super(raster);
+            image = buffer.image;
+            originX = buffer.region.x + raster.getMinX() - raster.getSampleModelTranslateX();
+            originY = buffer.region.y + raster.getMinY() - raster.getSampleModelTranslateY();
+            masks = model.getBitMasks();
+            shifts = model.getBitOffsets();
+        }
+
+        @Override
+        int sample(int x, int y, int b) {
+            return (image.getRGB(originX + x, originY + y) & masks[b]) >>> shifts[b];
+        }
+
+        @Override
+        void readRow(int y, int b, int[] row) {
+            int mask = masks[b];
+            int shift = shifts[b];
+            image.readRow(originX, originY + y, row, 0, width());
+            for (int x = 0; x < width(); ++x) {
+                row[x] = (row[x] & mask) >>> shift;
+            }
+        }
+    }
+
+    /**
+     * Reads any raster through its generic methods.
+     */
+    private static final class GenericReader extends SampleReader {
+
+        private final Raster raster;
+
+        GenericReader(Raster raster) {
+            super(raster);
+            this.raster = raster;
+        }
+
+        @Override
+        int sample(int x, int y, int b) {
+            return raster.getSample(raster.getMinX() + x, raster.getMinY() + y, b);
+        }
+
+        @Override
+        void readRow(int y, int b, int[] row) {
+            raster.getSamples(raster.getMinX(), raster.getMinY() + y, width(), 1, b, row);
+        }
+    }
+}
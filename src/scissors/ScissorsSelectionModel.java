@@ -2,18 +2,21 @@ package scissors;
 
 import static selector.SelectionModel.SelectionState.*;
 
+import graph.ParallelShortestPaths;
 import graph.PathfindingSnapshot;
+import graph.SearchDelta;
+import graph.ShortestPathSolver;
 import graph.ShortestPaths;
 import java.awt.Point;
 import java.awt.image.BufferedImage;
-import java.beans.PropertyChangeEvent;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-import javax.swing.SwingWorker;
-import javax.swing.SwingWorker.StateValue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.Timer;
 import javax.swing.plaf.InternalFrameUI;
 import selector.PolyLine;
 import selector.SelectionModel;
@@ -21,12 +24,55 @@ import selector.SelectionModel;
 /**
  * Models a selection tool that connects each added point with a path determined by the "intelligent
  * scissors" algorithm using a configurable weight function.
+ * <p>
+ * If our image context only covers a region of its image (see `ImageContext.regionAround()`),
+ * points are moved into that region.  When a new selection is started outside of the region of a
+ * context of our own, we trace a region around the new starting point instead.
  */
 public class ScissorsSelectionModel extends SelectionModel {
 
     /**
-     * The graph representation of the current image being rendered and traced (null if inherited
-     * `img` is null).
+     * The default radius (in pixels) of the square region of interest around each new endpoint
+     * that our background search settles before finishing.
+     */
+    public static final int DEFAULT_SEARCH_RADIUS = 256;
+
+    /**
+     * Images with at least this many pixels are searched by `ParallelShortestPaths` (when more than
+     * one processor is available); smaller ones are searched sequentially, since the parallel
+     * solver's coordination costs would outweigh its gains.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 22;
+
+    /**
+     * The default time (in milliseconds) our background searches aim to spend on each batch
+     * between progress reports: about one frame, so that the progress bar and overlay advance
+     * smoothly without flooding the EDT.
+     */
+    public static final int DEFAULT_BATCH_MILLIS = 16;
+
+    /**
+     * How long (in milliseconds) the cursor must rest before we speculate that the user is about to
+     * click near it.
+     */
+    private static final int SPECULATION_DELAY = 150;
+
+
+    /**
+     * The shared state for the current image being rendered and traced, which may also be used by
+     * other models (null if inherited `img` is null).
+     */
+    private ImageContext context;
+
+    /**
+     * Whether `context` was created for this model (or for the model it was copied from) rather
+     * than given to it, in which case its cached paths are discarded when it is replaced.
+     */
+    private boolean ownsContext;
+
+    /**
+     * The graph representation of the current image being rendered and traced, taken from
+     * `context` (null if inherited `img` is null).
      */
     private ImageGraph graph;
 
@@ -43,26 +89,106 @@ public class ScissorsSelectionModel extends SelectionModel {
     private PathfindingSnapshot paths;
 
     /**
-     * The most recent intermediate paths from the current shortest paths solve.  Null if no ongoing
-     * solve or if solve has not reported any progress yet.
+     * The solver that produced `paths`, retained so that its search can be extended on demand if it
+     * stopped before finding paths to every pixel, and so that its storage can be released once
+     * `paths` is no longer needed.  Null if `paths` is null or was taken from `pathCache` (in which
+     * case a new solver is created if the search needs extending).  Only accessed from the EDT once
+     * its worker is done.
      */
-    private PathfindingSnapshot pendingPaths;
+    private ShortestPathSolver pathsSolver;
 
     /**
-     * The SwingWorker currently being used to solve for shortest paths on a background thread. Note
-     * that "progress" events from `worker` will be forwarded to our own property change listeners.
-     * Null if not PROCESSING.  Note: To support asynchronous cancellation, workers should not make
-     * any changes to this model or forward any events if `worker` does not currently point to
-     * them.
+     * The radius (in pixels) of the square region of interest around each new endpoint that our
+     * background search settles before finishing; paths to pixels outside of it are found lazily
+     * when requested.
+     */
+    private int searchRadius = DEFAULT_SEARCH_RADIUS;
+
+    /**
+     * The time (in milliseconds) our background searches aim to spend on each batch between
+     * progress reports.  The number of vertices settled per batch is adapted to the measured
+     * settling rate to meet it.
+     */
+    private int batchMillis = DEFAULT_BATCH_MILLIS;
+
+    /**
+     * Totals for the background searches run on the current image.  Replaced (rather than reset)
+     * when the image changes, so that workers still running for an old image do not count towards
+     * the new one.
+     */
+    private AtomicReference<SearchStats> searchStats = new AtomicReference<>(SearchStats.NONE);
+
+    /**
+     * A straight segment appended to our selection as a stand-in for the path from the pixel with
+     * ID `fromId` to the pixel with ID `toId`, until a worker finds that path.
+     */
+    private record PendingSegment(PolyLine placeholder, int fromId, int toId) {
+
+    }
+
+    /**
+     * Segments of our selection still awaiting their paths, in the order they were added.  A point
+     * added while processing is connected by a point-to-point search run by our next worker (off
+     * the EDT), so its segment is drawn straight until that search finishes.  Entries whose
+     * placeholders have since left the selection (by an undo or reset) are pruned lazily.
+     */
+    private final List<PendingSegment> pendingSegments = new ArrayList<>();
+
+    /**
+     * The most recent cursor location reported by `cursorMoved()`, or null if none.
+     */
+    private Point cursor;
+
+    /**
+     * Fires once the cursor has rested for `SPECULATION_DELAY` milliseconds, prompting our
+     * context's precomputer to speculate about the cursor's location.  Created when the cursor first
+     * moves (rather than during construction, when it would capture a partly constructed model);
+     * null until then.
+     */
+    private Timer speculationTimer;
+
+    /**
+     * The progress of the current shortest paths solve, accumulated from the deltas its worker
+     * publishes.  Null if no ongoing solve or if solve has not reported any progress yet.
+     */
+    private SearchProgress searchProgress;
+
+    /**
+     * The worker currently being used to solve for shortest paths on a background thread.  Note
+     * that its progress will be reported to our own property change listeners as "progress"
+     * events.  Null if not PROCESSING.  Note: To support asynchronous cancellation, workers should
+     * not make any changes to this model or forward any events if `worker` does not currently point
+     * to them.
      */
     private ShortestPathsWorker worker;
 
+    /**
+     * Runs our workers on our context's pathfinding executor, one at a time: starting a worker
+     * cancels the previous one.  Null if `context` is null.
+     */
+    private PathfindingExecutor.Lane searches;
+
+    /**
+     * The task extending our finished search (on `searches`) to reach the pixel under the
+     * live-wire's end, or null if none is running.  While it runs, it holds the solver that would
+     * otherwise be `pathsSolver`.
+     */
+    private PathExtension extension;
+
     /**
      * The state we last transitioned into PROCESSING from (and which we will return to if the
      * processing is cancelled).  Value is unspecified if we are not in PROCESSING.
      */
     private SelectionState previousState;
 
+    /**
+     * The `System.nanoTime()` at which paths were requested from a new point that a live-wire will
+     * be drawn from, or 0 if no live-wire is awaited.  `awaitedPathsCached` says whether those
+     * paths were cached.  Used to measure the time to first live-wire (see `SelectionMetrics`).
+     */
+    private long liveWireAwaitedSince;
+    private boolean awaitedPathsCached;
+
     /**
      * Create a `ScissorsSelectionModel` in which the "intelligent scissors" algorithm will use the
      * weight function named `weightName` (as recognized by the `ScissorsWeights` factory). See
@@ -73,20 +199,45 @@ public class ScissorsSelectionModel extends SelectionModel {
         this.weightName = weightName;
     }
 
+    /**
+     * Create a `ScissorsSelectionModel` in which the "intelligent scissors" algorithm will use the
+     * weight function named `weightName` (as recognized by the `ScissorsWeights` factory), selecting
+     * from the image of `context` (which may be shared with other models).  See `SelectionModel`
+     * for interpretation of `notifyOnEdt`.
+     */
+    // Adopting the context resets the selection through overridable methods, as `setImage()` does
+    //  for the `SelectionModel` constructors.
+    @SuppressWarnings("this-escape")
+    public ScissorsSelectionModel(String weightName, ImageContext context, boolean notifyOnEdt) {
+        this(weightName, notifyOnEdt);
+        setContext(context);
+    }
+
     /**
      * Create a `ScissorsSelectionModel` in which the "intelligent scissors" algorithm will use the
      * weight function named `weightName` (as recognized by the `ScissorsWeights` factory).
      * Initialize this model to represent the same selection of the same image as `copy` (but does
-     * not copy any listeners from `copy`).  See `SelectionModel` for thread restrictions.
+     * not copy any listeners from `copy`).  If `copy` is also a `ScissorsSelectionModel`, this
+     * model shares its image context.  See `SelectionModel` for thread restrictions.
      */
+    @SuppressWarnings("this-escape")
     public ScissorsSelectionModel(String weightName, SelectionModel copy) {
         super(copy);
         this.weightName = weightName;
-        if (image() != null) {
-            graph = new ImageGraph(image());
+        if (copy instanceof ScissorsSelectionModel scissors && scissors.context != null) {
+            useContext(scissors.context);
+            ownsContext = scissors.ownsContext;
+        } else if (image() != null) {
+            useContext(ImageContext.regionAround(image(),
+                    (state() != NO_SELECTION) ? lastPoint() : center(image())));
+            ownsContext = true;
+            // A selection made without intelligent scissors may stray beyond the region we trace.
+            if (state() != NO_SELECTION && !coversSelection()) {
+                reset();
+            }
         }
         if (state() == SELECTING) {
-            findPaths(graph.idAt(lastPoint()));
+            findPaths(graph.idAt(lastPoint()), graph.idAt(start));
         }
     }
 
@@ -103,23 +254,137 @@ public class ScissorsSelectionModel extends SelectionModel {
         // we need to maintain our invariant regarding `worker` by setting to null.  Any running
         // worker will notice this and refrain from changing us.
         worker = null;
+        cancelExtension();
+
+        // Our paths may be wanted again if a new selection starts at the same point.
+        retirePaths();
 
         super.reset();
     }
 
+    /**
+     * Select from `img` instead of any previous image, with a new image context of our own.  Use
+     * `setContext()` instead to share an image context with other models.
+     */
     @Override
     public void setImage(BufferedImage img) {
         // Overridden due to the need to update our graph
+        ImageContext old = ownsContext ? context : null;
+        setContext((img != null) ? ImageContext.regionAround(img, center(img)) : null);
+        ownsContext = (img != null);
+        // Our paths were cached when the selection was reset, but nobody will want them now.
+        if (old != null) {
+            old.discardCachedPaths();
+        }
+    }
 
-        super.setImage(img);
+    /**
+     * Select from the image of `context` (or from no image, if `context` is null) instead of any
+     * previous image, sharing the context's graph, weight tables, found paths, and pathfinding
+     * executor with any other models using it.  Resets the selection.  Notifies listeners that the
+     * "image" property has changed.
+     */
+    public void setContext(ImageContext context) {
+        super.setImage((context != null) ? context.image() : null);
 
         // In addition to whatever our superclass does to set the image, we also need to replace our
-        //  graph with one that represents the new image.
-        if (img != null) {
-            graph = new ImageGraph(img);
-        } else {
-            graph = null;
+        //  graph with the new context's, which represents the new image.
+        useContext(context);
+        ownsContext = false;
+        searchStats = new AtomicReference<>(SearchStats.NONE);
+    }
+
+    /**
+     * Return the image context we are selecting with, which may be shared with other models by
+     * passing it to their `setContext()`.  Returns null if we have no image.
+     */
+    public ImageContext context() {
+        return context;
+    }
+
+    /**
+     * Return the center of `img`.
+     */
+    private static Point center(BufferedImage img) {
+        return new Point(img.getWidth() / 2, img.getHeight() / 2);
+    }
+
+    /**
+     * Return whether our context covers the starting point and the end of every segment of our
+     * selection.  Requires a selection has been started.
+     */
+    private boolean coversSelection() {
+        if (!context.covers(start)) {
+            return false;
+        }
+        for (PolyLine segment : selection) {
+            if (!context.covers(segment.end())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Make `context` (which may be null) our image context, taking our graph and search lane from
+     * it.
+     */
+    private void useContext(ImageContext context) {
+        cancelExtension();
+        this.context = context;
+        graph = (context != null) ? context.graph() : null;
+        searches = (context != null) ? context.executor().newLane() : null;
+    }
+
+    /**
+     * Points may also be added while processing the most recently added point (but not while
+     * processing a moved point); the point will be connected with a point-to-point search instead
+     * of waiting for the background solve to finish.
+     */
+    @Override
+    public boolean canAddPoint() {
+        return super.canAddPoint() || (state() == PROCESSING && previousState != SELECTED);
+    }
+
+    @Override
+    public void addPoint(Point p) {
+        // Overridden to allow adding points while processing.  The background solve is abandoned
+        //  (without undoing the point it was started from), and the new segment will be found by
+        //  `appendToSelection()`.
+        if (state() == PROCESSING && previousState != SELECTED) {
+            cancelProcessing();
+            worker = null;
+            setState(SELECTING);
         }
+        super.addPoint(p);
+    }
+
+    /**
+     * Set the radius (in pixels) of the region of interest that future background searches will
+     * settle before finishing.  Use `Integer.MAX_VALUE` to always search the whole image.  Requires
+     * `radius` is non-negative.
+     */
+    public void setSearchRadius(int radius) {
+        assert radius >= 0;
+        searchRadius = radius;
+    }
+
+    /**
+     * Set the time (in milliseconds) that future background searches will aim to spend on each
+     * batch between progress reports.  Requires `millis` is positive.
+     */
+    public void setBatchMillis(int millis) {
+        assert millis > 0;
+        batchMillis = millis;
+    }
+
+    /**
+     * Return totals for the background searches run on our current image so far (including any
+     * search still running): the number of batches, the vertices settled, and the time spent
+     * settling and publishing progress.
+     */
+    public SearchStats searchStats() {
+        return searchStats.get();
     }
 
     @Override
@@ -131,29 +396,51 @@ public class ScissorsSelectionModel extends SelectionModel {
         if (state() != NO_SELECTION) {
             throw new IllegalStateException("Cannot start selection from state " + state());
         }
-        this.start = new Point(start);
+        if (ownsContext && !context.covers(start)) {
+            // Our context only covers a region of our image, so trace a region around `start`
+            //  instead (our old context's paths were cached when our selection was reset).
+            ImageContext old = context;
+            useContext(ImageContext.regionAround(image(), start));
+            old.discardCachedPaths();
+        }
+        this.start = context.clamp(new Point(start));
 
         // Find shortest paths from our start node so we will know what segment to connect to the
         //  next added (or live wire) point.
-        int committedId = graph.idAt(start);
-        findPaths(committedId);
+        findPaths(graph.idAt(this.start));
     }
 
     @Override
     public void finishSelection() {
         // Overridden to skip the processing that otherwise runs when a point is added
 
-        if (state() == SELECTED) {
+        if (state() == SELECTED || (state() == PROCESSING && previousState == SELECTED)) {
             throw new IllegalStateException("Cannot finish a selection that is already finished");
         }
         if (selection.isEmpty()) {
             reset();
-        } else {
-            int committedId = graph.idAt(start);
-            PolyLine newSegment = graph.pathToPolyLine(paths.pathTo(committedId));
-            selection.addLast(newSegment);
+            return;
+        }
+        cancelExtension();
+        if (state() == PROCESSING) {
+            cancelProcessing();
+            worker = null;
+        }
+        int lastId = graph.idAt(lastPoint());
+        int closingId = graph.idAt(start);
+        if (paths != null && paths.start() == lastId && paths.settled(closingId)) {
+            // Every search from our endpoint also settles our start, so this is the usual case.
+            selection.addLast(graph.pathToPolyLine(pathFromLast(closingId)));
             setState(SELECTED);
+            return;
         }
+        // Our endpoint's search was interrupted, so the closing segment is drawn straight until a
+        //  worker finds it.
+        PolyLine placeholder = new PolyLine(lastPoint(), start);
+        selection.addLast(placeholder);
+        pendingSegments.add(new PendingSegment(placeholder, lastId, closingId));
+        setState(SELECTED);
+        findPaths(lastId);
     }
 
     @Override
@@ -162,7 +449,7 @@ public class ScissorsSelectionModel extends SelectionModel {
         super.undoPoint();
 
         if (state() == SELECTING) {
-            findPaths(graph.idAt(lastPoint()));
+            findPaths(graph.idAt(lastPoint()), graph.idAt(start));
         }
     }
 
@@ -183,12 +470,24 @@ public class ScissorsSelectionModel extends SelectionModel {
         //  4. Call `findPaths()` to start a new shortest-paths solve from our selection's new
         //     endpoint.
         //  Hint: The `ImageGraph` class provides methods that might help with steps 1 and 3.
+        p = context.clamp(p);
         int id = graph.idAt(p);
-        List<Integer> path = paths.pathTo(id);
+        int lastId = graph.idAt(lastPoint());
+        if (paths == null || paths.start() != lastId || !paths.settled(id)) {
+            // Our last full solve is stale (or not yet complete), or has not reached `p`, so our
+            //  next worker will search for just this segment before searching from `p`; until
+            //  then it is drawn straight.
+            PolyLine placeholder = new PolyLine(lastPoint(), p);
+            selection.addLast(placeholder);
+            pendingSegments.add(new PendingSegment(placeholder, lastId, id));
+            findPaths(id, graph.idAt(start));
+            return;
+        }
+        List<Integer> path = pathFromLast(id);
         if (path != null && !path.isEmpty()){
             PolyLine polyLine = graph.pathToPolyLine(path);
             selection.addLast(polyLine);
-            findPaths(id);
+            findPaths(id, graph.idAt(start));
         }
 //        PolyLine polyLine = graph.pathToPolyLine(path);
 //        selection.addLast(polyLine);
@@ -196,58 +495,239 @@ public class ScissorsSelectionModel extends SelectionModel {
     }
 
     /**
-     * Transition to the PROCESSING state and start solving for shortest paths from the vertex with
-     * ID `startId`.  Preserves invariants associated with `worker`, `pendingPaths`, and
-     * `previousState`.
+     * Return the shortest path from the start of `paths` to the vertex with ID `id`.  Requires
+     * `paths` has settled that vertex.  Searches from our endpoint always settle our start (for
+     * finishing the selection), and searches from a moved point settle its neighbors, so paths are
+     * never searched for on the EDT.
      */
-    private void findPaths(int startId) {
+    private List<Integer> pathFromLast(int id) {
+        assert paths.settled(id);
+        return paths.pathTo(id);
+    }
+
+    /**
+     * Extend our finished search (in the background) until it reaches the vertex with ID `id`,
+     * after which listeners are notified that the "paths" property has changed.  If an extension
+     * is already running, it is redirected to `id` instead.
+     */
+    private void extendPaths(int id) {
+        if (extension != null) {
+            extension.target = id;
+            return;
+        }
+        extension = new PathExtension(paths, pathsSolver, id);
+        pathsSolver = null;
+        searches.start(extension);
+    }
+
+    /**
+     * Stop any running extension of our search, leaving `paths` as they are.  The extension's
+     * solver is not released, since `paths` may share its storage.
+     */
+    private void cancelExtension() {
+        if (extension != null) {
+            extension.cancel();
+            extension = null;
+        }
+    }
+
+    /**
+     * Replace the placeholders of those `segments` that are still pending with the corresponding
+     * `segmentPaths` (leaving segments whose end was unreachable straight), and notify listeners
+     * if the selection has changed.
+     */
+    private void applySegments(List<PendingSegment> segments, List<List<Integer>> segmentPaths) {
+        boolean changed = false;
+        for (int i = 0; i < segments.size(); ++i) {
+            PendingSegment segment = segments.get(i);
+            List<Integer> path = segmentPaths.get(i);
+            if (!pendingSegments.removeIf(pending -> pending == segment)) {
+                continue;
+            }
+            ListIterator<PolyLine> it = selection.listIterator();
+            while (it.hasNext()) {
+                if (it.next() == segment.placeholder()) {
+                    if (path != null && !path.isEmpty()) {
+                        it.set(graph.pathToPolyLine(path));
+                        changed = true;
+                    }
+                    break;
+                }
+            }
+        }
+        if (changed) {
+            propSupport.firePropertyChange("selection", null, selection());
+        }
+    }
+
+    /**
+     * Forget pending segments whose placeholders are no longer part of our selection.
+     */
+    private void prunePendingSegments() {
+        pendingSegments.removeIf(segment -> selection.stream()
+                .noneMatch(line -> line == segment.placeholder()));
+    }
+
+    /**
+     * Add `paths` to our cache (if it fits) so that it may be reused, then forget it and its
+     * solver.  The solver's storage is released unless the cached snapshot may share it.
+     */
+    private void retirePaths() {
+        if (paths != null) {
+            context.pathCache().putOrRelease(graph, weightName, paths, pathsSolver);
+        }
+        paths = null;
+        pathsSolver = null;
+    }
+
+    /**
+     * Remember the cursor location `p` and (re)start waiting for it to rest.
+     */
+    @Override
+    public void cursorMoved(Point p) {
+        if (graph == null) {
+            return;
+        }
+        cursor = new Point(p);
+        if (speculationTimer == null) {
+            speculationTimer = createSpeculationTimer();
+        }
+        speculationTimer.restart();
+    }
+
+    /**
+     * Return a timer that, once the cursor has rested, asks our context's precomputer to speculate
+     * about its location if we are still selecting.
+     */
+    private Timer createSpeculationTimer() {
+        Timer timer = new Timer(SPECULATION_DELAY, e -> {
+            if (state() == SELECTING && cursor != null && graph != null
+                    && graph.bounds().contains(cursor)) {
+                context.precomputer().speculate(weightName, cursor, searchRadius);
+            }
+        });
+        timer.setRepeats(false);
+        return timer;
+    }
+
+    /**
+     * Return a new solver for shortest paths in `graph` weighted by the weigher named
+     * `weightName`: a parallel one for large images when multiple processors are available, and a
+     * sequential one otherwise.  The graph caches its weight tables, so only the first solver for
+     * a given weigher pays to compute them (which means this should not be called on the EDT).
+     */
+    static ShortestPathSolver makeSolver(ImageGraph graph, String weightName) {
+        WeightTable weights = graph.weightTable(weightName);
+        if (graph.vertexCount() >= PARALLEL_THRESHOLD
+                && Runtime.getRuntime().availableProcessors() > 1) {
+            return new ParallelShortestPaths(graph, weights);
+        }
+        return new ShortestPaths<>(graph, weights);
+    }
+
+    /**
+     * Make shortest paths from the vertex with ID `startId` our current paths, settling at least
+     * the vertices with IDs `targets` as well as the region of interest.  If they are cached,
+     * adopt them immediately (transitioning from NO_SELECTION to SELECTING, or otherwise staying in
+     * the current state) and return true.  Otherwise, transition to the PROCESSING state, start
+     * solving for them in the background, and return false.  Preserves invariants associated with
+     * `worker`, `searchProgress`, and `previousState`.
+     */
+    private boolean findPaths(int startId, int... targets) {
+        // If we found paths from this point before (or speculatively), use them instead of waiting
+        //  for a new search.  Our current paths are still from this point after a cancelled search
+        //  is undone.  Pending segments need a worker regardless.
+        cancelExtension();
+        prunePendingSegments();
+        PathfindingSnapshot cached = !pendingSegments.isEmpty() ? null
+                : (paths != null && paths.start() == startId) ? paths
+                : context.pathCache().get(graph, weightName, startId);
+        for (int target : targets) {
+            if (cached != null && !cached.settled(target)) {
+                cached = null;
+            }
+        }
+        // Moved points are not followed by a live-wire.
+        liveWireAwaitedSince = (state() != SELECTED) ? System.nanoTime() : 0;
+        awaitedPathsCached = (cached != null);
+        if (cached != null) {
+            PathSearchEvent event = new PathSearchEvent();
+            if (event.shouldCommit()) {
+                event.startVertex = startId;
+                event.weigher = weightName;
+                event.outcome = "cached";
+                event.commit();
+            }
+            if (paths != cached) {
+                retirePaths();
+                paths = cached;
+            }
+            worker = null;
+            searchProgress = null;
+            if (state() == NO_SELECTION) {
+                setState(SELECTING);
+            }
+            return true;
+        }
+
         previousState = state();
         setState(PROCESSING);
 
-        pendingPaths = null;
-        worker = new ShortestPathsWorker(startId);
-        worker.execute();
+        searchProgress = null;
+        worker = new ShortestPathsWorker(startId, targets);
+        searches.start(worker);
+        return false;
     }
 
     @Override
     public void movePoint(int index, Point newPos) {
         assert state() == SelectionState.SELECTED;
         assert selection.size() >= 2;
+        Point pos = context.clamp(newPos);
 
-        // Start solving for shortest paths from the moved point, which will give us the segments to
-        //  both the preceding and succeeding points.  This will transition us to the PROCESSING
-        //  state.
-        findPaths(graph.idAt(newPos));
+        // Find shortest paths from the moved point, which will give us the segments to both the
+        //  preceding and succeeding points.  If they are cached, the segments can be replaced right
+        //  away; otherwise, this will transition us to the PROCESSING state.
+        ListIterator<PolyLine> it = selection.listIterator(index + 1);
+        int succeedingId = graph.idAt(it.previous().end());
+        if (!it.hasPrevious()) {
+            it = selection.listIterator(selection.size());
+        }
+        int precedingId = graph.idAt(it.previous().start());
+        if (findPaths(graph.idAt(pos), succeedingId, precedingId)) {
+            replaceMovedSegments(index, pos);
+            return;
+        }
 
         // Our worker's `done()` method is sufficient for adding points, but we need to do more
-        //  in order to move one.  This is one way to tack additional work onto a task (it will run
-        //  on the EDT).
-        worker.addPropertyChangeListener(e -> {
-            ShortestPathsWorker src = (ShortestPathsWorker) e.getSource();
-            if ("state".equals(e.getPropertyName()) && e.getNewValue() == StateValue.DONE) {
-                // If the solve wasn't cancelled, use its results to compute the replacement
-                //  segments.
-                if (src.state() == Future.State.SUCCESS) {
-                    ListIterator<PolyLine> it = selection.listIterator(index + 1);
-                    PolyLine oldAfter = it.previous();
-                    var oaEnd = graph.vertexAt(oldAfter.end());
-                    // New segment is path from moved point to successor point
-                    it.set(graph.pathToPolyLine(paths.pathTo(oaEnd.id())));
-
-                    if (!it.hasPrevious()) {
-                        it = selection.listIterator(selection.size());
-                        start = new Point(newPos);
-                    }
-                    PolyLine oldBefore = it.previous();
-                    var obStart = graph.vertexAt(oldBefore.start());
-                    // New segment is the reverse of the path from the moved point to its
-                    //  predecessor point.
-                    it.set(graph.pathToPolyLine(paths.pathTo(obStart.id()).reversed()));
+        //  in order to move one.  If the solve isn't cancelled, its results will be used to
+        //  compute the replacement segments (on the EDT).
+        worker.afterSuccess = () -> replaceMovedSegments(index, pos);
+    }
 
-                    propSupport.firePropertyChange("selection", null, selection());
-                }
-            }
-        });
+    /**
+     * Replace the segments ending and starting at the control point with index `index` with
+     * segments to and from `newPos`, using our current paths (which must start at `newPos`), and
+     * notify listeners that the "selection" property has changed.
+     */
+    private void replaceMovedSegments(int index, Point newPos) {
+        ListIterator<PolyLine> it = selection.listIterator(index + 1);
+        PolyLine oldAfter = it.previous();
+        var oaEnd = graph.vertexAt(oldAfter.end());
+        // New segment is path from moved point to successor point
+        it.set(graph.pathToPolyLine(pathFromLast(oaEnd.id())));
+
+        if (!it.hasPrevious()) {
+            it = selection.listIterator(selection.size());
+            start = new Point(newPos);
+        }
+        PolyLine oldBefore = it.previous();
+        var obStart = graph.vertexAt(oldBefore.start());
+        // New segment is the reverse of the path from the moved point to its
+        //  predecessor point.
+        it.set(graph.pathToPolyLine(pathFromLast(obStart.id()).reversed()));
+
+        propSupport.firePropertyChange("selection", null, selection());
     }
 
     /**
@@ -264,21 +744,32 @@ public class ScissorsSelectionModel extends SelectionModel {
         //  3. Convert that path from a sequence of vertices to a `PolyLine`
         //  Hint: The `ImageGraph` class provides methods that might help with steps 1 and 3.
 
+        p = context.clamp(p);
         int id = graph.idAt(p);
-        List<Integer> path = paths.pathTo(id);
-        PolyLine polyLine = graph.pathToPolyLine(path);
+        if (!paths.settled(id)) {
+            // Our search has not reached `p` yet, so extend it in the background, and draw a
+            //  straight wire until it has.
+            extendPaths(id);
+            return new PolyLine(lastPoint(), p);
+        }
+        PolyLine polyLine = graph.pathToPolyLine(paths.pathTo(id));
+        if (liveWireAwaitedSince != 0) {
+            SelectionMetrics.recordLiveWire(System.nanoTime() - liveWireAwaitedSince,
+                    awaitedPathsCached);
+            liveWireAwaitedSince = 0;
+        }
         return polyLine;
     }
 
     /**
-     * Return the most recent pathfinding snapshot produced by our "intelligent scissors"
-     * processing, which attempts to find good paths from the end of our selection to all other
-     * pixels in the image.  Returns null if our processing has not yet produced any results.
+     * Return the current progress of our "intelligent scissors" processing, which attempts to find
+     * good paths from the end of our selection to all other pixels in the image.  Returns null if
+     * our processing has not yet produced any results.
      */
     @Override
     public ImagePathsSnapshot getProcessingProgress() {
         assert state() == PROCESSING;
-        return (pendingPaths != null) ? new ImagePathsSnapshot(graph, pendingPaths) : null;
+        return (searchProgress != null) ? new ImagePathsSnapshot(graph, searchProgress) : null;
     }
 
     @Override
@@ -286,100 +777,250 @@ public class ScissorsSelectionModel extends SelectionModel {
         assert state() == PROCESSING;
 
         if (worker != null) {
-            worker.cancel(false);
+            SearchCancelledEvent event = new SearchCancelledEvent();
+            if (event.shouldCommit()) {
+                event.startVertex = worker.startId;
+                event.weigher = worker.searchWeightName;
+                event.settled = worker.settledSoFar;
+                event.progress = worker.getProgress() / 100.0;
+                event.commit();
+            }
+            worker.cancel();
         }
     }
 
 
     /**
-     * SwingWorker for computing shortest paths and periodically updating progress.  This is an
-     * inner class, meaning it has access to all fields of its containing TraceComponent. It
-     * publishes preliminary pathfinding results (containing settled and frontier nodes) and returns
-     * the final best paths (or null if cancelled).
+     * Worker for computing shortest paths and periodically updating progress.  This is an inner
+     * class, meaning it has access to all fields of its containing TraceComponent. It publishes its
+     * progress as deltas (containing newly settled and frontier nodes) and returns the final best
+     * paths.
      */
     private class ShortestPathsWorker
-            extends SwingWorker<PathfindingSnapshot, PathfindingSnapshot> {
+            extends PathfindingExecutor.Task<PathfindingSnapshot, SearchDelta> {
 
         /**
-         * The shortest-paths solver this worker will use.  After construction, must only be
-         * accessed from the background thread.
+         * The graph to find paths in and the name of the weigher to weigh its edges with, captured
+         * from our outer model when this worker was constructed.
          */
-        private final ShortestPaths<ImageVertex, ImageEdge> pathfinder;
+        private final ImageGraph searchGraph;
+        private final String searchWeightName;
 
         /**
-         * Construct a worker that, when executed, will find the shortest paths from the vertex with
-         * ID `startId` to every pixel in our outer model's `image`.  "progress" events will be
-         * forwarded to our outer model's listeners.  This must be called from the EDT.
+         * The ID of the vertex to find shortest paths from.
          */
-        public  ShortestPathsWorker(int startId) {
-            pathfinder = new ShortestPaths<>(
-                    graph, ScissorsWeights.makeWeigher(weightName, graph));
-            pathfinder.setStart(startId);
-
-            // Forward progress property changes to outer model's listeners (as long as we are
-            // still the active solver).
-            addPropertyChangeListener((PropertyChangeEvent evt) -> {
-                if ("progress".equals(evt.getPropertyName()) && worker == this) {
-                    propSupport.firePropertyChange(evt);
-                }
-            });
+        private final int startId;
+
+        /**
+         * The context to run point-to-point searches in, and the pending segments of our outer
+         * model's selection to find paths for before searching from `startId`, captured when this
+         * worker was constructed.
+         */
+        private final ImageContext searchContext;
+        private final List<PendingSegment> segments;
+
+        /**
+         * The paths found for `segments` (in the same order), or null until our first batch has
+         * found them.  Written by our first batch and read from the EDT.
+         */
+        private volatile List<List<Integer>> segmentPaths;
+
+        /**
+         * The region of interest around `startId` that must be settled before this worker
+         * finishes, sized by our outer model when this worker was constructed.
+         */
+        private final SearchRegion region;
+
+        /**
+         * The IDs of vertices outside of `region` that must also be settled before this worker
+         * finishes (such as the neighbors of a moved point).
+         */
+        private final int[] targets;
+
+        /**
+         * Sizes our batches to take about the time budget set by our outer model when this worker
+         * was constructed.
+         */
+        private final BatchSizer batchSizer;
+
+        /**
+         * The totals for our outer model's image at the time this worker was constructed, which
+         * our batches are added to.
+         */
+        private final AtomicReference<SearchStats> stats;
+
+        /**
+         * The shortest-paths solver this worker will use.  Created by our first batch (since
+         * preparing its weigher may require computing a weight table) and must only be accessed
+         * from our batches until we are done.
+         */
+        private ShortestPathSolver pathfinder;
+
+        /**
+         * The progress percentage last reported to our outer model's listeners.  Only accessed from
+         * the EDT.
+         */
+        private int reportedProgress;
+
+        /**
+         * Additional work to do on the EDT after our results have been adopted by our outer model,
+         * or null if none.  Only accessed from the EDT.
+         */
+        private Runnable afterSuccess;
+
+        /**
+         * The number of vertices our search has settled as of our last batch.  Written by our
+         * batches and read from the EDT.
+         */
+        private volatile int settledSoFar;
+
+        /**
+         * Spans the time from our construction until we are done.  Only accessed from the EDT.
+         */
+        private final PathSearchEvent searchEvent = new PathSearchEvent();
+
+        /**
+         * Construct a worker that, when started, will find the shortest paths from the vertex with
+         * ID `startId` to every pixel in our outer model's `image`, finishing once the region of
+         * interest and the vertices with IDs `targets` have been settled.  "progress" events will
+         * be fired to our outer model's listeners.  This must be called from the EDT.
+         */
+        ShortestPathsWorker(int startId, int[] targets) {
+            searchGraph = graph;
+            searchWeightName = weightName;
+            this.startId = startId;
+            this.targets = targets.clone();
+            searchContext = context;
+            segments = List.copyOf(pendingSegments);
+            region = new SearchRegion(graph, startId, searchRadius);
+            batchSizer = new BatchSizer(TimeUnit.MILLISECONDS.toNanos(batchMillis));
+            stats = searchStats;
+            searchEvent.begin();
         }
 
         /**
-         * Solve for shortest paths and return the results.  Periodically publish progress
-         * percentage and preliminary shortest paths.  It is assumed that this is generally not
-         * called from the EDT.  Returns null if cancelled.
+         * Extend our search by one batch, publishing the progress percentage and the vertices
+         * settled and discovered during the batch.  Returns the final results once the region of
+         * interest has been settled, or null if more batches are needed.  Called on a pathfinding
+         * thread; the executor checks for cancellation between batches.
          */
         @Override
-        public PathfindingSnapshot doInBackground() {
+        protected PathfindingSnapshot runBatch() {
             // This is executed on a separate thread; do not access outer model's fields!
 
+            // Segments added while processing are found first, so that they can be drawn as soon
+            //  as this batch's progress is delivered.
+            if (segmentPaths == null) {
+                List<List<Integer>> found = new ArrayList<>(segments.size());
+                for (PendingSegment segment : segments) {
+                    found.add(searchContext.findPointPath(searchWeightName, segment.fromId(),
+                            segment.toId()));
+                }
+                segmentPaths = found;
+            }
+
+            if (pathfinder == null) {
+                pathfinder = makeSolver(searchGraph, searchWeightName);
+                pathfinder.recordDeltas(true);
+                pathfinder.setStart(startId);
+            }
+
             // TODO A6.2c: Implement this method as specified.  In more detail, your implementation
             //  should do the following:
-            //  1. Repeatedly extend the search on `pathfinder` until all paths have been found.
-            //     The batch size should be small enough so that the progress bar will update
-            //     smoothly (no more than 10000).
+            //  1. Extend the search on `pathfinder`.  The batch size should be small enough so that
+            //     the progress bar will update smoothly.
             //  2. After each extension of the search, report the percentage of vertices that have
             //     been settled as our progress.
-            //  3. Also after each extension, use `publish()` to deliver the current results
-            //     snapshot over to the EDT (where it will appear as an argument to `process()`).
-            //  4. Each iteration should check whether this SwingWorker has been cancelled.  If so,
-            //     return immediately.
-            //  5. After all paths have been found, return the final pathfinding results.
+            //  3. Also after each extension, use `publish()` to deliver the search's progress over
+            //     to the EDT (where it will appear as an argument to `process()`).
+            //  4. After all paths have been found, return the final pathfinding results.
             //  Since this may execute concurrently with other methods in the same class, it is only
             //  safe to use a subset of its fields and methods, including: `pathfinder`,
-            //  `setProgress()`, `publish()`, and `isCancelled()`.
-            //  References:
-            //  [1] https://docs.oracle.com/javase/tutorial/uiswing/concurrency/worker.html
-            //  [2] https://docs.oracle.com/en/java/javase/21/docs/api/java.desktop/javax/swing/SwingWorker.html#isCancelled()
-            while (!pathfinder.allPathsFound()) {
-                if (isCancelled()) {
+            //  `setProgress()`, and `publish()`.
+            //  Only the region of interest is searched up front.
+
+            // Batches are sized to take about our time budget, whatever the machine and image.
+            SearchBatchEvent event = new SearchBatchEvent();
+            event.begin();
+            int settledBefore = pathfinder.settledCount();
+            int batchSize = batchSizer.startBatch();
+            pathfinder.advance(batchSize);
+            int settled = pathfinder.settledCount() - settledBefore;
+            long searchNanos = batchSizer.finishBatch(settled);
+            long searchEnd = System.nanoTime();
+            settledSoFar = pathfinder.settledCount();
+
+            // Only what changed is published, rather than a snapshot of all of our results.
+            SearchDelta delta = pathfinder.takeDelta();
+            boolean regionSettled = region.update(delta);
+            setProgress(region.percentSettled());
+            publish(delta);
+            long publishNanos = System.nanoTime() - searchEnd;
+            stats.updateAndGet(s -> s.plusBatch(settled, searchNanos, publishNanos));
+            SelectionMetrics.recordBatch(searchNanos, publishNanos);
+            event.end();
+            if (event.shouldCommit()) {
+                event.startVertex = startId;
+                event.weigher = searchWeightName;
+                event.batchSize = batchSize;
+                event.settled = settled;
+                event.totalSettled = settledSoFar;
+                event.publishNanos = publishNanos;
+                event.commit();
+            }
+            if (!pathfinder.allPathsFound()) {
+                if (!regionSettled) {
                     return null;
                 }
-                PathfindingSnapshot snapshot = pathfinder.extendSearch(10000);
-                int settledCount = pathfinder.settledCount();
-                int vertexCount = pathfinder.vertexCount();
-                int progress = (int) ((double) settledCount / vertexCount * 100);
-                setProgress(progress);
-                publish(snapshot);
+                for (int target : targets) {
+                    if (!pathfinder.settled(target)) {
+                        return null;
+                    }
+                }
             }
-            return pathfinder.extendSearch(0);
+
+            // Later extensions of this search (see `PathExtension`) are not reported.
+            pathfinder.recordDeltas(false);
+            return pathfinder.snapshot();
         }
 
+        /**
+         * Nobody else will use our solver (and our model may already have moved on), so free its
+         * storage once our last batch has finished.
+         */
+        @Override
+        protected void cleanUp() {
+            if (pathfinder != null) {
+                pathfinder.release();
+            }
+        }
 
         /**
-         * Save the most recent preliminary paths published by the worker's background task to our
-         * outer Model's `pendingPaths` and notify listeners that the "pending-paths" property has
-         * changed.  This is executed on the EDT.
+         * Apply the progress published by the worker's batches to our outer Model's
+         * `searchProgress`, and notify listeners that the "pending-paths" property (and the
+         * "progress" property, if it has changed) has changed.  This is executed on the EDT.
          */
         @Override
-        public void process(List<PathfindingSnapshot> publishedPaths) {
+        protected void process(List<SearchDelta> deltas) {
             // If our outer component has changed its image and state since we started, do nothing.
             if (worker != this) {
                 return;
             }
-            pendingPaths = publishedPaths.getLast();
-            firePropertyChange("pending-paths", null, pendingPaths);
+            if (segmentPaths != null) {
+                applySegments(segments, segmentPaths);
+            }
+            if (searchProgress == null) {
+                searchProgress = new SearchProgress(startId);
+            }
+            for (SearchDelta delta : deltas) {
+                searchProgress.apply(delta);
+            }
+            propSupport.firePropertyChange("pending-paths", null, searchProgress);
+            int percent = getProgress();
+            if (percent != reportedProgress) {
+                propSupport.firePropertyChange("progress", reportedProgress, percent);
+                reportedProgress = percent;
+            }
         }
 
         /**
@@ -388,7 +1029,7 @@ public class ScissorsSelectionModel extends SelectionModel {
          * finished successfully, in which case transition to SELECTING.
          */
         @Override
-        public void done() {
+        protected void done() {
             // TODO A6.2d: Implement this method to do the following:
             //  1. Check whether our outer object's `worker` field still points to us.  If so, it
             //     means nothing has changed in the model since we started work, so we're good to
@@ -403,8 +1044,6 @@ public class ScissorsSelectionModel extends SelectionModel {
             //        field should still have the results for that previous endpoint.
             //     B. If it threw an exception, wrap that exception in a RuntimeException and
             //        re-throw it (this will help you detect bugs in ShortestPaths).
-            //     C. InterruptedExceptions can be ignored, since `get()` will not block in
-            //        `done()`.
             //  4. Set our outer model's state to the state it was in before entering PROCESSING
             //     (unless our previous state was NO_SELECTION and our calculation was successful,
             //     in which case SELECTING in the desired state).  And in order to preserve our
@@ -412,30 +1051,179 @@ public class ScissorsSelectionModel extends SelectionModel {
             //  Since this is guaranteed to execute on the EDT, it is safe to access any members of
             //  our outer model object.
 
-
-            if (worker != this){
+            if (worker != this) {
+                // Our results are no longer wanted.  If we were cancelled, `cleanUp()` releases
+                //  our solver instead (since a batch may still be using it).
+                if (!isCancelled() && pathfinder != null) {
+                    pathfinder.release();
+                }
+                commitSearchEvent("superseded");
                 return;
             }
-            if (worker == this) {
-                try {
-                    paths = get();
-                    if (previousState == NO_SELECTION) {
-                        setState(SELECTING);
-                    } else {
-                        setState(previousState);
-                    }
-                } catch (ExecutionException e) {
-                    throw new RuntimeException("Error", e.getCause());
-
-                } catch (CancellationException e) {
-                    if (previousState == SELECTING) {
-                        undoPoint();
-                    }
-                } catch (InterruptedException e) {
-                } finally {
-                    worker = null;
+            Runnable then = null;
+            try {
+                PathfindingSnapshot result = get();
+                commitSearchEvent("completed");
+                applySegments(segments, segmentPaths);
+                // Our solver's results replace the previous ones, which are cached in case they
+                //  are wanted again.
+                retirePaths();
+                paths = result;
+                pathsSolver = pathfinder;
+                if (previousState == NO_SELECTION) {
+                    setState(SELECTING);
+                } else {
+                    setState(previousState);
                 }
+                then = afterSuccess;
+            } catch (ExecutionException e) {
+                commitSearchEvent("failed");
+                throw new RuntimeException("Error", e.getCause());
+            } catch (CancellationException e) {
+                commitSearchEvent("cancelled");
+                // The endpoint we were searching from is undone, which restores our paths from the
+                //  previous endpoint (see `findPaths()`).
+                liveWireAwaitedSince = 0;
+                setState(previousState);
+                if (previousState == SELECTING) {
+                    undoPoint();
+                }
+            } finally {
+                worker = null;
+            }
+            if (then != null) {
+                then.run();
+            }
+        }
+
+        /**
+         * End and commit our `PathSearchEvent` (if it is enabled), recording `outcome`.
+         */
+        private void commitSearchEvent(String outcome) {
+            searchEvent.end();
+            if (searchEvent.shouldCommit()) {
+                searchEvent.startVertex = startId;
+                searchEvent.weigher = searchWeightName;
+                searchEvent.settled = settledSoFar;
+                searchEvent.outcome = outcome;
+                searchEvent.commit();
+            }
+        }
+    }
+
+    /**
+     * Task extending a finished search until it reaches a target vertex, so that the live-wire can
+     * follow the cursor beyond the region of interest without searching on the EDT.  Once done
+     * (unless cancelled or superseded), its results replace our outer model's `paths`, and
+     * listeners are notified that the "paths" property has changed.
+     */
+    private class PathExtension extends PathfindingExecutor.Task<PathfindingSnapshot, Void> {
+
+        /**
+         * The graph to find paths in and the name of the weigher to weigh its edges with, captured
+         * from our outer model when this task was constructed.
+         */
+        private final ImageGraph searchGraph;
+        private final String searchWeightName;
+
+        /**
+         * The paths being extended.
+         */
+        private final PathfindingSnapshot base;
+
+        /**
+         * The solver that found `base`, or null if it is not available (in which case our first
+         * batch searches again from the start of `base`).  Must only be accessed from our batches
+         * until we are done.
+         */
+        private ShortestPathSolver solver;
+
+        /**
+         * The ID of the vertex to extend the search to.  May be changed from the EDT while we run,
+         * in which case our batches pursue the new target instead.
+         */
+        private volatile int target;
+
+        /**
+         * Sizes our batches to take about the time budget set by our outer model when this task
+         * was constructed.
+         */
+        private final BatchSizer batchSizer;
+
+        /**
+         * Construct a task that, when started, will extend the search that found `base` (using
+         * `solver`, if not null) until the vertex with ID `target` is settled.  This must be
+         * called from the EDT.
+         */
+        PathExtension(PathfindingSnapshot base, ShortestPathSolver solver, int target) {
+            searchGraph = graph;
+            searchWeightName = weightName;
+            this.base = base;
+            this.solver = solver;
+            this.target = target;
+            batchSizer = new BatchSizer(TimeUnit.MILLISECONDS.toNanos(batchMillis));
+        }
+
+        /**
+         * Extend our search by one batch.  Returns the extended results once `target` has been
+         * settled (or all paths have been found), or null if more batches are needed.  Called on a
+         * pathfinding thread.
+         */
+        @Override
+        protected PathfindingSnapshot runBatch() {
+            // This is executed on a separate thread; do not access outer model's fields!
+            if (solver == null) {
+                // Our paths came from the cache without their solver, so search again (the graph's
+                //  weight table was already computed for the cached search).
+                solver = makeSolver(searchGraph, searchWeightName);
+                solver.setStart(base.start());
+            }
+
+            SearchBatchEvent event = new SearchBatchEvent();
+            event.begin();
+            int settledBefore = solver.settledCount();
+            int batchSize = batchSizer.startBatch();
+            solver.advance(batchSize);
+            int settled = solver.settledCount() - settledBefore;
+            batchSizer.finishBatch(settled);
+            event.end();
+            if (event.shouldCommit()) {
+                event.startVertex = base.start();
+                event.weigher = searchWeightName;
+                event.liveWire = true;
+                event.batchSize = batchSize;
+                event.settled = settled;
+                event.totalSettled = solver.settledCount();
+                event.commit();
+            }
+            if (!solver.settled(target) && !solver.allPathsFound()) {
+                return null;
+            }
+            return solver.snapshot();
+        }
+
+        /**
+         * This is executed on the EDT.  If we are still our outer model's extension and its paths
+         * are still the ones we extended, replace them with our results (keeping our solver for
+         * further extensions).  Our solver is never released here, since `base` (which may have
+         * been cached) shares its storage; the garbage collector frees it once unused.
+         */
+        @Override
+        protected void done() {
+            if (extension != this) {
+                return;
+            }
+            extension = null;
+            if (isCancelled() || paths != base) {
+                return;
+            }
+            try {
+                paths = get();
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Error", e.getCause());
             }
+            pathsSolver = solver;
+            propSupport.firePropertyChange("paths", base, paths);
         }
     }
 }
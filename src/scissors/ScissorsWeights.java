@@ -1,23 +1,42 @@
 package scissors;
 
+import graph.BoundedWeigher;
 import graph.Weigher;
-import java.awt.image.BandCombineOp;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
 import java.awt.image.Raster;
-import java.awt.image.RasterOp;
-import java.util.Arrays;
+import java.awt.image.WritableRaster;
 import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * Factory for edge weight functions appropriate for use by the Intelligent Scissors algorithm.
  */
 public class ScissorsWeights {
 
+    /**
+     * The largest weight any of our weighers can assign to an edge.  Each weigher subtracts a
+     * (non-negative) cross gradient from a constant no larger than this.
+     */
+    static final int MAX_WEIGHT = 255;
+
     /**
      * Create a `Weigher` whose type is determined by `weightName`.  The weigher will be capable of
-     * weighing edges in the graph `graph`.  Throws IllegalArgumentException if `weightName` is not
-     * among this factory's recognized `weightNames()`.
+     * weighing edges in the graph `graph`.  Weights are looked up in `graph`'s cached weight table
+     * for `weightName`, which is computed first if necessary (so this may take a while the first
+     * time it is called for a given graph and name).  Throws IllegalArgumentException if
+     * `weightName` is not among this factory's recognized `weightNames()`.
      */
-    static Weigher<ImageEdge> makeWeigher(String weightName, ImageGraph graph) {
+    static BoundedWeigher<ImageEdge> makeWeigher(String weightName, ImageGraph graph) {
+        return graph.weightTable(weightName);
+    }
+
+    /**
+     * Create a `Weigher` whose type is determined by `weightName` that computes the weight of each
+     * edge in `graph` from its image whenever asked.  Throws IllegalArgumentException if
+     * `weightName` is not among this factory's recognized `weightNames()`.
+     */
+    static BoundedWeigher<ImageEdge> makeDirectWeigher(String weightName, ImageGraph graph) {
         return switch (weightName) {
             case "CrossGradMono" -> new CrossGradMonoWeight(graph);
             // TODO A6.4b: Create a new instance of your custom weigher when its name is provided
@@ -43,41 +62,71 @@ public class ScissorsWeights {
      * The conventions for `dir` are the same as in `ImageVertex`: it is an integer in [0..8] where
      * 0 points right and 2 points up.
      */
-    static int crossGrad(Raster img, int x, int y, int b, int dir) {
-        int width = img.getWidth();
-        int height = img.getHeight();
+    static int crossGrad(SampleReader img, int x, int y, int b, int dir) {
+        int width = img.width();
+        int height = img.height();
 
         // Note: Image boundaries are given slightly less than the maximum value, making it easier
         //  to select subjects that are cut off by the image's border without trying too hard to
         //  find paths that cut into the subject.
-        int borderWeight = 180 - 64;
+        int borderWeight = GradientKernel.BORDER_GRADIENT;
 
         return switch (dir) {
             case 0 -> (y == 0 || y == height - 1) ? borderWeight :
-                    Math.abs((img.getSample(x, y + 1, b) + img.getSample(x + 1, y + 1, b)) -
-                            (img.getSample(x, y - 1, b) + img.getSample(x + 1, y - 1, b))) / 4;
-            case 1 -> Math.abs(img.getSample(x + 1, y, b) - img.getSample(x, y - 1, b));
+                    Math.abs((img.sample(x, y + 1, b) + img.sample(x + 1, y + 1, b)) -
+                            (img.sample(x, y - 1, b) + img.sample(x + 1, y - 1, b))) / 4;
+            case 1 -> Math.abs(img.sample(x + 1, y, b) - img.sample(x, y - 1, b));
             case 2 -> (x == 0 || x == width - 1) ? borderWeight :
-                    Math.abs((img.getSample(x + 1, y - 1, b) + img.getSample(x + 1, y, b)) -
-                            (img.getSample(x - 1, y - 1, b) + img.getSample(x - 1, y, b))) / 4;
-            case 3 -> Math.abs(img.getSample(x, y - 1, b) - img.getSample(x - 1, y, b));
+                    Math.abs((img.sample(x + 1, y - 1, b) + img.sample(x + 1, y, b)) -
+                            (img.sample(x - 1, y - 1, b) + img.sample(x - 1, y, b))) / 4;
+            case 3 -> Math.abs(img.sample(x, y - 1, b) - img.sample(x - 1, y, b));
             case 4 -> (y == 0 || y == height - 1) ? borderWeight :
-                    Math.abs((img.getSample(x, y - 1, b) + img.getSample(x - 1, y - 1, b)) -
-                            (img.getSample(x, y + 1, b) + img.getSample(x - 1, y + 1, b))) / 4;
-            case 5 -> Math.abs(img.getSample(x - 1, y, b) - img.getSample(x, y + 1, b));
+                    Math.abs((img.sample(x, y - 1, b) + img.sample(x - 1, y - 1, b)) -
+                            (img.sample(x, y + 1, b) + img.sample(x - 1, y + 1, b))) / 4;
+            case 5 -> Math.abs(img.sample(x - 1, y, b) - img.sample(x, y + 1, b));
             case 6 -> (x == 0 || x == width - 1) ? borderWeight :
-                    Math.abs((img.getSample(x - 1, y + 1, b) + img.getSample(x - 1, y, b)) -
-                            (img.getSample(x + 1, y + 1, b) + img.getSample(x + 1, y, b))) / 4;
-            case 7 -> Math.abs(img.getSample(x, y + 1, b) - img.getSample(x + 1, y, b));
+                    Math.abs((img.sample(x - 1, y + 1, b) + img.sample(x - 1, y, b)) -
+                            (img.sample(x + 1, y + 1, b) + img.sample(x + 1, y, b))) / 4;
+            case 7 -> Math.abs(img.sample(x, y + 1, b) - img.sample(x + 1, y, b));
             default -> throw new IllegalArgumentException();
         };
     }
 
+    /**
+     * Return a reader of a single-band, 8-bit copy of the image read by `src`, each of whose
+     * samples is the average of the corresponding pixel's bands (rounded down, and clamped to 255
+     * for images with wider samples).  Averages are accumulated in the same order and precision as
+     * by a `BandCombineOp`, so they match those of earlier versions exactly.
+     */
+    static SampleReader averageBands(SampleReader src) {
+        int width = src.width();
+        WritableRaster gray = Raster.createInterleavedRaster(DataBuffer.TYPE_BYTE, width,
+                src.height(), 1, null);
+        byte[] data = ((DataBufferByte) gray.getDataBuffer()).getData();
+        float weight = 1.0f / src.numBands();
+        IntStream.range(0, src.height()).parallel().forEach(y -> {
+            int[] samples = new int[width];
+            float[] sums = new float[width];
+            for (int b = 0; b < src.numBands(); ++b) {
+                src.readRow(y, b, samples);
+                for (int x = 0; x < width; ++x) {
+                    sums[x] += weight * samples[x];
+                }
+            }
+            int start = y * width;
+            for (int x = 0; x < width; ++x) {
+                data[start + x] = (byte) Math.min(255, (int) sums[x]);
+            }
+        });
+        return SampleReader.of(gray);
+    }
+
     /**
      * Weight edges less if they run perpendicular to a large brightness gradient in an ImageGraph's
      * image.  Only considers the brightness of a grayscale (band-averaged) version of the image.
      */
-    static class CrossGradMonoWeight implements Weigher<ImageEdge> {
+    static class CrossGradMonoWeight
+            implements BoundedWeigher<ImageEdge>, WeightTable.RowWeigher {
 
         /**
          * The graph that the edges to be weighed will come from.
@@ -85,9 +134,14 @@ public class ScissorsWeights {
         private ImageGraph graph;
 
         /**
-         * A grayscale copy of the image represented by `graph`.
+         * A reader of a grayscale copy of the image represented by `graph`.
+         */
+        private SampleReader grayImage;
+
+        /**
+         * Scratch space for each thread weighing rows of `grayImage`.
          */
-        private Raster grayImage;
+        private final ThreadLocal<GradientKernel> kernels;
 
         /**
          * Create a new weigher capable of weighing edges in `graph`.
@@ -96,18 +150,9 @@ public class ScissorsWeights {
             this.graph = graph;
 
             // Extract the "raster" for our graph's image, from which we can query pixel
-            //  brightnesses.
-            Raster src = graph.raster();
-
-            // Convert our graph's image to black-and-white by averaging its bands
-            // This involves linear algebra; we do not expect most students to understand how this
-            //  works yet (consider CS 4670 if you are interested).
-            float weight = 1.0f / src.getNumBands();
-            float[][] avgMatrix = new float[3][src.getNumBands()];
-            Arrays.fill(avgMatrix[0], weight);
-            Arrays.fill(avgMatrix, avgMatrix[0]);
-            RasterOp op = new BandCombineOp(avgMatrix, null);
-            grayImage = op.filter(src, null);
+            //  brightnesses, and convert it to black-and-white by averaging its bands.
+            grayImage = averageBands(SampleReader.of(graph.raster()));
+            kernels = ThreadLocal.withInitial(() -> new GradientKernel(graph.width(), 1));
         }
 
         @Override
@@ -127,6 +172,20 @@ public class ScissorsWeights {
             //  edge's length, then subtract it from the best possible value.
             return eGradMax - crossGrad(grayImage, x, y, 0, edge.dir());
         }
+
+        @Override
+        public void weighRow(int y, int[][] weights) {
+            GradientKernel kernel = kernels.get();
+            kernel.crossGradients(kernel.sampleRow(grayImage, y - 1, 0),
+                    kernel.sampleRow(grayImage, y, 0),
+                    kernel.sampleRow(grayImage, y + 1, 0), weights);
+            kernel.gradientsToWeights(weights);
+        }
+
+        @Override
+        public int maxWeight() {
+            return MAX_WEIGHT;
+        }
     }
 
 
@@ -134,7 +193,7 @@ public class ScissorsWeights {
      * Weight edges less if they run perpendicular to a large brightness gradient in an ImageGraph's
      * image.  Only considers the brightness of a grayscale (band-averaged) version of the image.
      */
-    static class ColorWeight implements Weigher<ImageEdge> {
+    static class ColorWeight implements BoundedWeigher<ImageEdge>, WeightTable.RowWeigher {
 
         /**
          * The graph that the edges to be weighed will come from.
@@ -142,9 +201,14 @@ public class ScissorsWeights {
         private ImageGraph graph;
 
         /**
-         * A color copy of the image represented by `graph`.
+         * A reader of the image represented by `graph`, in color.
          */
-        private Raster colorImage;
+        private SampleReader colorImage;
+
+        /**
+         * Scratch space for each thread weighing rows of `colorImage`.
+         */
+        private final ThreadLocal<GradientKernel> kernels;
 
         /**
          * Create a new weigher capable of weighing edges in `graph`.
@@ -154,10 +218,9 @@ public class ScissorsWeights {
 
             // Extract the "raster" for our graph's image, from which we can query pixel
             //  brightnesses.
-            this.colorImage = graph.raster();
-
-
-
+            this.colorImage = SampleReader.of(graph.raster());
+            kernels = ThreadLocal.withInitial(
+                    () -> new GradientKernel(graph.width(), colorImage.numBands()));
         }
 
         @Override
@@ -177,6 +240,28 @@ public class ScissorsWeights {
             int maxWeight = Math.max(weightRed, Math.max(weightGreen, weightBlue));
             return eGradMax - maxWeight;
         }
+
+        @Override
+        public void weighRow(int y, int[][] weights) {
+            // Take the largest cross gradient of the red, green, and blue bands
+            GradientKernel kernel = kernels.get();
+            int[][] bandGrad = kernel.bandGradients();
+            for (int b = 0; b < 3; ++b) {
+                int[][] grad = (b == 0) ? weights : bandGrad;
+                kernel.crossGradients(kernel.sampleRow(colorImage, y - 1, b),
+                        kernel.sampleRow(colorImage, y, b),
+                        kernel.sampleRow(colorImage, y + 1, b), grad);
+                if (b > 0) {
+                    kernel.maxInto(weights, bandGrad);
+                }
+            }
+            kernel.gradientsToWeights(weights);
+        }
+
+        @Override
+        public int maxWeight() {
+            return MAX_WEIGHT;
+        }
     }
 
     // TODO A6.4a: Define a new nested Weigher class that takes color into account.
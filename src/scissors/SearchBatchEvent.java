@@ -0,0 +1,45 @@
+package scissors;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A flight-recorder event spanning one batch of a `ScissorsSelectionModel`'s search: a batch run by
+ * its background worker, or a batch extending a finished search because the live-wire was drawn to
+ * a pixel beyond the region it had settled.
+ */
+@Name("smarttrace.SearchBatch")
+@Label("Search Batch")
+@Category({"SmartTrace", "Pathfinding"})
+@Description("One extension of a shortest-paths search")
+class SearchBatchEvent extends Event {
+
+    @Label("Start Vertex")
+    int startVertex;
+
+    @Label("Weigher")
+    String weigher;
+
+    @Label("Live-Wire")
+    @Description("Whether the batch extended a finished search for the live-wire")
+    boolean liveWire;
+
+    @Label("Batch Size")
+    @Description("The number of vertices the batch aimed to settle")
+    int batchSize;
+
+    @Label("Vertices Settled")
+    long settled;
+
+    @Label("Total Settled")
+    @Description("Vertices settled by the search so far, including this batch")
+    long totalSettled;
+
+    @Label("Publish Time")
+    @Timespan
+    long publishNanos;
+}
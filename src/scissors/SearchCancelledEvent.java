@@ -0,0 +1,32 @@
+package scissors;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Percentage;
+
+/**
+ * A flight-recorder event marking `ScissorsSelectionModel.cancelProcessing()` cancelling a
+ * background search.
+ */
+@Name("smarttrace.SearchCancelled")
+@Label("Search Cancelled")
+@Category({"SmartTrace", "Pathfinding"})
+@Description("A background shortest-paths search cancelled by the user")
+class SearchCancelledEvent extends Event {
+
+    @Label("Start Vertex")
+    int startVertex;
+
+    @Label("Weigher")
+    String weigher;
+
+    @Label("Vertices Settled")
+    long settled;
+
+    @Label("Progress")
+    @Percentage
+    double progress;
+}
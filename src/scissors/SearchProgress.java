@@ -0,0 +1,129 @@
+package scissors;
+
+import graph.SearchDelta;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * The progress of one background search, accumulated from the `SearchDelta`s it publishes.  Tracks
+ * which pixels are settled and discovered, and retains the most recent deltas so that a view of
+ * the search (such as a progress overlay) that last caught up at some earlier version can be
+ * brought up to date by replaying just the changes since then.
+ * <p>
+ * Not thread-safe; a search's progress is only applied and read on the EDT.
+ */
+final class SearchProgress {
+
+    /**
+     * The maximum number of deltas retained for replay.  A view that falls further behind than this
+     * must be redrawn from our full state instead.
+     */
+    private static final int MAX_RETAINED_DELTAS = 64;
+
+    /**
+     * The ID of the pixel the search started from.
+     */
+    private final int startId;
+
+    /**
+     * The IDs of the pixels the search has settled, and of those it has discovered (which includes
+     * those settled).
+     */
+    private final BitSet settled = new BitSet();
+    private final BitSet discovered = new BitSet();
+
+    /**
+     * The most recently applied deltas, oldest first.  The last one was applied at `version`.
+     */
+    private final ArrayDeque<SearchDelta> recent = new ArrayDeque<>();
+
+    /**
+     * The number of deltas applied so far.
+     */
+    private long version;
+
+    /**
+     * Create an empty record of progress for a search starting from the pixel with ID `startId`.
+     */
+    SearchProgress(int startId) {
+        this.startId = startId;
+    }
+
+    int startId() {
+        return startId;
+    }
+
+    /**
+     * Return the number of deltas applied so far, which identifies our current state.
+     */
+    long version() {
+        return version;
+    }
+
+    /**
+     * Record the progress in `delta`.  Requires `delta` was taken from the search we are tracking,
+     * after every delta previously applied.
+     */
+    void apply(SearchDelta delta) {
+        assert delta.startId() == startId;
+        for (int id : delta.discoveredIds()) {
+            discovered.set(id);
+        }
+        for (int id : delta.settledIds()) {
+            settled.set(id);
+            discovered.set(id);
+        }
+        recent.addLast(delta);
+        if (recent.size() > MAX_RETAINED_DELTAS) {
+            recent.removeFirst();
+        }
+        version += 1;
+    }
+
+    /**
+     * Return whether the pixel with ID `id` has been discovered.
+     */
+    boolean discovered(int id) {
+        return discovered.get(id);
+    }
+
+    /**
+     * Return whether the pixel with ID `id` has been settled.
+     */
+    boolean settled(int id) {
+        return settled.get(id);
+    }
+
+    /**
+     * Call `action` on the ID of each discovered pixel, in increasing order.
+     */
+    void forEachDiscovered(IntConsumer action) {
+        for (int id = discovered.nextSetBit(0); id >= 0; id = discovered.nextSetBit(id + 1)) {
+            action.accept(id);
+        }
+    }
+
+    /**
+     * Call `action` on each delta applied since version `since` (oldest first), returning true, if
+     * they are all still retained.  Otherwise return false without calling `action`.  Requires
+     * `since` is at most `version()`.
+     */
+    boolean forEachDeltaSince(long since, Consumer<SearchDelta> action) {
+        assert since <= version;
+        long missing = version - since;
+        if (missing > recent.size()) {
+            return false;
+        }
+        long skip = recent.size() - missing;
+        for (SearchDelta delta : recent) {
+            if (skip > 0) {
+                skip -= 1;
+            } else {
+                action.accept(delta);
+            }
+        }
+        return true;
+    }
+}
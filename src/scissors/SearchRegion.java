@@ -0,0 +1,75 @@
+package scissors;
+
+import graph.SearchDelta;
+import java.awt.Point;
+
+/**
+ * A square region of interest around the starting pixel of a search, which background searches
+ * settle before finishing (paths to pixels outside of it are found lazily when requested).  Tracks
+ * how much of the region a solver has settled so far by counting the settled pixels reported in
+ * its deltas that fall inside the region, so progress advances steadily as the search spreads
+ * outwards (wherever in the region it happens to settle first).
+ */
+final class SearchRegion {
+
+    /**
+     * The width of our image, which determines pixel IDs.
+     */
+    private final int imageWidth;
+
+    /**
+     * The bounds of the region (inclusive), clipped to the image.
+     */
+    private final int minX, minY, maxX, maxY;
+
+    /**
+     * The number of pixels in the region.
+     */
+    private final long size;
+
+    /**
+     * The number of pixels of the region known to be settled.  Each pixel is reported as settled
+     * by exactly one delta, so counting them never needs to be redone.
+     */
+    private long settled;
+
+    /**
+     * Create a region extending `radius` pixels in each direction from the pixel with ID `startId`
+     * in `graph` (but not beyond the graph's image).  Requires `radius` is non-negative.
+     */
+    SearchRegion(ImageGraph graph, int startId, int radius) {
+        assert radius >= 0;
+        imageWidth = graph.width();
+        Point center = graph.getVertex(startId).point();
+        minX = (int) Math.max(0, (long) center.x - radius);
+        minY = (int) Math.max(0, (long) center.y - radius);
+        maxX = (int) Math.min(graph.width() - 1, (long) center.x + radius);
+        maxY = (int) Math.min(graph.height() - 1, (long) center.y + radius);
+        size = (long) (maxX - minX + 1) * (maxY - minY + 1);
+    }
+
+    /**
+     * Account for the pixels settled in `delta`, which must be the next delta of a search from our
+     * start (whose deltas have been recorded since it started).  Returns whether the whole region
+     * is now settled.
+     */
+    boolean update(SearchDelta delta) {
+        for (int id : delta.settledIds()) {
+            int x = id % imageWidth;
+            int y = id / imageWidth;
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                settled += 1;
+            }
+        }
+        assert settled <= size;
+        return settled == size;
+    }
+
+    /**
+     * Return the percentage (in [0..100]) of the region known to be settled as of the last call to
+     * `update()`.
+     */
+    int percentSettled() {
+        return (int) ((double) settled / size * 100);
+    }
+}
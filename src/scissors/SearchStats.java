@@ -0,0 +1,52 @@
+package scissors;
+
+/**
+ * Totals describing the background searches run for one image by a `ScissorsSelectionModel`: how
+ * many batches they ran, how many vertices they settled, and how long they spent settling them and
+ * publishing their progress.  Immutable.
+ *
+ * @param batches the number of batches run
+ * @param settled the number of vertices settled (counting a vertex once per search settling it)
+ * @param searchNanos the time spent settling vertices, in nanoseconds
+ * @param publishNanos the time spent reporting progress to the EDT, in nanoseconds
+ */
+public record SearchStats(long batches, long settled, long searchNanos, long publishNanos) {
+
+    /**
+     * Statistics for no searches.
+     */
+    public static final SearchStats NONE = new SearchStats(0, 0, 0, 0);
+
+    /**
+     * Return these statistics with one more batch added, which settled `settled` vertices in
+     * `searchNanos` nanoseconds and then took `publishNanos` nanoseconds to publish.
+     */
+    SearchStats plusBatch(int settled, long searchNanos, long publishNanos) {
+        return new SearchStats(batches + 1, this.settled + settled,
+                this.searchNanos + searchNanos, this.publishNanos + publishNanos);
+    }
+
+    /**
+     * Return the average number of vertices settled per second spent settling, or 0 if no time
+     * has been spent.
+     */
+    public double settleRate() {
+        return (searchNanos > 0) ? settled * 1e9 / searchNanos : 0;
+    }
+
+    /**
+     * Return the average time per batch, in milliseconds, or 0 if no batches have run.
+     */
+    public double meanBatchMillis() {
+        return (batches > 0) ? (searchNanos + publishNanos) / 1e6 / batches : 0;
+    }
+
+    /**
+     * Return the fraction of the searches' time spent publishing progress rather than settling
+     * vertices, or 0 if no time has been spent.
+     */
+    public double publishOverhead() {
+        long total = searchNanos + publishNanos;
+        return (total > 0) ? (double) publishNanos / total : 0;
+    }
+}
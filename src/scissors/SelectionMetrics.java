@@ -0,0 +1,204 @@
+package scissors;
+
+import graph.SearchMetrics;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Process-wide counters describing how responsive every `ScissorsSelectionModel` has been: how
+ * long it took, after a new point was placed, before a live-wire could first be drawn from it, and
+ * how the background searches serving those points spent their batches.  The work done inside the
+ * solvers themselves is counted by `graph.SearchMetrics`.
+ * <p>
+ * The counters are published as the MXBean `smarttrace:type=SelectionMetrics` (see
+ * `SelectionMetricsMXBean`) and, while a flight recording enables it, as the periodic JFR event
+ * `smarttrace.SelectionMetrics`.  Collection follows `SearchMetrics.enabled()`.
+ */
+public final class SelectionMetrics {
+
+    /**
+     * The name under which our MXBean is registered.
+     */
+    public static final String OBJECT_NAME = "smarttrace:type=SelectionMetrics";
+
+    private static final LongAdder liveWires = new LongAdder();
+    private static final LongAdder cachedLiveWires = new LongAdder();
+    private static final LongAdder liveWireNanos = new LongAdder();
+    private static final LongAccumulator maxLiveWireNanos = new LongAccumulator(Math::max, 0);
+    private static final LongAdder batches = new LongAdder();
+    private static final LongAdder searchNanos = new LongAdder();
+    private static final LongAdder publishNanos = new LongAdder();
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+        } catch (JMException | SecurityException e) {
+            // Another copy of this class (in a different class loader) has registered already, or
+            //  we may not register; the counters are still available from this class.
+        }
+        FlightRecorder.addPeriodicEvent(SelectionMetricsEvent.class, SelectionMetrics::emitEvent);
+    }
+
+    private SelectionMetrics() {
+    }
+
+    /**
+     * Set every counter back to zero.
+     */
+    public static void reset() {
+        liveWires.reset();
+        cachedLiveWires.reset();
+        liveWireNanos.reset();
+        maxLiveWireNanos.reset();
+        batches.reset();
+        searchNanos.reset();
+        publishNanos.reset();
+    }
+
+    /**
+     * Return the number of points from which a live-wire has been drawn.
+     */
+    public static long liveWires() {
+        return liveWires.sum();
+    }
+
+    /**
+     * Return how many of the points counted by `liveWires()` had their paths cached, and so
+     * needed no search.
+     */
+    public static long cachedLiveWires() {
+        return cachedLiveWires.sum();
+    }
+
+    /**
+     * Return the mean time from placing a point to first drawing a live-wire from it, in
+     * milliseconds, or 0 if no live-wires have been drawn.
+     */
+    public static double meanTimeToLiveWireMillis() {
+        long count = liveWires.sum();
+        return (count > 0) ? liveWireNanos.sum() / 1e6 / count : 0;
+    }
+
+    /**
+     * Return the longest time from placing a point to first drawing a live-wire from it, in
+     * milliseconds.
+     */
+    public static double maxTimeToLiveWireMillis() {
+        return maxLiveWireNanos.get() / 1e6;
+    }
+
+    /**
+     * Return the number of background search batches run.
+     */
+    public static long batches() {
+        return batches.sum();
+    }
+
+    /**
+     * Return the time background searches spent settling vertices, in nanoseconds.
+     */
+    public static long searchNanos() {
+        return searchNanos.sum();
+    }
+
+    /**
+     * Return the time background searches spent reporting progress to the EDT, in nanoseconds.
+     */
+    public static long publishNanos() {
+        return publishNanos.sum();
+    }
+
+    /**
+     * Record that a live-wire was first drawn `nanos` nanoseconds after its point was placed,
+     * where `cached` says whether that point's paths were cached.
+     */
+    static void recordLiveWire(long nanos, boolean cached) {
+        if (SearchMetrics.enabled()) {
+            liveWires.increment();
+            if (cached) {
+                cachedLiveWires.increment();
+            }
+            liveWireNanos.add(nanos);
+            maxLiveWireNanos.accumulate(nanos);
+        }
+    }
+
+    /**
+     * Record a background search batch that spent `searchNanos` nanoseconds settling vertices and
+     * `publishNanos` nanoseconds reporting its progress.
+     */
+    static void recordBatch(long searchNanos, long publishNanos) {
+        if (SearchMetrics.enabled()) {
+            batches.increment();
+            SelectionMetrics.searchNanos.add(searchNanos);
+            SelectionMetrics.publishNanos.add(publishNanos);
+        }
+    }
+
+    /**
+     * Commit a `SelectionMetricsEvent` holding the current counters.
+     */
+    private static void emitEvent() {
+        SelectionMetricsEvent event = new SelectionMetricsEvent();
+        long count = liveWires();
+        event.liveWires = count;
+        event.cachedLiveWires = cachedLiveWires();
+        event.meanTimeToLiveWire = (count > 0) ? liveWireNanos.sum() / count : 0;
+        event.maxTimeToLiveWire = maxLiveWireNanos.get();
+        event.batches = batches();
+        event.searchNanos = searchNanos();
+        event.publishNanos = publishNanos();
+        event.commit();
+    }
+
+    /**
+     * Exposes the counters over JMX.
+     */
+    private static final class Bean implements SelectionMetricsMXBean {
+
+        @Override
+        public long getLiveWires() {
+            return liveWires();
+        }
+
+        @Override
+        public long getCachedLiveWires() {
+            return cachedLiveWires();
+        }
+
+        @Override
+        public double getMeanTimeToLiveWireMillis() {
+            return meanTimeToLiveWireMillis();
+        }
+
+        @Override
+        public double getMaxTimeToLiveWireMillis() {
+            return maxTimeToLiveWireMillis();
+        }
+
+        @Override
+        public long getBatches() {
+            return batches();
+        }
+
+        @Override
+        public long getSearchNanos() {
+            return searchNanos();
+        }
+
+        @Override
+        public long getPublishNanos() {
+            return publishNanos();
+        }
+
+        @Override
+        public void reset() {
+            SelectionMetrics.reset();
+        }
+    }
+}
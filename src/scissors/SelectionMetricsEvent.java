@@ -0,0 +1,46 @@
+package scissors;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.Timespan;
+
+/**
+ * A periodic flight-recorder event holding the running totals of `SelectionMetrics`.  Emitted once
+ * per second while a recording has it enabled, and never otherwise.
+ */
+@Name("smarttrace.SelectionMetrics")
+@Label("Selection Metrics")
+@Category({"SmartTrace", "Selection"})
+@Description("Running totals describing the responsiveness of scissors selections")
+@Period("1 s")
+class SelectionMetricsEvent extends Event {
+
+    @Label("Live-Wires")
+    long liveWires;
+
+    @Label("Live-Wires From Cached Paths")
+    long cachedLiveWires;
+
+    @Label("Mean Time to Live-Wire")
+    @Timespan
+    long meanTimeToLiveWire;
+
+    @Label("Max Time to Live-Wire")
+    @Timespan
+    long maxTimeToLiveWire;
+
+    @Label("Search Batches")
+    long batches;
+
+    @Label("Search Time")
+    @Timespan
+    long searchNanos;
+
+    @Label("Publish Time")
+    @Timespan
+    long publishNanos;
+}
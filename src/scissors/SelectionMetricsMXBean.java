@@ -0,0 +1,50 @@
+package scissors;
+
+/**
+ * The management interface of `SelectionMetrics`, registered as
+ * `smarttrace:type=SelectionMetrics`.  Attributes are running totals since the process started or
+ * since the last `reset()`.
+ */
+public interface SelectionMetricsMXBean {
+
+    /**
+     * Return the number of points from which a live-wire has been drawn.
+     */
+    long getLiveWires();
+
+    /**
+     * Return how many of those points had their paths cached.
+     */
+    long getCachedLiveWires();
+
+    /**
+     * Return the mean time from placing a point to first drawing its live-wire, in milliseconds.
+     */
+    double getMeanTimeToLiveWireMillis();
+
+    /**
+     * Return the longest time from placing a point to first drawing its live-wire, in
+     * milliseconds.
+     */
+    double getMaxTimeToLiveWireMillis();
+
+    /**
+     * Return the number of background search batches run.
+     */
+    long getBatches();
+
+    /**
+     * Return the time background searches spent settling vertices, in nanoseconds.
+     */
+    long getSearchNanos();
+
+    /**
+     * Return the time background searches spent reporting progress, in nanoseconds.
+     */
+    long getPublishNanos();
+
+    /**
+     * Set every counter back to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,418 @@
+package scissors;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An RGB image stored in a file as a grid of square tiles, which are memory-mapped on demand.  Only
+ * the tiles that are actually accessed occupy memory (and that memory is managed by the operating
+ * system, not the Java heap), so images far larger than the heap can be displayed through a
+ * `BufferedImage` view (see `view()`) and traced by building an `ImageGraph` over a region of
+ * interest (see `ImageGraph.ofRegion()`).  Pixel counts and file offsets are computed as `long`s,
+ * so the total number of pixels may exceed `Integer.MAX_VALUE`.
+ * <p>
+ * File format: a header of `HEADER_BYTES` bytes (the magic number `MAGIC`, then the width and
+ * height as big-endian `int`s), followed by the tiles in row-major order.  Each tile holds
+ * `TILE_SIZE * TILE_SIZE` pixels in row-major order as big-endian `int`s in the same format as
+ * `BufferedImage.TYPE_INT_RGB`; tiles along the right and bottom edges are padded to full size.
+ * <p>
+ * Safe to read from multiple threads, but writes must not be concurrent with other accesses to the
+ * same pixels.
+ */
+public class TiledImage implements Closeable {
+
+    /**
+     * The width and height (in pixels) of each tile.
+     */
+    public static final int TILE_SIZE = 512;
+
+    /**
+     * The customary file name suffix for files in our format.
+     */
+    public static final String FILE_SUFFIX = "tiles";
+
+    /**
+     * Identifies files in our format ("TILE" in ASCII).
+     */
+    static final int MAGIC = 0x54494C45;
+
+    /**
+     * The number of bytes preceding the first tile in a file.
+     */
+    static final int HEADER_BYTES = 16;
+
+    /**
+     * The number of bytes occupied by each tile in a file.
+     */
+    private static final long TILE_BYTES = (long) TILE_SIZE * TILE_SIZE * Integer.BYTES;
+
+    /**
+     * The open file backing this image.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Whether tiles are mapped for writing as well as reading.
+     */
+    private final boolean writable;
+
+    /**
+     * The dimensions of this image in pixels, and in tiles (rounding up).
+     */
+    private final int width;
+    private final int height;
+    private final int tilesX;
+    private final int tilesY;
+
+    /**
+     * `tiles[tx + tilesX*ty]` is the mapped buffer for the tile in column `tx` and row `ty`, or
+     * null if that tile has not been accessed yet.  Tiles are mapped without locking; if two
+     * threads race to map the same tile, one mapping is kept and the other is left to the garbage
+     * collector.
+     */
+    private final AtomicReferenceArray<MappedByteBuffer> tiles;
+
+    /**
+     * Create an image of the given dimensions backed by the already-open file `channel`.  Throws
+     * IllegalArgumentException if the image would have too many tiles to track.
+     */
+    private TiledImage(FileChannel channel, boolean writable, int width, int height) {
+        this.channel = channel;
+        this.writable = writable;
+        this.width = width;
+        this.height = height;
+        tilesX = Math.ceilDiv(width, TILE_SIZE);
+        tilesY = Math.ceilDiv(height, TILE_SIZE);
+        if ((long) tilesX * tilesY > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "Too many tiles for image dimensions: " + width + " x " + height);
+        }
+        tiles = new AtomicReferenceArray<>(tilesX * tilesY);
+    }
+
+    /**
+     * Create a new file at `file` (replacing any existing file) to back a black image of
+     * dimensions `width` x `height`, and return that image opened for reading and writing.  Throws
+     * IllegalArgumentException if either dimension is not positive.
+     */
+    public static TiledImage create(Path file, int width, int height) throws IOException {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException(
+                    "Invalid image dimensions: " + width + " x " + height);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(width).putInt(height).flip();
+            channel.write(header, 0);
+            TiledImage image = new TiledImage(channel, true, width, height);
+            // Extend the file to its full size (sparsely, on most file systems) by writing its
+            //  last byte.
+            long size = HEADER_BYTES + (long) image.tiles.length() * TILE_BYTES;
+            channel.write(ByteBuffer.allocate(1), size - 1);
+            return image;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Return whether `file` starts with the header of an image in our format.  Returns false if the
+     * file cannot be read.
+     */
+    public static boolean isTiledImage(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            while (magic.hasRemaining() && channel.read(magic, magic.position()) >= 0) {
+                // Keep reading
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Open the existing image stored in `file`, for writing as well as reading if `writable` is
+     * true.  Throws IOException if the file cannot be read or is not in our format.
+     */
+    public static TiledImage open(Path file, boolean writable) throws IOException {
+        FileChannel channel = writable
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // Keep reading
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                throw new IOException("Not a tiled image: " + file);
+            }
+            int width = header.getInt();
+            int height = header.getInt();
+            if (width <= 0 || height <= 0) {
+                throw new IOException("Invalid image dimensions in " + file);
+            }
+            TiledImage image = new TiledImage(channel, writable, width, height);
+            if (channel.size() < HEADER_BYTES + (long) image.tiles.length() * TILE_BYTES) {
+                throw new IOException("Truncated tiled image: " + file);
+            }
+            return image;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Return the width of this image (the number of pixels in one row).
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Return the height of this image (the number of pixels in one column).
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Return the total number of pixels in this image, which may exceed `Integer.MAX_VALUE`.
+     */
+    public long pixelCount() {
+        return (long) width * height;
+    }
+
+    /**
+     * Return the RGB value of the pixel at (`x`, `y`) (in the same format as
+     * `BufferedImage.getRGB()`, but with an undefined alpha).  Requires the location is within
+     * the bounds of this image.
+     */
+    public int getRGB(int x, int y) {
+        assert x >= 0 && x < width && y >= 0 && y < height;
+        return tile(x / TILE_SIZE, y / TILE_SIZE).getInt(offsetInTile(x, y));
+    }
+
+    /**
+     * Set the RGB value of the pixel at (`x`, `y`) to `rgb`.  Requires the location is within the
+     * bounds of this image.  Throws IllegalStateException if this image was not opened for
+     * writing.
+     */
+    public void setRGB(int x, int y, int rgb) {
+        assert x >= 0 && x < width && y >= 0 && y < height;
+        checkWritable();
+        tile(x / TILE_SIZE, y / TILE_SIZE).putInt(offsetInTile(x, y), rgb);
+    }
+
+    /**
+     * Copy all of `src` into this image with its top-left corner at (`x`, `y`).  Large images can
+     * be imported by writing them in strips.  Throws IllegalArgumentException if `src` would not
+     * fit within our bounds at that location, or IllegalStateException if this image was not
+     * opened for writing.
+     */
+    public void write(BufferedImage src, int x, int y) {
+        checkWritable();
+        Rectangle region = new Rectangle(x, y, src.getWidth(), src.getHeight());
+        checkRegion(region);
+        int[] row = new int[src.getWidth()];
+        for (int sy = 0; sy < src.getHeight(); ++sy) {
+            src.getRGB(0, sy, row.length, 1, row, 0, row.length);
+            copyRow(x, y + sy, row, 0, row.length, true);
+        }
+    }
+
+    /**
+     * Return a view of this whole image as a `BufferedImage` (see `view(Rectangle)`).  Throws
+     * IllegalArgumentException if this image contains more pixels than a `BufferedImage` can.
+     */
+    public BufferedImage view() {
+        return view(new Rectangle(0, 0, width, height));
+    }
+
+    /**
+     * Return a view of the pixels of this image within `region` as a `BufferedImage` (whose pixel
+     * (0, 0) corresponds to `region`'s top-left corner).  No pixels are copied: the view's raster
+     * reads them from our mapped tiles as they are accessed, so the view occupies almost no heap,
+     * and drawing on it writes to this image (if it was opened for writing).  The view is only
+     * valid while this image is open.  Throws IllegalArgumentException if `region` is empty,
+     * extends beyond our bounds, or contains more pixels than a `BufferedImage` can.
+     */
+    public BufferedImage view(Rectangle region) {
+        checkRegion(region);
+        if ((long) region.width * region.height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Region is too large to view: " + region);
+        }
+        DirectColorModel colorModel = new DirectColorModel(24, 0xFF0000, 0xFF00, 0xFF);
+        SinglePixelPackedSampleModel sampleModel = new SinglePixelPackedSampleModel(
+                DataBuffer.TYPE_INT, region.width, region.height, colorModel.getMasks());
+        WritableRaster raster = Raster.createWritableRaster(sampleModel,
+                new TileBuffer(this, region), null);
+        return new BufferedImage(colorModel, raster, false, null);
+    }
+
+    /**
+     * Return the tiled image that `img` is a view of (see `view()`), or null if `img` is not a view
+     * of the whole of a tiled image.
+     */
+    public static TiledImage viewed(BufferedImage img) {
+        if (img.getRaster().getDataBuffer() instanceof TileBuffer buffer
+                && buffer.region.x == 0 && buffer.region.y == 0
+                && buffer.region.width == buffer.image.width
+                && buffer.region.height == buffer.image.height) {
+            return buffer.image;
+        }
+        return null;
+    }
+
+    /**
+     * Copy `length` pixels of the row `y`, starting at column `x`, into `pixels` starting at index
+     * `offset`.  Requires that the pixels are within our bounds.
+     */
+    void readRow(int x, int y, int[] pixels, int offset, int length) {
+        assert x >= 0 && (long) x + length <= width && y >= 0 && y < height;
+        copyRow(x, y, pixels, offset, length, false);
+    }
+
+    /**
+     * Release our file.  Mapped tiles remain valid until they are garbage collected, but must not
+     * be accessed through this object again.
+     */
+    @Override
+    public void close() throws IOException {
+        if (writable) {
+            for (int i = 0; i < tiles.length(); ++i) {
+                MappedByteBuffer tile = tiles.get(i);
+                if (tile != null) {
+                    tile.force();
+                }
+            }
+        }
+        channel.close();
+    }
+
+    /**
+     * Copy `length` pixels of the row `y`, starting at column `x`, to (if `toImage` is false) or
+     * from (if `toImage` is true) `pixels` starting at index `offset`.  Requires that the pixels
+     * are within our bounds.
+     */
+    private void copyRow(int x, int y, int[] pixels, int offset, int length, boolean toImage) {
+        int ty = y / TILE_SIZE;
+        while (length > 0) {
+            int tx = x / TILE_SIZE;
+            int n = Math.min(length, (tx + 1) * TILE_SIZE - x);
+            // Slice so that concurrent readers do not disturb each other's positions
+            IntBuffer span = tile(tx, ty).slice(offsetInTile(x, y), n * Integer.BYTES)
+                    .asIntBuffer();
+            if (toImage) {
+                span.put(pixels, offset, n);
+            } else {
+                span.get(pixels, offset, n);
+            }
+            x += n;
+            offset += n;
+            length -= n;
+        }
+    }
+
+    /**
+     * Return the byte offset of pixel (`x`, `y`) within its tile.
+     */
+    private static int offsetInTile(int x, int y) {
+        return ((y % TILE_SIZE) * TILE_SIZE + (x % TILE_SIZE)) * Integer.BYTES;
+    }
+
+    /**
+     * Return the mapped buffer for the tile in column `tx` and row `ty`, mapping it if this is the
+     * first access.  Once a tile is mapped, this is a single volatile read, so concurrent readers
+     * never wait for each other.  Throws UncheckedIOException if the tile cannot be mapped.
+     */
+    private MappedByteBuffer tile(int tx, int ty) {
+        int index = tx + tilesX * ty;
+        MappedByteBuffer tile = tiles.get(index);
+        if (tile == null) {
+            try {
+                tile = channel.map(writable ? MapMode.READ_WRITE : MapMode.READ_ONLY,
+                        HEADER_BYTES + index * TILE_BYTES, TILE_BYTES);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            // If another thread mapped the tile first, use its mapping instead of ours
+            MappedByteBuffer mapped = tiles.compareAndExchange(index, null, tile);
+            if (mapped != null) {
+                tile = mapped;
+            }
+        }
+        return tile;
+    }
+
+    /**
+     * Throw IllegalStateException if this image was not opened for writing.
+     */
+    private void checkWritable() {
+        if (!writable) {
+            throw new IllegalStateException("Image was opened read-only");
+        }
+    }
+
+    /**
+     * Throw IllegalArgumentException if `region` is empty or extends beyond our bounds.
+     */
+    private void checkRegion(Rectangle region) {
+        if (region.isEmpty() || region.x < 0 || region.y < 0
+                || (long) region.x + region.width > width
+                || (long) region.y + region.height > height) {
+            throw new IllegalArgumentException("Region out of bounds: " + region);
+        }
+    }
+
+    /**
+     * The data buffer of a view of a region of a tiled image (see `view()`), whose elements are
+     * the region's pixels in row-major order, read from and written to the image's mapped tiles.
+     */
+    static final class TileBuffer extends DataBuffer {
+
+        /**
+         * The image being viewed, and the region of it that our elements correspond to.
+         */
+        final TiledImage image;
+        final Rectangle region;
+
+        TileBuffer(TiledImage image, Rectangle region) {
+            super(DataBuffer.TYPE_INT, region.width * region.height);
+            this.image = image;
+            this.region = new Rectangle(region);
+        }
+
+        @Override
+        public int getElem(int bank, int i) {
+            return image.getRGB(region.x + i % region.width, region.y + i / region.width);
+        }
+
+        @Override
+        public void setElem(int bank, int i, int val) {
+            image.setRGB(region.x + i % region.width, region.y + i / region.width, val);
+        }
+    }
+}
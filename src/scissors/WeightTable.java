@@ -0,0 +1,146 @@
+package scissors;
+
+import graph.BoundedWeigher;
+import graph.IntEdgeWeigher;
+import graph.Weigher;
+import java.util.stream.IntStream;
+
+/**
+ * A precomputed table of the weights of every edge in an ImageGraph, as determined by some other
+ * weigher.  Weights are packed into one byte per edge, with the 8 edges leaving each pixel stored
+ * contiguously, so weighing an edge costs a single array load.  Tables are expensive to build but
+ * are immutable and safe to share between threads; see `ImageGraph.weightTable()`.
+ */
+class WeightTable implements BoundedWeigher<ImageEdge>, IntEdgeWeigher<ImageEdge> {
+
+    /**
+     * A weigher that can weigh all of the edges leaving a row of pixels at once, which is much
+     * faster than weighing them one at a time when building a table.
+     */
+    interface RowWeigher {
+
+        /**
+         * Set `weights[dir][x]` to the weight of the edge leaving the pixel at (`x`, `y`) in
+         * direction `dir`, for every such edge within the image.  Other entries may be set to
+         * arbitrary values.  Requires `weights` has 8 rows at least as long as the image's width.
+         */
+        void weighRow(int y, int[][] weights);
+    }
+
+    /**
+     * The number of consecutive rows tabulated together by each task when using a `RowWeigher`.
+     */
+    private static final int STRIP_HEIGHT = 16;
+
+    /**
+     * `weights[8*id + dir]` is the weight of the edge leaving the vertex with ID `id` in direction
+     * `dir`, as an unsigned byte.  Entries for directions that leave the image are unspecified.
+     */
+    private final byte[] weights;
+
+    /**
+     * The smallest weight of any edge in the table.
+     */
+    private final int minWeight;
+
+    /**
+     * Tabulate the weights that `source` assigns to every edge in `graph`.  Rows of the image are
+     * processed in parallel, so `source` must be safe to call from multiple threads.  If `source`
+     * is a `RowWeigher`, each row is weighed at once.  Requires
+     * every weight from `source` to be in `[0..255]`.  Throws IllegalArgumentException if `graph`
+     * has too many edges to fit in a single array.
+     */
+    WeightTable(ImageGraph graph, Weigher<ImageEdge> source) {
+        int width = graph.width();
+        long size = 8L * graph.vertexCount();
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Image too large for a weight table");
+        }
+        weights = new byte[(int) size];
+
+        if (source instanceof RowWeigher rowWeigher) {
+            int strips = (graph.height() + STRIP_HEIGHT - 1) / STRIP_HEIGHT;
+            minWeight = IntStream.range(0, strips).parallel().map(strip -> {
+                int[][] rowWeights = new int[8][width];
+                int fromY = strip * STRIP_HEIGHT;
+                int toY = Math.min(graph.height(), fromY + STRIP_HEIGHT);
+                int stripMin = ScissorsWeights.MAX_WEIGHT;
+                for (int y = fromY; y < toY; ++y) {
+                    rowWeigher.weighRow(y, rowWeights);
+                    stripMin = Math.min(stripMin, tabulateRow(graph, y, rowWeights));
+                }
+                return stripMin;
+            }).min().orElse(0);
+            return;
+        }
+        minWeight = IntStream.range(0, graph.height()).parallel().map(y -> {
+            int rowMin = ScissorsWeights.MAX_WEIGHT;
+            for (int x = 0; x < width; ++x) {
+                ImageVertex v = new ImageVertex(graph, x, y);
+                int id = v.id();
+                for (int dir = 0; dir < 8; ++dir) {
+                    if (v.validDir(dir)) {
+                        int w = source.weight(new ImageEdge(id, v.neighborId(dir), dir));
+                        assert w >= 0 && w <= ScissorsWeights.MAX_WEIGHT;
+                        weights[8 * id + dir] = (byte) w;
+                        rowMin = Math.min(rowMin, w);
+                    }
+                }
+            }
+            return rowMin;
+        }).min().orElse(0);
+    }
+
+    /**
+     * Store the weights `rowWeights` of the edges leaving row `y` of `graph`'s image (as set by a
+     * `RowWeigher`), and return the smallest of them (or `MAX_WEIGHT` if there are none).
+     */
+    private int tabulateRow(ImageGraph graph, int y, int[][] rowWeights) {
+        int width = graph.width();
+
+        // Edges leaving a row in a given direction are valid for a contiguous range of pixels,
+        //  which excludes at most the first and last pixels.
+        ImageVertex first = new ImageVertex(graph, 0, y);
+        ImageVertex last = new ImageVertex(graph, width - 1, y);
+        int base = 8 * first.id();
+        int rowMin = ScissorsWeights.MAX_WEIGHT;
+        for (int dir = 0; dir < 8; ++dir) {
+            int from = first.validDir(dir) ? 0 : 1;
+            int to = last.validDir(dir) ? width : width - 1;
+            if (from >= to || !new ImageVertex(graph, from, y).validDir(dir)) {
+                continue;
+            }
+            int[] w = rowWeights[dir];
+            for (int x = from; x < to; ++x) {
+                assert w[x] >= 0 && w[x] <= ScissorsWeights.MAX_WEIGHT;
+                weights[base + 8 * x + dir] = (byte) w[x];
+                rowMin = Math.min(rowMin, w[x]);
+            }
+        }
+        return rowMin;
+    }
+
+    @Override
+    public int weight(ImageEdge edge) {
+        return weight(edge.startId(), edge.dir());
+    }
+
+    @Override
+    public int weight(int startId, int dir) {
+        return weights[8 * startId + dir] & 0xFF;
+    }
+
+    @Override
+    public int maxWeight() {
+        return ScissorsWeights.MAX_WEIGHT;
+    }
+
+    /**
+     * Return the smallest weight of any edge in the table (which, unlike the bound promised by our
+     * source weigher, reflects the actual image).
+     */
+    @Override
+    public int minWeight() {
+        return minWeight;
+    }
+}
@@ -0,0 +1,24 @@
+package selector;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A flight-recorder event spanning `SelectionComponent.paintComponent()`, so that slow frames can
+ * be correlated with pathfinding and garbage collection.
+ */
+@Name("smarttrace.PaintSelection")
+@Label("Paint Selection")
+@Category({"SmartTrace", "Selection"})
+@Description("Painting the selection overlay")
+class PaintSelectionEvent extends Event {
+
+    @Label("State")
+    String state;
+
+    @Label("Segments")
+    int segments;
+}
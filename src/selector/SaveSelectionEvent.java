@@ -0,0 +1,33 @@
+package selector;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A flight-recorder event spanning `SelectionModel.saveSelection()`: clipping the selected region
+ * out of the image and encoding it.
+ */
+@Name("smarttrace.SaveSelection")
+@Label("Save Selection")
+@Category({"SmartTrace", "Selection"})
+@Description("Clipping and encoding a selection as a PNG")
+class SaveSelectionEvent extends Event {
+
+    @Label("Segments")
+    int segments;
+
+    @Label("Width")
+    int width;
+
+    @Label("Height")
+    int height;
+
+    @Label("Encode Time")
+    @Description("Time spent encoding and writing the PNG, after clipping")
+    @Timespan
+    long encodeNanos;
+}
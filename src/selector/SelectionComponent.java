@@ -2,12 +2,12 @@ package selector;
 
 import static selector.SelectionModel.SelectionState.*;
 
-import java.awt.Rectangle;
 import scissors.ImagePathsSnapshot;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
@@ -75,6 +75,29 @@ public class SelectionComponent extends JComponent implements MouseListener, Mou
      */
     private Color controlPointColor = Color.CYAN;
 
+    /**
+     * The colors used to shade pixels that pathfinding has settled, or discovered but not yet
+     * settled, while processing.
+     */
+    private Color settledColor = new Color(192, 192, 96, 128);
+    private Color frontierColor = new Color(96, 96, 192, 128);
+
+    /* Progress overlay */
+
+    /**
+     * An image the size of the region that our model's current pathfinding search may reach (see
+     * `ImagePathsSnapshot.bounds()`) shading the pixels it has reached, which is updated
+     * incrementally as the search progresses rather than redrawn for every paint.  Null until
+     * needed.
+     */
+    private transient BufferedImage progressOverlay;
+
+    /**
+     * The pathfinding progress that `progressOverlay` is up to date with, or null if it must be
+     * redrawn from scratch (because a new search has started, for example).
+     */
+    private transient ImagePathsSnapshot overlayPaths;
+
     /**
      * Construct a new SelectionComponent that will participate in viewing and controlling the
      * selection modeled by `model`.  View will update upon receiving property change events from
@@ -116,6 +139,9 @@ public class SelectionComponent extends JComponent implements MouseListener, Mou
         // index may not be valid in the new model
         selectedIndex = -1;
 
+        // Our progress overlay shows the old model's search
+        overlayPaths = null;
+
         // Model state has changed; update our view.
         repaint();
     }
@@ -155,6 +181,8 @@ public class SelectionComponent extends JComponent implements MouseListener, Mou
      */
     @Override
     public void paintComponent(Graphics g) {
+        PaintSelectionEvent event = new PaintSelectionEvent();
+        event.begin();
         List<PolyLine> segments = model.selection();
 
         // Draw perimeter
@@ -181,32 +209,37 @@ public class SelectionComponent extends JComponent implements MouseListener, Mou
                 paintPathfindingProgress(g, (ImagePathsSnapshot) progress);
             }
         }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.state = model.state().name();
+            event.segments = segments.size();
+            event.commit();
+        }
     }
 // New in A6
     /**
      * Shade image pixels according to their current path search status (settled, frontier, or
-     * undiscovered).  Do nothing if there is no pending path solution.
+     * undiscovered).  Our overlay is only updated where the search has progressed since it was
+     * last painted.
      */
     private void paintPathfindingProgress(Graphics g, ImagePathsSnapshot pendingPaths) {
-        int settledColor = new Color(192, 192, 96, 128).getRGB();
-        int frontierColor = new Color(96, 96, 192, 128).getRGB();
-
-        Rectangle bounds = g.getClipBounds();
-        int width = Math.min(bounds.width, model.image().getWidth() - bounds.x);
-        int height = Math.min(bounds.height, model.image().getHeight() - bounds.y);
-
-        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-        for (int x = bounds.x; x < bounds.x + width; ++x) {
-            for (int y = bounds.y; y < bounds.y + height; ++y) {
-                Point p = new Point(x, y);
-                if (pendingPaths.settled(p)) {
-                    img.setRGB(x - bounds.x, y - bounds.y, settledColor);
-                } else if (pendingPaths.discovered(p)) {
-                    img.setRGB(x - bounds.x, y - bounds.y, frontierColor);
-                }
-            }
+        // The overlay only covers the region the search may reach, which may be a small part of a
+        //  very large image.
+        Rectangle bounds = pendingPaths.bounds();
+        if (progressOverlay == null || progressOverlay.getWidth() != bounds.width
+                || progressOverlay.getHeight() != bounds.height) {
+            progressOverlay = new BufferedImage(bounds.width, bounds.height,
+                    BufferedImage.TYPE_INT_ARGB);
+            overlayPaths = null;
+        }
+        if (!pendingPaths.sameAs(overlayPaths)) {
+            pendingPaths.updateOverlay(overlayPaths, progressOverlay, settledColor.getRGB(),
+                    frontierColor.getRGB());
+            overlayPaths = pendingPaths;
         }
-        g.drawImage(img, bounds.x, bounds.y, null);
+        // Only the part of the overlay within our clip bounds is actually drawn
+        g.drawImage(progressOverlay, bounds.x, bounds.y, null);
     }
     /**
      * Draw on `g` along the selection path represented by `segments` using our selection perimeter
@@ -341,7 +374,7 @@ public class SelectionComponent extends JComponent implements MouseListener, Mou
         int button = e.getButton();
 
         if (button == MouseEvent.BUTTON1)
-            if (model.state() == NO_SELECTION || model.state() == SELECTING) {
+            if (model.canAddPoint()) {
                 model.addPoint(e.getPoint());
             }
         if (button == MouseEvent.BUTTON2){
@@ -370,6 +403,7 @@ public class SelectionComponent extends JComponent implements MouseListener, Mou
     public void mouseMoved(MouseEvent e) {
         if (model.state() == SELECTING) {
             updateMouseLocation(e.getPoint());
+            model.cursorMoved(new Point(mouseLocation));
         }
     }
 
@@ -445,6 +479,15 @@ public class SelectionComponent extends JComponent implements MouseListener, Mou
             selectedIndex = -1;
         }
 
+        // Any later progress will be from a new search, which our progress overlay must be redrawn
+        // for.  The overlay is discarded along with the image it covered.
+        if (e.getPropertyName().equals("state")) {
+            overlayPaths = null;
+        } else if (e.getPropertyName().equals("image")) {
+            progressOverlay = null;
+            overlayPaths = null;
+        }
+
         // If any property of the model changed, repaint to update view
         repaint();
     }
@@ -174,6 +174,14 @@ public abstract class SelectionModel {
         }
     }
 
+    /**
+     * Return whether `addPoint()` may currently be called.  By default, points may only be added
+     * when no selection has been started or while one is in progress.
+     */
+    public boolean canAddPoint() {
+        return state() == SelectionState.NO_SELECTION || state() == SelectionState.SELECTING;
+    }
+
     /**
      * Return the last (end) point along the current selection path.  If no segments have been added
      * to the selection yet, or if the selection has finished, this will be the starting point.
@@ -207,6 +215,15 @@ public abstract class SelectionModel {
      */
     public abstract PolyLine liveWire(Point p);
 
+    /**
+     * Notify this model that the user's cursor has moved to `p` (within the image) while a
+     * selection is in progress.  Subclasses may use this to anticipate where the next point will be
+     * added.  The default implementation does nothing.
+     */
+    public void cursorMoved(Point p) {
+        // Default implementation does nothing
+    }
+
     /**
      * If we are still processing the most recently added point, cancel that operation.  Otherwise,
      * remove the last segment from the selection path.  If the selection path does not contain any
@@ -312,6 +329,8 @@ public abstract class SelectionModel {
         if (state != SELECTED) {
             throw new IllegalStateException("Must complete selection before saving");
         }
+        SaveSelectionEvent event = new SaveSelectionEvent();
+        event.begin();
         Polygon clip = PolyLine.makePolygon(selection);
         Rectangle bounds = clip.getBounds();
         clip.translate(-bounds.x, -bounds.y);
@@ -320,7 +339,17 @@ public abstract class SelectionModel {
         var g = dst.createGraphics();
         g.setClip(clip);
         g.drawImage(img, -bounds.x, -bounds.y, null);
+        long encodeStart = System.nanoTime();
         ImageIO.write(dst, "png", out);
+        long encodeNanos = System.nanoTime() - encodeStart;
+        event.end();
+        if (event.shouldCommit()) {
+            event.segments = selection.size();
+            event.width = bounds.width;
+            event.height = bounds.height;
+            event.encodeNanos = encodeNanos;
+            event.commit();
+        }
     }
 
     /* Specialization interface */
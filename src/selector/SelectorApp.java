@@ -9,11 +9,13 @@ import java.awt.image.BufferedImage;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.*;
+import java.util.Arrays;
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import selector.SelectionModel.SelectionState;
 import scissors.ScissorsSelectionModel;
+import scissors.TiledImage;
 
 /**
  * A graphical application for selecting and extracting regions of images.
@@ -42,6 +44,12 @@ public class SelectorApp implements PropertyChangeListener {
      */
     private SelectionModel model;
 
+    /**
+     * The tiled image that our current image is a view of, or null if it is not a view of one.
+     * Kept open for as long as its view is displayed, since its tiles are mapped as they are drawn.
+     */
+    private TiledImage tiledImage;
+
     /* Components whose state must be changed during the selection process. */
     private JMenuItem saveItem;
     private JMenuItem undoItem;
@@ -154,7 +162,7 @@ public class SelectorApp implements PropertyChangeListener {
 
         // Controller: Attach menu item listeners
         openItem.addActionListener(e -> openImage());
-        closeItem.addActionListener(e -> imgPanel.setImage(null));
+        closeItem.addActionListener(e -> setImage(null));
         saveItem.addActionListener(e -> saveSelection());
         exitItem.addActionListener(e -> frame.dispose());
         undoItem.addActionListener(e -> model.undo());
@@ -336,6 +344,32 @@ public class SelectorApp implements PropertyChangeListener {
      */
     public void setImage(BufferedImage img) {
         imgPanel.setImage(img);
+
+        // Close the tiled image we were displaying a view of, if we no longer are.
+        TiledImage viewed = (img != null) ? TiledImage.viewed(img) : null;
+        if (tiledImage != null && tiledImage != viewed) {
+            try {
+                tiledImage.close();
+            } catch (IOException e) {
+                // It was opened read-only, so nothing can have been lost
+            }
+        }
+        tiledImage = viewed;
+    }
+
+    /**
+     * Open the tiled image stored in `file` (see `TiledImage`) and return a view of it.  The tiled
+     * image is closed once its view is no longer displayed.  Throws IOException if the file cannot
+     * be read, or IllegalArgumentException if the image has too many pixels to display.
+     */
+    private BufferedImage openTiledImage(File file) throws IOException {
+        TiledImage tiled = TiledImage.open(file.toPath(), false);
+        try {
+            return tiled.view();
+        } catch (IllegalArgumentException e) {
+            tiled.close();
+            throw e;
+        }
     }
 
     /**
@@ -347,9 +381,12 @@ public class SelectorApp implements PropertyChangeListener {
         JFileChooser chooser = new JFileChooser();
         // Start browsing in current directory
         chooser.setCurrentDirectory(new File(System.getProperty("user.dir")));
-        // Filter for file extensions supported by Java's ImageIO readers
-        chooser.setFileFilter(new FileNameExtensionFilter("Image files",
-                ImageIO.getReaderFileSuffixes()));
+        // Filter for file extensions supported by Java's ImageIO readers, plus tiled images (which
+        //  are memory-mapped, so they may be larger than the heap)
+        String[] suffixes = ImageIO.getReaderFileSuffixes();
+        suffixes = Arrays.copyOf(suffixes, suffixes.length + 1);
+        suffixes[suffixes.length - 1] = TiledImage.FILE_SUFFIX;
+        chooser.setFileFilter(new FileNameExtensionFilter("Image files", suffixes));
 
         boolean executed = false;
         while (!executed) {
@@ -357,7 +394,8 @@ public class SelectorApp implements PropertyChangeListener {
             if (returnVal == JFileChooser.APPROVE_OPTION) {
                 File file = chooser.getSelectedFile();
                 try {
-                    BufferedImage image = ImageIO.read(file);
+                    BufferedImage image = TiledImage.isTiledImage(file.toPath())
+                            ? openTiledImage(file) : ImageIO.read(file);
                     if (image != null) {
                         this.setImage(image);
                         executed = true;
@@ -369,7 +407,7 @@ public class SelectorApp implements PropertyChangeListener {
 
                     }
 
-                } catch (IOException ex) {
+                } catch (IOException | IllegalArgumentException ex) {
                     JOptionPane.showMessageDialog(frame, "Could not read the image"
                                     + " at " + file.getAbsolutePath(), "Unsupported image"
                                     + " format",
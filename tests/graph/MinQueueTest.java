@@ -4,9 +4,13 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Random;
+import java.util.Set;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -212,6 +216,133 @@ class MinQueueTest {
         assertThrows(NoSuchElementException.class, () -> q.remove());
     }
 
+    @DisplayName("GIVEN an IntHeapMinQueue and a HeapMinQueue that receive the same sequence of "
+            + "additions and priority updates, WHEN elements are successively removed from both, "
+            + "THEN they will report the same sequence of minimum priorities")
+    @Test
+    void testIntHeapMatchesHeap() {
+        int capacity = 200;
+        IntHeapMinQueue q = new IntHeapMinQueue(capacity);
+        MinQueue<Integer> expected = makeQueue();
+
+        int seed = 1;
+        Random rng = new Random(seed);
+        for (int i = 0; i < 1000; i += 1) {
+            int key = rng.nextInt(capacity);
+            int priority = rng.nextInt(capacity);
+            q.addOrUpdate(key, priority);
+            expected.addOrUpdate(key, priority);
+            assertEquals(expected.size(), q.size());
+        }
+
+        while (!expected.isEmpty()) {
+            assertEquals(expected.minPriority(), q.minPriority());
+            expected.remove();
+            q.removeInt();
+        }
+        assertTrue(q.isEmpty());
+    }
+
+    @DisplayName("GIVEN a non-empty IntHeapMinQueue, WHEN it is cleared, THEN previously-contained "
+            + "keys can be added again as new elements")
+    @Test
+    void testIntHeapClearReuse() {
+        IntHeapMinQueue q = new IntHeapMinQueue(20);
+        for (int i = 0; i < 20; i += 1) {
+            q.addOrUpdate(i, 20 - i);
+        }
+        q.clear();
+        assertTrue(q.isEmpty());
+
+        q.addOrUpdate(5, 7);
+        q.addOrUpdate(19, 3);
+        assertEquals(2, q.size());
+        assertEquals(19, q.removeInt());
+        assertEquals(5, q.removeInt());
+        assertThrows(NoSuchElementException.class, () -> q.removeInt());
+    }
+
+    @DisplayName("GIVEN a BucketMinQueue driven by a monotone workload (new priorities never "
+            + "exceed the last removed priority by more than the span), WHEN elements are "
+            + "successively removed, THEN each removed element will have the smallest priority of "
+            + "those remaining")
+    @Test
+    void testBucketMonotoneOrder() {
+        int maxSpan = 17;
+        checkMonotoneOrder(new BucketMinQueue(500, maxSpan), maxSpan);
+    }
+
+    @DisplayName("GIVEN a RadixMinQueue driven by a monotone workload with large priority "
+            + "increments, WHEN elements are successively removed, THEN each removed element will "
+            + "have the smallest priority of those remaining")
+    @Test
+    void testRadixMonotoneOrder() {
+        checkMonotoneOrder(new RadixMinQueue(500), 1_000_000);
+    }
+
+    @DisplayName("GIVEN a RadixMinQueue from which an element has been removed, WHEN an element is "
+            + "given a priority smaller than the removed one, "
+            + "THEN an IllegalArgumentException will be thrown")
+    @Test
+    void testRadixMonotone() {
+        RadixMinQueue q = new RadixMinQueue(10);
+        q.addOrUpdate(0, 10);
+        q.addOrUpdate(1, 1000);
+        assertEquals(0, q.removeInt());
+        assertThrows(IllegalArgumentException.class, () -> q.addOrUpdate(2, 9));
+        q.addOrUpdate(1, 10);
+        assertEquals(10, q.minPriority());
+    }
+
+    @DisplayName("GIVEN a non-empty BucketMinQueue, WHEN an element is given a priority beyond its "
+            + "window, THEN an IllegalArgumentException will be thrown")
+    @Test
+    void testBucketWindow() {
+        BucketMinQueue q = new BucketMinQueue(10, 5);
+        q.addOrUpdate(0, 10);
+        assertThrows(IllegalArgumentException.class, () -> q.addOrUpdate(1, 16));
+        assertThrows(IllegalArgumentException.class, () -> q.addOrUpdate(1, 9));
+        q.addOrUpdate(1, 15);
+        assertEquals(2, q.size());
+    }
+
+    /**
+     * Drive `q` with a workload resembling Dijkstra's algorithm, in which each removal is followed
+     * by adding or updating a few keys (that have never been removed) with priorities up to
+     * `maxSpan` beyond the removed priority.  Assert that every removal returns a key with the
+     * smallest remaining priority.  Requires `q` is empty.
+     */
+    static void checkMonotoneOrder(IntMinQueue q, int maxSpan) {
+        int capacity = q.capacity();
+        // Model of the queue's expected contents
+        Map<Integer, Integer> contents = new HashMap<>();
+        Set<Integer> removed = new HashSet<>();
+
+        int seed = 1;
+        Random rng = new Random(seed);
+        q.addOrUpdate(0, 0);
+        contents.put(0, 0);
+        while (!contents.isEmpty()) {
+            int min = Collections.min(contents.values());
+            assertEquals(min, q.minPriority());
+            int key = q.removeInt();
+            assertEquals(min, contents.remove(key));
+            removed.add(key);
+
+            // Mimic relaxing a few edges out of the removed vertex
+            for (int j = 0; j < 3; j += 1) {
+                int k = rng.nextInt(capacity);
+                if (!removed.contains(k)) {
+                    int priority = min + rng.nextInt(maxSpan + 1);
+                    q.addOrUpdate(k, priority);
+                    contents.put(k, priority);
+                }
+            }
+            assertEquals(contents.size(), q.size());
+        }
+        assertTrue(q.isEmpty());
+    }
+
     /**
      * Helper method for constructing new, empty MinQueues.  Convenient for testing different
      * implementations.
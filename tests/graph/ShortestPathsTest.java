@@ -5,10 +5,15 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -107,6 +112,282 @@ class ShortestPathsTest {
         assertArrayEquals(new String[]{"A", "B", "C", "E", "D"}, pathLabels);
     }
 
+    @DisplayName("WHEN the weigher declares a maximum edge weight, THEN the same shortest paths "
+            + "will be found")
+    @Test
+    void testBoundedWeigher() {
+        SimpleGraph g = SimpleGraph.fromText(graph1);
+        Weigher<SimpleEdge> w = new BoundedSimpleWeigher(37);
+        ShortestPaths<SimpleVertex, SimpleEdge> pathfinder = new ShortestPaths<>(g, w);
+
+        SimpleVertex start = g.getVertexByLabel("A");
+        PathfindingSnapshot paths = pathfinder.findAllPaths(start.id());
+        assertEquals(g.vertexCount(), pathfinder.settledCount());
+
+        SimpleVertex end = g.getVertexByLabel("G");
+        assertEquals(50, paths.distanceTo(end.id()));
+        String[] pathLabels = paths.pathTo(end.id()).stream()
+                .map(id -> g.getVertex(id).label())
+                .toArray(String[]::new);
+        assertArrayEquals(new String[]{"A", "C", "E", "F", "G"}, pathLabels);
+    }
+
+    @DisplayName("GIVEN a snapshot from a partial search, WHEN the search is extended or "
+            + "restarted, THEN the earlier snapshot will not change")
+    @Test
+    void testSnapshotIsolation() {
+        SimpleGraph g = SimpleGraph.fromText(graph1);
+        ShortestPaths<SimpleVertex, SimpleEdge> pathfinder =
+                new ShortestPaths<>(g, new SimpleWeigher());
+        SimpleVertex start = g.getVertexByLabel("A");
+        SimpleVertex end = g.getVertexByLabel("G");
+
+        pathfinder.setStart(start.id());
+        PathfindingSnapshot partial = pathfinder.extendSearch(2);
+        pathfinder.extendSearch(g.vertexCount());
+        pathfinder.findAllPaths(end.id());
+
+        int settled = 0;
+        for (int id = 0; id < g.vertexCount(); ++id) {
+            if (partial.settled(id)) {
+                settled += 1;
+            }
+        }
+        assertEquals(2, settled);
+        assertEquals(start.id(), partial.start());
+        assertEquals(0, partial.distanceTo(start.id()));
+        assertFalse(partial.discovered(end.id()));
+        assertEquals(-1, partial.distanceTo(end.id()));
+    }
+
+    @DisplayName("WHEN any path store type is used, THEN snapshots will be isolated and the "
+            + "solver will be reusable after being released")
+    @ParameterizedTest
+    @EnumSource(PathStoreType.class)
+    void testPathStoreTypes(PathStoreType storeType) {
+        SimpleGraph g = SimpleGraph.fromText(graph1);
+        Weigher<SimpleEdge> w = new SimpleWeigher();
+        ShortestPaths<SimpleVertex, SimpleEdge> pathfinder =
+                new ShortestPaths<>(g, w, FrontierType.defaultFor(w), storeType);
+        SimpleVertex start = g.getVertexByLabel("A");
+        SimpleVertex end = g.getVertexByLabel("G");
+
+        pathfinder.setStart(start.id());
+        PathfindingSnapshot partial = pathfinder.extendSearch(2);
+        PathfindingSnapshot paths = pathfinder.extendSearch(g.vertexCount());
+        assertFalse(partial.discovered(end.id()));
+        assertEquals(50, paths.distanceTo(end.id()));
+        assertTrue(partial.estimatedBytes() > 0);
+        assertTrue(paths.estimatedBytes() >= partial.estimatedBytes());
+
+        pathfinder.release();
+        paths = pathfinder.findAllPaths(start.id());
+        assertEquals(50, paths.distanceTo(end.id()));
+        String[] pathLabels = paths.pathTo(end.id()).stream()
+                .map(id -> g.getVertex(id).label())
+                .toArray(String[]::new);
+        assertArrayEquals(new String[]{"A", "C", "E", "F", "G"}, pathLabels);
+    }
+
+    @DisplayName("WHEN any frontier type is used, THEN the same shortest paths will be found")
+    @ParameterizedTest
+    @EnumSource(FrontierType.class)
+    void testFrontierTypes(FrontierType frontierType) {
+        SimpleGraph g = SimpleGraph.fromText(graph2);
+        Weigher<SimpleEdge> w = new BoundedSimpleWeigher(6);
+        ShortestPaths<SimpleVertex, SimpleEdge> pathfinder =
+                new ShortestPaths<>(g, w, frontierType);
+
+        SimpleVertex start = g.getVertexByLabel("A");
+        PathfindingSnapshot paths = pathfinder.findAllPaths(start.id());
+        assertEquals(g.vertexCount(), pathfinder.settledCount());
+
+        SimpleVertex end = g.getVertexByLabel("D");
+        assertEquals(4, paths.distanceTo(end.id()));
+        String[] pathLabels = paths.pathTo(end.id()).stream()
+                .map(id -> g.getVertex(id).label())
+                .toArray(String[]::new);
+        assertArrayEquals(new String[]{"A", "B", "C", "E", "D"}, pathLabels);
+    }
+
+    @DisplayName("WHEN a bucket frontier is requested for a weigher without a maximum weight, "
+            + "THEN an IllegalArgumentException will be thrown")
+    @Test
+    void testBucketRequiresBound() {
+        SimpleGraph g = SimpleGraph.fromText(graph1);
+        assertThrows(IllegalArgumentException.class,
+                () -> new ShortestPaths<>(g, new SimpleWeigher(), FrontierType.BUCKET));
+    }
+
+    @DisplayName("WHEN snapshots are taken during the same search, THEN the changed ranges between "
+            + "them will cover every vertex whose status changed, and little else")
+    @Test
+    void testForEachChangedRange() {
+        // A long chain, so that the search reaches vertices in order of their IDs
+        SimpleGraph g = new SimpleGraph();
+        int n = 20000;
+        for (int i = 0; i < n; ++i) {
+            g.addVertex("v" + i);
+        }
+        for (int i = 0; i + 1 < n; ++i) {
+            g.addEdge(i, i + 1, 1);
+        }
+        ShortestPaths<SimpleVertex, SimpleEdge> pathfinder =
+                new ShortestPaths<>(g, new SimpleWeigher());
+        pathfinder.setStart(0);
+        PathfindingSnapshot before = pathfinder.extendSearch(100);
+        PathfindingSnapshot after = pathfinder.extendSearch(100);
+
+        boolean[] reported = new boolean[n];
+        after.forEachChangedRange(before, (fromId, toId) -> {
+            for (int id = fromId; id < toId; ++id) {
+                reported[id] = true;
+            }
+        });
+        int reportedCount = 0;
+        for (int id = 0; id < n; ++id) {
+            if (before.settled(id) != after.settled(id)
+                    || before.discovered(id) != after.discovered(id)) {
+                assertTrue(reported[id]);
+            }
+            reportedCount += reported[id] ? 1 : 0;
+        }
+        assertTrue(reportedCount > 0 && reportedCount < n / 2);
+
+        int[] total = new int[1];
+        after.forEachChangedRange(null, (fromId, toId) -> total[0] += toId - fromId);
+        assertEquals(n, total[0]);
+    }
+
+    @DisplayName("WHEN deltas are recorded, THEN together they report each settled and "
+            + "discovered vertex exactly once")
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void testTakeDelta(boolean parallel) {
+        SimpleGraph g = new SimpleGraph();
+        Random rng = new Random(7);
+        int n = 5000;
+        for (int i = 0; i < n; ++i) {
+            g.addVertex("v" + i);
+        }
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < 2; ++j) {
+                g.addEdge(i, rng.nextInt(n), rng.nextInt(21));
+            }
+        }
+        BoundedIntWeigher w = new BoundedIntWeigher(g, 20);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            ShortestPathSolver pathfinder = parallel
+                    ? new ParallelShortestPaths(g, w, 5, pool) : new ShortestPaths<>(g, w);
+            pathfinder.recordDeltas(true);
+            pathfinder.setStart(0);
+            int[] settledTimes = new int[n];
+            int[] discoveredTimes = new int[n];
+            int deltas = 0;
+            while (!pathfinder.allPathsFound()) {
+                pathfinder.advance(300);
+                SearchDelta delta = pathfinder.takeDelta();
+                assertEquals(0, delta.startId());
+                for (int id : delta.settledIds()) {
+                    settledTimes[id] += 1;
+                }
+                for (int id : delta.discoveredIds()) {
+                    discoveredTimes[id] += 1;
+                }
+                deltas += 1;
+            }
+            assertTrue(deltas > 1);
+            assertTrue(pathfinder.takeDelta().isEmpty());
+
+            PathfindingSnapshot paths = pathfinder.snapshot();
+            for (int id = 0; id < n; ++id) {
+                assertEquals(paths.settled(id) ? 1 : 0, settledTimes[id]);
+                assertEquals(paths.discovered(id) ? 1 : 0, discoveredTimes[id]);
+            }
+
+            // A new start begins a new stream of deltas
+            pathfinder.setStart(1);
+            SearchDelta first = pathfinder.takeDelta();
+            assertEquals(1, first.startId());
+            assertArrayEquals(new int[]{1}, first.discoveredIds());
+            assertEquals(0, first.settledIds().length);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @DisplayName("WHEN the parallel solver is used, THEN the same distances will be found as by "
+            + "the sequential solver")
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 20})
+    void testParallelShortestPaths(int delta) {
+        // A random graph whose search frontier grows large enough to be split across threads
+        SimpleGraph g = new SimpleGraph();
+        Random rng = new Random(42);
+        int n = 20000;
+        for (int i = 0; i < n; ++i) {
+            g.addVertex("v" + i);
+        }
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < 4; ++j) {
+                g.addEdge(i, rng.nextInt(n), rng.nextInt(21));
+            }
+        }
+        BoundedIntWeigher w = new BoundedIntWeigher(g, 20);
+        PathfindingSnapshot expected = new ShortestPaths<>(g, w).findAllPaths(0);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelShortestPaths pathfinder = new ParallelShortestPaths(g, w, delta, pool);
+            pathfinder.setStart(0);
+            PathfindingSnapshot partial = pathfinder.extendSearch(100);
+            assertTrue(pathfinder.settledCount() >= 100);
+            PathfindingSnapshot paths = pathfinder.findAllPaths(0);
+            for (int id = 0; id < n; ++id) {
+                assertEquals(expected.settled(id), paths.settled(id));
+                assertEquals(expected.distanceTo(id), paths.distanceTo(id));
+                if (paths.settled(id)) {
+                    // Each path must actually have the reported length
+                    List<Integer> path = paths.pathTo(id);
+                    int length = 0;
+                    for (int k = 1; k < path.size(); ++k) {
+                        int fromId = path.get(k - 1);
+                        int toId = path.get(k);
+                        length += g.getVertex(fromId).outgoingEdges().stream()
+                                .filter(e -> e.endId() == toId)
+                                .mapToInt(SimpleEdge::weight)
+                                .min().orElseThrow();
+                    }
+                    assertEquals(paths.distanceTo(id), length);
+                }
+            }
+            assertTrue(partial.settled(0));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @DisplayName("WHEN the graph and weigher support primitive traversal, THEN the same "
+            + "shortest paths will be found")
+    @Test
+    void testIntEdgeTraversal() {
+        SimpleGraph g = SimpleGraph.fromText(graph1);
+        Weigher<SimpleEdge> w = new SimpleIntWeigher(g);
+        ShortestPaths<SimpleVertex, SimpleEdge> pathfinder = new ShortestPaths<>(g, w);
+
+        SimpleVertex start = g.getVertexByLabel("A");
+        PathfindingSnapshot paths = pathfinder.findAllPaths(start.id());
+        assertEquals(g.vertexCount(), pathfinder.settledCount());
+
+        SimpleVertex end = g.getVertexByLabel("G");
+        assertEquals(50, paths.distanceTo(end.id()));
+        String[] pathLabels = paths.pathTo(end.id()).stream()
+                .map(id -> g.getVertex(id).label())
+                .toArray(String[]::new);
+        assertArrayEquals(new String[]{"A", "C", "E", "F", "G"}, pathLabels);
+    }
+
     @DisplayName("WHEN the graph is disconnected")
     @Test
     void testDisconnected() {
@@ -129,6 +410,91 @@ class ShortestPathsTest {
         assertFalse(paths.settled(b.id()));
     }
 
+    @DisplayName("Extending a search until a vertex is settled should find its shortest path")
+    @Test
+    void testExtendSearchUntil() {
+        SimpleGraph g = SimpleGraph.fromText(graph1);
+        ShortestPaths<SimpleVertex, SimpleEdge> pathfinder =
+                new ShortestPaths<>(g, new SimpleWeigher());
+
+        SimpleVertex start = g.getVertexByLabel("A");
+        SimpleVertex end = g.getVertexByLabel("E");
+        pathfinder.setStart(start.id());
+        PathfindingSnapshot paths = pathfinder.extendSearchUntil(end.id());
+        assertTrue(pathfinder.settled(end.id()));
+        assertTrue(paths.settled(end.id()));
+        assertEquals(31, paths.distanceTo(end.id()));
+
+        // Vertices farther than E should not have been settled yet
+        assertFalse(pathfinder.allPathsFound());
+        assertFalse(pathfinder.settled(g.getVertexByLabel("G").id()));
+    }
+
+    @DisplayName("A point-to-point search should find a shortest path to the goal")
+    @Test
+    void testFindPath() {
+        SimpleGraph g = SimpleGraph.fromText(graph1);
+        ShortestPaths<SimpleVertex, SimpleEdge> pathfinder =
+                new ShortestPaths<>(g, new SimpleWeigher());
+
+        SimpleVertex start = g.getVertexByLabel("A");
+        SimpleVertex goal = g.getVertexByLabel("G");
+        String[] pathLabels = pathfinder.findPath(start.id(), goal.id(), Heuristic.NONE).stream()
+                .map(id -> g.getVertex(id).label())
+                .toArray(String[]::new);
+        assertArrayEquals(new String[]{"A", "C", "E", "F", "G"}, pathLabels);
+
+        // The solver should still be usable for a full search afterwards
+        PathfindingSnapshot paths = pathfinder.findAllPaths(start.id());
+        assertEquals(50, paths.distanceTo(goal.id()));
+    }
+
+    @DisplayName("A bidirectional search should find a path as short as a one-sided search")
+    @Test
+    void testFindPathBidirectional() {
+        SimpleGraph g = SimpleGraph.fromText(graph1);
+        ShortestPaths<SimpleVertex, SimpleEdge> pathfinder =
+                new ShortestPaths<>(g, new SimpleIntWeigher(g));
+        PathfindingSnapshot all = new ShortestPaths<>(g, new SimpleWeigher())
+                .findAllPaths(g.getVertexByLabel("A").id());
+
+        SimpleVertex start = g.getVertexByLabel("A");
+        for (int goalId = 0; goalId < g.vertexCount(); ++goalId) {
+            List<Integer> path = pathfinder.findPathBidirectional(start.id(), goalId);
+            assertEquals(start.id(), path.getFirst());
+            assertEquals(goalId, path.getLast());
+            int length = 0;
+            for (int i = 1; i < path.size(); ++i) {
+                int fromId = path.get(i - 1);
+                int toId = path.get(i);
+                length += g.getVertex(fromId).outgoingEdges().stream()
+                        .filter(e -> e.endId() == toId)
+                        .mapToInt(SimpleEdge::weight)
+                        .min().orElseThrow();
+            }
+            assertEquals(all.distanceTo(goalId), length);
+        }
+    }
+
+    @DisplayName("A point-to-point search should not disturb a search in progress")
+    @Test
+    void testFindPathKeepsSearch() {
+        SimpleGraph g = SimpleGraph.fromText(graph1);
+        ShortestPaths<SimpleVertex, SimpleEdge> pathfinder =
+                new ShortestPaths<>(g, new SimpleIntWeigher(g));
+        SimpleVertex start = g.getVertexByLabel("A");
+        SimpleVertex goal = g.getVertexByLabel("G");
+        pathfinder.setStart(start.id());
+        pathfinder.advance(3);
+
+        assertEquals(goal.id(), pathfinder.findPath(start.id(), goal.id(), Heuristic.NONE)
+                .getLast());
+        assertEquals(goal.id(), pathfinder.findPathBidirectional(start.id(), goal.id()).getLast());
+        assertEquals(3, pathfinder.settledCount());
+        PathfindingSnapshot paths = pathfinder.extendSearchUntil(goal.id());
+        assertEquals(50, paths.distanceTo(goal.id()));
+    }
+
     @DisplayName("Extending a search should not settle more than the specified number of vertices")
     @Test
     void testExtendSearch() {
@@ -161,7 +527,7 @@ class ShortestPathsTest {
  * outgoing edges.
  */
 
-class SimpleGraph implements Graph<SimpleVertex> {
+class SimpleGraph implements BidirectionalGraph<SimpleVertex> {
 
     private final List<SimpleVertex> vertices = new ArrayList<>();
     private final Map<String, Integer> index = new HashMap<>();
@@ -174,6 +540,34 @@ class SimpleGraph implements Graph<SimpleVertex> {
         return vertices.get(id);
     }
 
+    /**
+     * Report each edge leaving vertex `id`, labeling it with its position in the vertex's edge
+     * set's iteration order.
+     */
+    public void forEachNeighbor(int id, IntEdgeConsumer consumer) {
+        int dir = 0;
+        for (SimpleEdge edge : getVertex(id).outgoingEdges()) {
+            consumer.accept(edge.endId(), dir);
+            dir += 1;
+        }
+    }
+
+    /**
+     * Report each edge entering vertex `id` by scanning every vertex's edges (which is slow, but
+     * this graph is small).
+     */
+    public void forEachPredecessor(int id, IntEdgeConsumer consumer) {
+        for (SimpleVertex v : vertices) {
+            int dir = 0;
+            for (SimpleEdge edge : v.outgoingEdges()) {
+                if (edge.endId() == id) {
+                    consumer.accept(v.id(), dir);
+                }
+                dir += 1;
+            }
+        }
+    }
+
     SimpleVertex addVertex(String label) {
         SimpleVertex newVertex = new SimpleVertex(vertices.size(), label, new HashSet<>());
         vertices.add(newVertex);
@@ -240,3 +634,54 @@ class SimpleWeigher implements Weigher<SimpleEdge> {
         return edge.weight();
     }
 }
+
+class BoundedSimpleWeigher extends SimpleWeigher implements BoundedWeigher<SimpleEdge> {
+
+    private final int maxWeight;
+
+    BoundedSimpleWeigher(int maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    @Override
+    public int maxWeight() {
+        return maxWeight;
+    }
+}
+
+class BoundedIntWeigher extends SimpleIntWeigher implements BoundedWeigher<SimpleEdge> {
+
+    private final int maxWeight;
+
+    BoundedIntWeigher(SimpleGraph graph, int maxWeight) {
+        super(graph);
+        this.maxWeight = maxWeight;
+    }
+
+    @Override
+    public int maxWeight() {
+        return maxWeight;
+    }
+}
+
+class SimpleIntWeigher extends SimpleWeigher implements IntEdgeWeigher<SimpleEdge> {
+
+    private final SimpleGraph graph;
+
+    SimpleIntWeigher(SimpleGraph graph) {
+        this.graph = graph;
+    }
+
+    @Override
+    public int weight(int startId, int dir) {
+        // Find the edge at position `dir` in the order reported by `forEachNeighbor()`
+        int i = 0;
+        for (SimpleEdge edge : graph.getVertex(startId).outgoingEdges()) {
+            if (i == dir) {
+                return edge.weight();
+            }
+            i += 1;
+        }
+        throw new IllegalArgumentException();
+    }
+}
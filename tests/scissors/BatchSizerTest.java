@@ -0,0 +1,132 @@
+package scissors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * A test suite for `BatchSizer`, timing simulated batches with a fake clock that advances by a
+ * fixed time per vertex settled.
+ */
+class BatchSizerTest {
+
+    /**
+     * The batch time budget used by these tests: 10 ms.
+     */
+    static final long BUDGET = 10_000_000;
+
+    /**
+     * The current time of the fake clock, in nanoseconds.
+     */
+    private long now = 0;
+
+    /**
+     * Create a sizer aiming for `BUDGET` as measured by our fake clock.
+     */
+    BatchSizer newSizer() {
+        return new BatchSizer(BUDGET, () -> now);
+    }
+
+    /**
+     * Run one simulated batch on `sizer` that settles as many vertices as it asks for, taking
+     * `nanosPerVertex` nanoseconds for each, and return the batch's size.
+     */
+    int runBatch(BatchSizer sizer, long nanosPerVertex) {
+        int size = sizer.startBatch();
+        now += size * nanosPerVertex;
+        assertEquals(size * nanosPerVertex, sizer.finishBatch(size));
+        return size;
+    }
+
+    @DisplayName("WHEN a sizer is created, THEN its first batch has the initial size")
+    @Test
+    void testInitialSize() {
+        BatchSizer sizer = newSizer();
+        assertEquals(BatchSizer.INITIAL_BATCH, sizer.batchSize());
+        assertEquals(BatchSizer.INITIAL_BATCH, sizer.startBatch());
+    }
+
+    @DisplayName("GIVEN a search settling vertices at a steady rate faster than the initial batch "
+            + "needs, WHEN batches are run, THEN each batch grows by at most a factor of 4 until "
+            + "batches take the target time")
+    @Test
+    void testGrowth() {
+        BatchSizer sizer = newSizer();
+        // 1 us per vertex, so 10,000 vertices fill the budget
+        assertEquals(2000, runBatch(sizer, 1000));
+        assertEquals(8000, runBatch(sizer, 1000));
+        assertEquals(10_000, runBatch(sizer, 1000));
+        assertEquals(10_000, runBatch(sizer, 1000));
+        assertEquals(10_000, sizer.batchSize());
+    }
+
+    @DisplayName("GIVEN a search settling vertices more slowly than the initial batch allows, WHEN a "
+            + "batch is run, THEN the next batch shrinks to take the target time")
+    @Test
+    void testShrinkage() {
+        BatchSizer sizer = newSizer();
+        // 20 us per vertex, so 500 vertices fill the budget
+        runBatch(sizer, 20_000);
+        assertEquals(500, sizer.batchSize());
+        runBatch(sizer, 20_000);
+        assertEquals(500, sizer.batchSize());
+    }
+
+    @DisplayName("GIVEN a search whose rate changes, WHEN batches are run, THEN batch sizes move "
+            + "toward the size that takes the target time at the new rate, smoothing over the old "
+            + "one")
+    @Test
+    void testConvergence() {
+        BatchSizer sizer = newSizer();
+        runBatch(sizer, 1000);
+        runBatch(sizer, 1000);
+        runBatch(sizer, 1000);
+        assertEquals(10_000, sizer.batchSize());
+
+        // The search slows to 2 us per vertex: the rates are averaged, then approach the new one
+        int previous = sizer.batchSize();
+        runBatch(sizer, 2000);
+        assertEquals(7500, sizer.batchSize());
+        for (int i = 0; i < 20; ++i) {
+            runBatch(sizer, 2000);
+            assertTrue(sizer.batchSize() <= previous);
+            assertTrue(sizer.batchSize() >= 5000);
+            previous = sizer.batchSize();
+        }
+        assertEquals(5000, sizer.batchSize(), 1);
+    }
+
+    @DisplayName("GIVEN a search too slow or too fast for the target time, WHEN batches are run, "
+            + "THEN batch sizes are clamped to the minimum and maximum sizes")
+    @Test
+    void testClamping() {
+        BatchSizer slow = newSizer();
+        runBatch(slow, 1_000_000);
+        assertEquals(BatchSizer.MIN_BATCH, slow.batchSize());
+        runBatch(slow, 1_000_000);
+        assertEquals(BatchSizer.MIN_BATCH, slow.batchSize());
+
+        BatchSizer fast = newSizer();
+        for (int i = 0; i < 20; ++i) {
+            int size = runBatch(fast, 1);
+            assertTrue(size <= BatchSizer.MAX_BATCH);
+        }
+        assertEquals(BatchSizer.MAX_BATCH, fast.batchSize());
+    }
+
+    @DisplayName("WHEN a batch settles nothing or takes no measurable time, THEN the next batch "
+            + "keeps its size")
+    @Test
+    void testNothingMeasured() {
+        BatchSizer sizer = newSizer();
+        sizer.startBatch();
+        now += 5_000_000;
+        sizer.finishBatch(0);
+        assertEquals(BatchSizer.INITIAL_BATCH, sizer.batchSize());
+
+        sizer.startBatch();
+        sizer.finishBatch(1000);
+        assertEquals(BatchSizer.INITIAL_BATCH, sizer.batchSize());
+    }
+}
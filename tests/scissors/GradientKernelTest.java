@@ -0,0 +1,83 @@
+package scissors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import graph.Weigher;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * A test suite for `GradientKernel`, checking that weight tables built a row at a time through it
+ * hold exactly the weights computed one edge at a time by `ScissorsWeights.crossGrad()`.
+ */
+class GradientKernelTest {
+
+    /**
+     * Return a `width`x`height` image of type `type` whose pixels are random, except for a few
+     * sharp-edged rectangles of solid color (so both small and large gradients occur).
+     */
+    static BufferedImage randomImage(int width, int height, int type, long seed) {
+        BufferedImage img = new BufferedImage(width, height, type);
+        Random rng = new Random(seed);
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                img.setRGB(x, y, rng.nextInt());
+            }
+        }
+        for (int i = 0; i < 3; ++i) {
+            int x0 = rng.nextInt(width);
+            int y0 = rng.nextInt(height);
+            int rgb = rng.nextInt();
+            for (int y = y0; y < Math.min(height, y0 + height / 2 + 1); ++y) {
+                for (int x = x0; x < Math.min(width, x0 + width / 2 + 1); ++x) {
+                    img.setRGB(x, y, rgb);
+                }
+            }
+        }
+        return img;
+    }
+
+    /**
+     * Weigher names, image types, and image sizes to test.  Color weights are only defined for
+     * images with at least 3 bands.
+     */
+    static Stream<Arguments> cases() {
+        int[][] sizes = {{1, 2}, {2, 1}, {1, 17}, {17, 1}, {2, 2}, {3, 3}, {31, 19}, {64, 40}};
+        Stream.Builder<Arguments> cases = Stream.builder();
+        for (int[] size : sizes) {
+            for (int type : new int[]{BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_3BYTE_BGR}) {
+                cases.add(Arguments.of("CrossGradMono", type, size[0], size[1]));
+                cases.add(Arguments.of("ColorWeight", type, size[0], size[1]));
+            }
+            cases.add(Arguments.of("CrossGradMono", BufferedImage.TYPE_BYTE_GRAY, size[0],
+                    size[1]));
+        }
+        return cases.build();
+    }
+
+    @DisplayName("GIVEN an RGB or gray image of any shape, WHEN a weight table is built through "
+            + "GradientKernel, THEN every edge, including those along the image's border, has the "
+            + "weight assigned by the corresponding direct weigher")
+    @ParameterizedTest(name = "{0} on type {1}, {2}x{3}")
+    @MethodSource("cases")
+    void testTableMatchesDirectWeigher(String weightName, int type, int width, int height) {
+        ImageGraph graph = new ImageGraph(randomImage(width, height, type, 31L * width + height));
+        Weigher<ImageEdge> direct = ScissorsWeights.makeDirectWeigher(weightName, graph);
+        WeightTable table = graph.weightTable(weightName);
+        for (int id = 0; id < graph.vertexCount(); ++id) {
+            ImageVertex v = graph.getVertex(id);
+            for (int dir = 0; dir < 8; ++dir) {
+                if (v.validDir(dir)) {
+                    ImageEdge edge = new ImageEdge(id, v.neighborId(dir), dir);
+                    assertEquals(direct.weight(edge), table.weight(edge),
+                            "edge from " + v.point() + " in direction " + dir);
+                }
+            }
+        }
+    }
+}
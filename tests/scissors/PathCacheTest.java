@@ -0,0 +1,178 @@
+package scissors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import graph.PathfindingSnapshot;
+import graph.ShortestPathSolver;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * A test suite for `PathCache` and for `PathPrecomputer`, which fills it.
+ */
+class PathCacheTest {
+
+    /**
+     * The weigher used by these tests.
+     */
+    static final String WEIGHT = "CrossGradMono";
+
+    /**
+     * Return a `width`x`height` image of random colors.
+     */
+    static BufferedImage randomImage(int width, int height, long seed) {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random rng = new Random(seed);
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                img.setRGB(x, y, rng.nextInt());
+            }
+        }
+        return img;
+    }
+
+    /**
+     * Return a graph of a `width`x`height` image of random colors.
+     */
+    static ImageGraph randomGraph(int width, int height, long seed) {
+        return new ImageGraph(randomImage(width, height, seed));
+    }
+
+    /**
+     * Return a solver that has found all paths from the pixel with ID `startId` in `graph`.
+     */
+    static ShortestPathSolver solveFrom(ImageGraph graph, int startId) {
+        ShortestPathSolver solver = ScissorsSelectionModel.makeSolver(graph, WEIGHT);
+        solver.findAllPaths(startId);
+        return solver;
+    }
+
+    /**
+     * Return all paths from the pixel with ID `startId` in `graph`.
+     */
+    static PathfindingSnapshot pathsFrom(ImageGraph graph, int startId) {
+        return solveFrom(graph, startId).snapshot();
+    }
+
+    @DisplayName("GIVEN a cache with room for two snapshots, WHEN a third is added, THEN the least "
+            + "recently used snapshot is evicted, counting lookups as uses, AND the total size "
+            + "stays within the bound")
+    @Test
+    void testLruEviction() {
+        ImageGraph graph = randomGraph(40, 30, 1);
+        PathfindingSnapshot a = pathsFrom(graph, 0);
+        PathfindingSnapshot b = pathsFrom(graph, 1);
+        PathfindingSnapshot c = pathsFrom(graph, 2);
+        long size = a.estimatedBytes();
+        assertEquals(size, b.estimatedBytes());
+        assertEquals(size, c.estimatedBytes());
+
+        PathCache cache = new PathCache(2 * size + size / 2);
+        assertTrue(cache.put(graph, WEIGHT, a));
+        assertTrue(cache.put(graph, WEIGHT, b));
+        assertEquals(2 * size, cache.totalBytes());
+
+        // `a` becomes the most recently used, so `b` is evicted instead.
+        assertSame(a, cache.get(graph, WEIGHT, 0));
+        assertTrue(cache.put(graph, WEIGHT, c));
+        assertSame(a, cache.get(graph, WEIGHT, 0));
+        assertNull(cache.get(graph, WEIGHT, 1));
+        assertSame(c, cache.get(graph, WEIGHT, 2));
+        assertEquals(2 * size, cache.totalBytes());
+
+        // Replacing a snapshot with one for the same key evicts nothing else.
+        PathfindingSnapshot c2 = pathsFrom(graph, 2);
+        assertTrue(cache.put(graph, WEIGHT, c2));
+        assertSame(a, cache.get(graph, WEIGHT, 0));
+        assertSame(c2, cache.get(graph, WEIGHT, 2));
+        assertEquals(2 * size, cache.totalBytes());
+    }
+
+    @DisplayName("GIVEN a cache, WHEN a snapshot larger than its bound is added, THEN it is "
+            + "rejected without evicting anything, AND `putOrRelease()` releases the solver that "
+            + "found it, AND a solver whose snapshot was cached is not released")
+    @Test
+    void testRejectTooLarge() {
+        ImageGraph graph = randomGraph(40, 30, 2);
+        ShortestPathSolver small = solveFrom(graph, 0);
+        PathfindingSnapshot smallPaths = small.snapshot();
+        PathCache cache = new PathCache(smallPaths.estimatedBytes() + 1);
+        assertTrue(cache.putOrRelease(graph, WEIGHT, smallPaths, small));
+        assertEquals(graph.vertexCount(), small.settledCount());
+
+        ImageGraph bigGraph = randomGraph(80, 60, 3);
+        ShortestPathSolver big = solveFrom(bigGraph, 0);
+        PathfindingSnapshot bigPaths = big.snapshot();
+        assertTrue(bigPaths.estimatedBytes() > smallPaths.estimatedBytes() + 1);
+        assertFalse(cache.put(bigGraph, WEIGHT, bigPaths));
+        assertFalse(cache.putOrRelease(bigGraph, WEIGHT, bigPaths, big));
+        assertEquals(0, big.settledCount());
+
+        assertNull(cache.get(bigGraph, WEIGHT, 0));
+        assertSame(smallPaths, cache.get(graph, WEIGHT, 0));
+        assertEquals(smallPaths.estimatedBytes(), cache.totalBytes());
+    }
+
+    @DisplayName("GIVEN a cached snapshot, WHEN looking up a snapshot with a different graph (even "
+            + "of an identical image), weigher, or start, THEN none is found")
+    @Test
+    void testKeying() {
+        ImageGraph graph = randomGraph(20, 20, 4);
+        ImageGraph twin = randomGraph(20, 20, 4);
+        PathCache cache = new PathCache(PathCache.defaultMaxBytes());
+        PathfindingSnapshot paths = pathsFrom(graph, 5);
+        assertTrue(cache.put(graph, WEIGHT, paths));
+
+        assertSame(paths, cache.get(graph, WEIGHT, 5));
+        assertNull(cache.get(twin, WEIGHT, 5));
+        assertNull(cache.get(graph, "ColorWeight", 5));
+        assertNull(cache.get(graph, WEIGHT, 6));
+
+        // Snapshots for each key are kept separately.
+        PathfindingSnapshot otherPaths = pathsFrom(graph, 5);
+        assertTrue(cache.put(graph, "ColorWeight", otherPaths));
+        assertSame(paths, cache.get(graph, WEIGHT, 5));
+        assertSame(otherPaths, cache.get(graph, "ColorWeight", 5));
+
+        cache.removeAll(twin);
+        assertSame(paths, cache.get(graph, WEIGHT, 5));
+        cache.removeAll(graph);
+        assertNull(cache.get(graph, WEIGHT, 5));
+        assertNull(cache.get(graph, "ColorWeight", 5));
+        assertEquals(0, cache.totalBytes());
+    }
+
+    @DisplayName("GIVEN an image context, WHEN a precomputer speculates about a cursor location, "
+            + "THEN paths from the cursor's pixel are eventually cached under its key, settling "
+            + "at least the region around it, AND they are discarded with the context's paths")
+    @Test
+    void testPrecomputerFillsCache() throws InterruptedException {
+        ImageContext context = new ImageContext(randomImage(60, 50, 5));
+        Point cursor = new Point(30, 25);
+        int cursorId = context.graph().idAt(cursor);
+        int radius = 5;
+
+        context.precomputer().speculate(WEIGHT, cursor, radius);
+        PathfindingSnapshot paths = null;
+        for (int i = 0; i < 1000 && paths == null; ++i) {
+            Thread.sleep(10);
+            paths = context.pathCache().get(context.graph(), WEIGHT, cursorId);
+        }
+        assertNotNull(paths);
+        assertEquals(cursorId, paths.start());
+        for (int y = cursor.y - radius; y <= cursor.y + radius; ++y) {
+            for (int x = cursor.x - radius; x <= cursor.x + radius; ++x) {
+                assertTrue(paths.settled(context.graph().idAt(new Point(x, y))));
+            }
+        }
+        assertNull(context.pathCache().get(context.graph(), "ColorWeight", cursorId));
+
+        // Contexts share one cache, so each must discard its own paths when it is done.
+        assertSame(context.pathCache(), new ImageContext(randomImage(2, 2, 6)).pathCache());
+        context.discardCachedPaths();
+        assertNull(context.pathCache().get(context.graph(), WEIGHT, cursorId));
+    }
+}
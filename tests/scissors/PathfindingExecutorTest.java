@@ -0,0 +1,190 @@
+package scissors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingUtilities;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import scissors.PathfindingExecutor.Lane;
+import scissors.PathfindingExecutor.Task;
+
+/**
+ * A test suite for `PathfindingExecutor`, checking how a lane hands over from one task to the
+ * next.  Tasks record what happened to them in a shared log, and `done()` completes a future with
+ * what the task observed, so tests can wait for it.
+ */
+class PathfindingExecutorTest {
+
+    /**
+     * How long to wait for anything to happen on another thread before failing, in seconds.
+     */
+    static final long TIMEOUT = 10;
+
+    /**
+     * A task that runs `batches` batches (forever, if negative), publishing each batch's number,
+     * and returns its name.  Before its first batch runs, it waits until `firstBatch` is released.
+     */
+    static class LoggingTask extends Task<String, Integer> {
+
+        final String name;
+        final int batches;
+        final List<String> log;
+        final CountDownLatch firstBatch = new CountDownLatch(1);
+        final CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        final CountDownLatch cleanedUp = new CountDownLatch(1);
+        final CompletableFuture<Boolean> cancelledWhenDone = new CompletableFuture<>();
+        final AtomicInteger batchCount = new AtomicInteger();
+        final List<Integer> processed = new CopyOnWriteArrayList<>();
+
+        LoggingTask(String name, int batches, List<String> log) {
+            this.name = name;
+            this.batches = batches;
+            this.log = log;
+        }
+
+        @Override
+        protected String runBatch() throws Exception {
+            int batch = batchCount.incrementAndGet();
+            if (batch == 1) {
+                log.add(name + " batch");
+                firstBatchStarted.countDown();
+                assertTrue(firstBatch.await(TIMEOUT, TimeUnit.SECONDS));
+            }
+            publish(batch);
+            return (batches >= 0 && batch >= batches) ? name : null;
+        }
+
+        @Override
+        protected void cleanUp() {
+            log.add(name + " cleanUp");
+            cleanedUp.countDown();
+        }
+
+        @Override
+        protected void process(List<Integer> chunks) {
+            assertTrue(SwingUtilities.isEventDispatchThread());
+            processed.addAll(chunks);
+        }
+
+        @Override
+        protected void done() {
+            assertTrue(SwingUtilities.isEventDispatchThread());
+            cancelledWhenDone.complete(isCancelled());
+        }
+    }
+
+    /**
+     * Wait for every event already queued on the EDT to be handled.
+     */
+    static void flushEdt() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+        });
+    }
+
+    @DisplayName("GIVEN a lane running a task, WHEN a second task is started on the lane, THEN the "
+            + "first task's done() sees it CANCELLED, AND its get() throws CancellationException, "
+            + "AND the second task runs to completion")
+    @Test
+    void testStartCancelsPrevious() throws Exception {
+        Lane lane = new PathfindingExecutor(2).newLane();
+        List<String> log = new CopyOnWriteArrayList<>();
+        LoggingTask first = new LoggingTask("first", -1, log);
+        LoggingTask second = new LoggingTask("second", 3, log);
+        second.firstBatch.countDown();
+
+        lane.start(first);
+        assertTrue(first.firstBatchStarted.await(TIMEOUT, TimeUnit.SECONDS));
+        lane.start(second);
+        assertTrue(first.cancelledWhenDone.get(TIMEOUT, TimeUnit.SECONDS));
+        assertTrue(first.isDone());
+        assertThrows(CancellationException.class, first::get);
+
+        first.firstBatch.countDown();
+        assertFalse(second.cancelledWhenDone.get(TIMEOUT, TimeUnit.SECONDS));
+        assertEquals("second", second.get());
+        assertEquals(3, second.batchCount.get());
+    }
+
+    @DisplayName("GIVEN a lane whose task is in the middle of a batch, WHEN a second task is "
+            + "started on the lane, THEN the first task's cleanUp() runs after its batch finishes "
+            + "AND before the second task's first batch, AND the first task runs no more batches")
+    @Test
+    void testCleanUpBeforeNextBatch() throws Exception {
+        Lane lane = new PathfindingExecutor(2).newLane();
+        List<String> log = new CopyOnWriteArrayList<>();
+        LoggingTask first = new LoggingTask("first", -1, log);
+        LoggingTask second = new LoggingTask("second", 1, log);
+        second.firstBatch.countDown();
+
+        lane.start(first);
+        assertTrue(first.firstBatchStarted.await(TIMEOUT, TimeUnit.SECONDS));
+        lane.start(second);
+
+        // The second task must wait for the first task's batch, which is still blocked.
+        assertFalse(second.firstBatchStarted.await(200, TimeUnit.MILLISECONDS));
+        assertEquals(List.of("first batch"), log);
+
+        first.firstBatch.countDown();
+        assertFalse(second.cancelledWhenDone.get(TIMEOUT, TimeUnit.SECONDS));
+        assertEquals("second", second.get());
+        assertEquals(List.of("first batch", "first cleanUp", "second batch"), log);
+        assertEquals(1, first.batchCount.get());
+    }
+
+    @DisplayName("GIVEN a task publishing chunks as fast as it can, WHEN it is cancelled on the "
+            + "EDT, THEN no chunks reach its process() afterward, including chunks published but "
+            + "not yet delivered, AND its done() is called exactly once")
+    @Test
+    void testNoChunksAfterCancel() throws Exception {
+        Lane lane = new PathfindingExecutor(2).newLane();
+        List<String> log = new CopyOnWriteArrayList<>();
+        AtomicInteger doneCalls = new AtomicInteger();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicBoolean processedAfterCancel = new AtomicBoolean();
+        LoggingTask task = new LoggingTask("task", -1, log) {
+            @Override
+            protected void process(List<Integer> chunks) {
+                if (cancelled.get()) {
+                    processedAfterCancel.set(true);
+                }
+                super.process(chunks);
+            }
+
+            @Override
+            protected void done() {
+                doneCalls.incrementAndGet();
+                super.done();
+            }
+        };
+        task.firstBatch.countDown();
+
+        lane.start(task);
+        // Let some chunks through, so that more are likely to be pending when we cancel.
+        while (task.processed.size() < 10) {
+            flushEdt();
+        }
+        SwingUtilities.invokeAndWait(() -> {
+            assertTrue(task.cancel());
+            cancelled.set(true);
+        });
+        assertTrue(task.cleanedUp.await(TIMEOUT, TimeUnit.SECONDS));
+        assertTrue(task.cancelledWhenDone.get(TIMEOUT, TimeUnit.SECONDS));
+
+        // Anything the task published before stopping has been queued on the EDT by now.
+        flushEdt();
+        flushEdt();
+        assertFalse(processedAfterCancel.get());
+        assertEquals(1, doneCalls.get());
+        assertFalse(task.cancel());
+        flushEdt();
+        assertEquals(1, doneCalls.get());
+    }
+}
@@ -0,0 +1,85 @@
+package scissors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * A test suite for `SampleReader`, checking each specialized and generic reader against
+ * `Raster.getSample()`.
+ */
+class SampleReaderTest {
+
+    /**
+     * Return a `width`x`height` image of type `type` with random pixels.
+     */
+    static BufferedImage randomImage(int width, int height, int type) {
+        BufferedImage img = new BufferedImage(width, height, type);
+        Random rng = new Random(type);
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                img.setRGB(x, y, rng.nextInt());
+            }
+        }
+        return img;
+    }
+
+    /**
+     * Assert that `reader` reads the same samples as `raster.getSample()`, both one at a time and a
+     * row at a time.
+     */
+    static void assertReads(Raster raster, SampleReader reader) {
+        assertEquals(raster.getWidth(), reader.width());
+        assertEquals(raster.getHeight(), reader.height());
+        assertEquals(raster.getNumBands(), reader.numBands());
+        int[] row = new int[raster.getWidth()];
+        for (int b = 0; b < raster.getNumBands(); ++b) {
+            for (int y = 0; y < raster.getHeight(); ++y) {
+                reader.readRow(y, b, row);
+                for (int x = 0; x < raster.getWidth(); ++x) {
+                    int expected = raster.getSample(raster.getMinX() + x, raster.getMinY() + y, b);
+                    assertEquals(expected, reader.sample(x, y, b),
+                            "sample of band " + b + " at (" + x + ", " + y + ")");
+                    assertEquals(expected, row[x],
+                            "row sample of band " + b + " at (" + x + ", " + y + ")");
+                }
+            }
+        }
+    }
+
+    @DisplayName("GIVEN an image of a common type, WHEN its raster is read, THEN every sample of "
+            + "every band matches Raster.getSample()")
+    @ParameterizedTest
+    @ValueSource(ints = {BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB,
+            BufferedImage.TYPE_INT_ARGB_PRE, BufferedImage.TYPE_INT_BGR,
+            BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR,
+            BufferedImage.TYPE_4BYTE_ABGR_PRE, BufferedImage.TYPE_BYTE_GRAY,
+            BufferedImage.TYPE_USHORT_GRAY})
+    void testWholeRaster(int type) {
+        Raster raster = randomImage(23, 17, type).getRaster();
+        assertReads(raster, SampleReader.of(raster));
+    }
+
+    @DisplayName("GIVEN an image of a common type, WHEN a child raster of part of it is read, "
+            + "THEN coordinates are relative to the child's top-left corner, AND every sample "
+            + "matches Raster.getSample()")
+    @ParameterizedTest
+    @ValueSource(ints = {BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB,
+            BufferedImage.TYPE_INT_ARGB_PRE, BufferedImage.TYPE_INT_BGR,
+            BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR,
+            BufferedImage.TYPE_4BYTE_ABGR_PRE, BufferedImage.TYPE_BYTE_GRAY,
+            BufferedImage.TYPE_USHORT_GRAY})
+    void testChildRaster(int type) {
+        Raster raster = randomImage(23, 17, type).getRaster();
+        Raster child = raster.createChild(5, 3, 11, 9, 5, 3, null);
+        assertReads(child, SampleReader.of(child));
+
+        Raster translated = raster.createChild(5, 3, 11, 9, 0, 0, null);
+        assertReads(translated, SampleReader.of(translated));
+    }
+}
@@ -0,0 +1,239 @@
+package scissors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import graph.PathfindingSnapshot;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import selector.PolyLine;
+
+/**
+ * A test suite for `TiledImage` and for graphs over regions of tiled images
+ * (`ImageGraph.ofRegion()`), checking them against a `BufferedImage` with the same pixels and a
+ * graph over all of it.  Images are a little larger than one tile, so that regions can straddle
+ * tile boundaries.
+ */
+class TiledImageTest {
+
+    /**
+     * The dimensions of the images used by these tests.
+     */
+    static final int WIDTH = TiledImage.TILE_SIZE + 88;
+    static final int HEIGHT = TiledImage.TILE_SIZE + 48;
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Return a tiled image stored in a new file in `dir` with the same pixels as `img`.
+     */
+    TiledImage tile(BufferedImage img) throws IOException {
+        TiledImage tiled = TiledImage.create(dir.resolve("image." + TiledImage.FILE_SUFFIX),
+                img.getWidth(), img.getHeight());
+        tiled.write(img, 0, 0);
+        return tiled;
+    }
+
+    /**
+     * Return a copy of `img` as a `TYPE_INT_RGB` image (whose pixels are stored in the heap).
+     */
+    static BufferedImage heapCopy(BufferedImage img) {
+        BufferedImage copy = new BufferedImage(img.getWidth(), img.getHeight(),
+                BufferedImage.TYPE_INT_RGB);
+        copy.getGraphics().drawImage(img, 0, 0, null);
+        return copy;
+    }
+
+    /**
+     * Regions of a `WIDTH`x`HEIGHT` image to build graphs over: the whole image, regions
+     * straddling tile boundaries (inside the image and against its corners), and thin strips.
+     */
+    static Stream<Rectangle> regions() {
+        int t = TiledImage.TILE_SIZE;
+        return Stream.of(new Rectangle(0, 0, WIDTH, HEIGHT),
+                new Rectangle(t - 40, t - 30, 70, 50),
+                new Rectangle(0, 0, t + 10, 20),
+                new Rectangle(WIDTH - 60, HEIGHT - 45, 60, 45),
+                new Rectangle(200, 100, 1, 80),
+                new Rectangle(t - 5, 300, 10, 1));
+    }
+
+    /**
+     * Weigher names and regions to test.
+     */
+    static Stream<Arguments> regionCases() {
+        return regions().flatMap(region -> Stream.of(Arguments.of("CrossGradMono", region),
+                Arguments.of("ColorWeight", region)));
+    }
+
+    @DisplayName("GIVEN a tiled image, WHEN a region of it is viewed, THEN the view has the "
+            + "region's pixels, AND reading its raster (or part of it) through a SampleReader "
+            + "matches Raster.getSample()")
+    @Test
+    void testView() throws IOException {
+        BufferedImage img = GradientKernelTest.randomImage(WIDTH, HEIGHT,
+                BufferedImage.TYPE_INT_RGB, 1);
+        try (TiledImage tiled = tile(img)) {
+            for (Rectangle region : regions().toList()) {
+                BufferedImage view = tiled.view(region);
+                assertEquals(region.width, view.getWidth());
+                assertEquals(region.height, view.getHeight());
+                for (int y = 0; y < region.height; ++y) {
+                    for (int x = 0; x < region.width; ++x) {
+                        assertEquals(img.getRGB(region.x + x, region.y + y) & 0xFFFFFF,
+                                view.getRGB(x, y) & 0xFFFFFF);
+                    }
+                }
+                Raster raster = view.getRaster();
+                SampleReaderTest.assertReads(raster, SampleReader.of(raster));
+                Raster child = raster.createChild(region.width / 3, region.height / 3,
+                        region.width - region.width / 3, region.height - region.height / 3, 0, 0,
+                        null);
+                SampleReaderTest.assertReads(child, SampleReader.of(child));
+            }
+            assertSame(tiled, TiledImage.viewed(tiled.view()));
+            assertNull(TiledImage.viewed(tiled.view(new Rectangle(0, 0, 10, 10))));
+            assertNull(TiledImage.viewed(img));
+        }
+    }
+
+    @DisplayName("GIVEN a tiled image, WHEN a graph is built over a region of it, THEN its "
+            + "vertices map to the same points in the whole image, AND each edge is valid exactly "
+            + "when it stays within the region, AND edges not along the region's border inside "
+            + "the image have the same weights as in a graph over the whole image")
+    @ParameterizedTest(name = "{0} in {1}")
+    @MethodSource("regionCases")
+    void testRegionGraphMatchesFullGraph(String weightName, Rectangle region)
+            throws IOException {
+        BufferedImage img = GradientKernelTest.randomImage(WIDTH, HEIGHT,
+                BufferedImage.TYPE_INT_RGB, 2);
+        ImageGraph full = new ImageGraph(img);
+        WeightTable fullWeights = full.weightTable(weightName);
+        try (TiledImage tiled = tile(img)) {
+            ImageGraph graph = ImageGraph.ofRegion(tiled, region);
+            assertEquals(region, graph.bounds());
+            assertEquals(region.width * region.height, graph.vertexCount());
+            WeightTable weights = graph.weightTable(weightName);
+            for (int id = 0; id < graph.vertexCount(); ++id) {
+                ImageVertex v = graph.getVertex(id);
+                Point p = new Point(region.x + v.x(), region.y + v.y());
+                assertEquals(id, graph.idAt(p));
+                assertEquals(v, graph.vertexAt(p));
+                ImageVertex fullV = full.vertexAt(p);
+
+                // Weights of edges leaving pixels on the region's border depend on pixels outside
+                //  of it, unless that border is also the image's.
+                boolean interior = (v.x() > 0 || region.x == 0)
+                        && (v.x() < region.width - 1 || region.x + region.width == WIDTH)
+                        && (v.y() > 0 || region.y == 0)
+                        && (v.y() < region.height - 1 || region.y + region.height == HEIGHT);
+                for (int dir = 0; dir < 8; ++dir) {
+                    boolean inRegion = fullV.validDir(dir)
+                            && region.contains(full.getVertex(fullV.neighborId(dir)).point());
+                    assertEquals(inRegion, v.validDir(dir), "direction " + dir + " from " + p);
+                    if (inRegion && interior) {
+                        assertEquals(fullWeights.weight(fullV.id(), dir), weights.weight(id, dir),
+                                "weight of edge in direction " + dir + " from " + p);
+                    }
+                }
+            }
+        }
+    }
+
+    @DisplayName("GIVEN a tiled image, WHEN paths are found in a graph over a region covering the "
+            + "whole image, THEN they are the same as the paths found in a graph over a "
+            + "BufferedImage with the same pixels")
+    @Test
+    void testWholeRegionPaths() throws IOException {
+        BufferedImage img = GradientKernelTest.randomImage(WIDTH, HEIGHT,
+                BufferedImage.TYPE_INT_RGB, 3);
+        ImageGraph full = new ImageGraph(img);
+        try (TiledImage tiled = tile(img)) {
+            ImageGraph graph = ImageGraph.ofRegion(tiled,
+                    new Rectangle(0, 0, WIDTH, HEIGHT));
+            Point start = new Point(WIDTH / 2, HEIGHT / 3);
+            PathfindingSnapshot fullPaths = PathCacheTest.pathsFrom(full, full.idAt(start));
+            PathfindingSnapshot paths = PathCacheTest.pathsFrom(graph, graph.idAt(start));
+            for (Point end : List.of(new Point(0, 0), new Point(WIDTH - 1, HEIGHT - 1),
+                    new Point(TiledImage.TILE_SIZE, TiledImage.TILE_SIZE), new Point(7, 400))) {
+                assertEquals(fullPaths.distanceTo(full.idAt(end)),
+                        paths.distanceTo(graph.idAt(end)));
+                PolyLine expected = full.pathToPolyLine(fullPaths.pathTo(full.idAt(end)));
+                assertEquals(expected, graph.pathToPolyLine(paths.pathTo(graph.idAt(end))));
+            }
+        }
+    }
+
+    @DisplayName("GIVEN a tiled image whose tiles have not been mapped yet, WHEN many threads read "
+            + "all of its pixels at once, THEN they all read the right pixels")
+    @Test
+    void testConcurrentReads() throws Exception {
+        BufferedImage img = GradientKernelTest.randomImage(WIDTH, HEIGHT,
+                BufferedImage.TYPE_INT_RGB, 4);
+        tile(img).close();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try (TiledImage tiled = TiledImage.open(dir.resolve("image." + TiledImage.FILE_SUFFIX),
+                false)) {
+            List<Future<BufferedImage>> copies = Stream.generate(
+                    () -> pool.submit(() -> heapCopy(tiled.view()))).limit(8).toList();
+            for (Future<BufferedImage> copy : copies) {
+                BufferedImage pixels = copy.get();
+                for (int y = 0; y < HEIGHT; ++y) {
+                    for (int x = 0; x < WIDTH; ++x) {
+                        assertEquals(img.getRGB(x, y), pixels.getRGB(x, y));
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @DisplayName("GIVEN a view of a tiled image too large to trace whole, WHEN a selection is "
+            + "started, THEN the model traces a region around its starting point, AND points "
+            + "outside of that region are moved into it")
+    @Test
+    void testRegionAroundSelection() throws IOException {
+        int width = ImageContext.MAX_REGION_SIZE + 1000;
+        BufferedImage img = GradientKernelTest.randomImage(width, 40, BufferedImage.TYPE_INT_RGB,
+                5);
+        try (TiledImage tiled = tile(img)) {
+            BufferedImage view = tiled.view();
+            ImageContext context = ImageContext.regionAround(view, new Point(10, 10));
+            assertEquals(new Rectangle(0, 0, ImageContext.MAX_REGION_SIZE, 40), context.bounds());
+            assertSame(view, context.image());
+            assertEquals(new Point(ImageContext.MAX_REGION_SIZE - 1, 39),
+                    context.clamp(new Point(width - 1, 50)));
+
+            ScissorsSelectionModel model = new ScissorsSelectionModel("CrossGradMono", false);
+            model.setImage(view);
+            Point start = new Point(width - 5, 20);
+            assertFalse(model.context().covers(start));
+            model.addPoint(start);
+            assertTrue(model.context().covers(start));
+            assertEquals(width, model.context().bounds().x + model.context().bounds().width);
+            assertEquals(start, model.lastPoint());
+            assertEquals(ImageContext.MAX_REGION_SIZE, model.context().bounds().width);
+            model.reset();
+
+            // Small tiled images are traced whole.
+            assertEquals(new Rectangle(0, 0, 100, 40), ImageContext.regionAround(
+                    tiled.view(new Rectangle(0, 0, 100, 40)), new Point(0, 0)).bounds());
+        }
+    }
+}
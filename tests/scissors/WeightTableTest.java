@@ -0,0 +1,153 @@
+package scissors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import graph.Weigher;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * A test suite for `WeightTable`, checking tables built both a row at a time (from a `RowWeigher`)
+ * and an edge at a time against the weights of their source weigher.
+ */
+class WeightTableTest {
+
+    /**
+     * A weigher assigning each edge a pseudo-random weight in [`minWeight`..255] determined by its
+     * starting pixel and direction.  As a `RowWeigher`, it sets the entries of edges leaving the
+     * image to 0, which a table must ignore.
+     */
+    static class HashWeigher implements Weigher<ImageEdge>, WeightTable.RowWeigher {
+
+        private final ImageGraph graph;
+        private final int minWeight;
+
+        HashWeigher(ImageGraph graph, int minWeight) {
+            this.graph = graph;
+            this.minWeight = minWeight;
+        }
+
+        /**
+         * Return the weight of the edge leaving the pixel at (`x`, `y`) in direction `dir`.
+         */
+        int weight(int x, int y, int dir) {
+            int h = (x * 73856093) ^ (y * 19349663) ^ (dir * 83492791);
+            h ^= h >>> 13;
+            h *= 0x5bd1e995;
+            h ^= h >>> 15;
+            return minWeight + Math.floorMod(h, ScissorsWeights.MAX_WEIGHT - minWeight + 1);
+        }
+
+        @Override
+        public int weight(ImageEdge edge) {
+            ImageVertex v = graph.getVertex(edge.startId());
+            assert v.validDir(edge.dir());
+            return weight(v.x(), v.y(), edge.dir());
+        }
+
+        @Override
+        public void weighRow(int y, int[][] weights) {
+            for (int x = 0; x < graph.width(); ++x) {
+                ImageVertex v = new ImageVertex(graph, x, y);
+                for (int dir = 0; dir < 8; ++dir) {
+                    weights[dir][x] = v.validDir(dir) ? weight(x, y, dir) : 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Return a graph of a `width`x`height` image of random colors.
+     */
+    static ImageGraph randomGraph(int width, int height, long seed) {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random rng = new Random(seed);
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                img.setRGB(x, y, rng.nextInt());
+            }
+        }
+        return new ImageGraph(img);
+    }
+
+    /**
+     * Assert that `table` holds `source`'s weight for every edge of `graph`, weighing the edges
+     * serially, and return the smallest of those weights.
+     */
+    static int assertMatches(ImageGraph graph, Weigher<ImageEdge> source, WeightTable table) {
+        int min = Integer.MAX_VALUE;
+        for (int id = 0; id < graph.vertexCount(); ++id) {
+            ImageVertex v = graph.getVertex(id);
+            for (int dir = 0; dir < 8; ++dir) {
+                if (v.validDir(dir)) {
+                    ImageEdge edge = new ImageEdge(id, v.neighborId(dir), dir);
+                    int expected = source.weight(edge);
+                    assertEquals(expected, table.weight(edge),
+                            "edge from " + v.point() + " in direction " + dir);
+                    assertEquals(expected, table.weight(id, dir));
+                    min = Math.min(min, expected);
+                }
+            }
+        }
+        return min;
+    }
+
+    @DisplayName("GIVEN an image of any shape, including single rows and columns and heights that "
+            + "leave a partial strip, WHEN a table is built from a weigher one edge at a time, "
+            + "THEN it holds the weigher's weight for every edge within the image, including those "
+            + "along its border")
+    @ParameterizedTest
+    @CsvSource({"1, 1", "1, 9", "9, 1", "2, 2", "37, 21", "16, 16", "23, 53"})
+    void testPerEdgeWeights(int width, int height) {
+        ImageGraph graph = randomGraph(width, height, 1);
+        HashWeigher source = new HashWeigher(graph, 0);
+        Weigher<ImageEdge> perEdge = source::weight;
+        WeightTable table = new WeightTable(graph, perEdge);
+        assertMatches(graph, source, table);
+    }
+
+    @DisplayName("GIVEN an image of any shape, WHEN a table is built in parallel strips from a "
+            + "RowWeigher that sets the entries of edges leaving the image to 0, THEN it holds the "
+            + "same weights as a serial, edge-at-a-time build, AND its minimum weight ignores the "
+            + "entries of edges leaving the image")
+    @ParameterizedTest
+    @CsvSource({"1, 9", "9, 1", "2, 2", "37, 21", "16, 16", "23, 53", "5, 100"})
+    void testStripsMatchSerial(int width, int height) {
+        ImageGraph graph = randomGraph(width, height, 2);
+        HashWeigher source = new HashWeigher(graph, 40);
+        WeightTable strips = new WeightTable(graph, source);
+        int serialMin = assertMatches(graph, source, strips);
+        assertEquals(serialMin, strips.minWeight());
+        assertTrue(strips.minWeight() >= 40);
+    }
+
+    @DisplayName("WHEN a table is built, THEN its maximum weight is the largest any weigher may "
+            + "assign, AND its minimum weight is the smallest weight of any edge within the image")
+    @ParameterizedTest
+    @CsvSource({"0, 1, 9", "0, 37, 21", "100, 37, 21", "200, 16, 33"})
+    void testWeightBounds(int minWeight, int width, int height) {
+        ImageGraph graph = randomGraph(width, height, 3);
+        HashWeigher source = new HashWeigher(graph, minWeight);
+        Weigher<ImageEdge> perEdge = source::weight;
+        for (WeightTable table : new WeightTable[]{new WeightTable(graph, source),
+                new WeightTable(graph, perEdge)}) {
+            assertEquals(ScissorsWeights.MAX_WEIGHT, table.maxWeight());
+            assertEquals(assertMatches(graph, source, table), table.minWeight());
+        }
+    }
+
+    @DisplayName("GIVEN a one-pixel image, which has no edges, WHEN a table is built, THEN its "
+            + "minimum weight is no smaller than any weight it could hold")
+    @ParameterizedTest
+    @CsvSource({"true", "false"})
+    void testNoEdges(boolean rows) {
+        ImageGraph graph = randomGraph(1, 1, 4);
+        HashWeigher source = new HashWeigher(graph, 0);
+        Weigher<ImageEdge> perEdge = source::weight;
+        WeightTable table = new WeightTable(graph, rows ? source : perEdge);
+        assertEquals(ScissorsWeights.MAX_WEIGHT, table.minWeight());
+    }
+}